@@ -46,6 +46,12 @@ public class Main extends Application {
 		primaryStage.setScene(scene);
 		primaryStage.show();
 	}
+	
+	@Override
+	public void stop() {
+		if(primaryStage != null && primaryStage.getScene() instanceof MainScene)
+			getMainScene().getMainPane().getProblemPane().close();
+	}
 
 	public Stage getPrimaryStage() {
 		return primaryStage;
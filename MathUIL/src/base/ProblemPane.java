@@ -47,6 +47,7 @@ public class ProblemPane extends Pane {
 	private final FixedDoubleQueue times;
 	private final FixedBooleanQueue accuracies;
 	private final CompositeProblemSupplier compositeSupplier;
+	private final ProblemPrefetcher prefetcher;
 	private final WebView problemView;
 	private final Label answerLabel, lastTimeLabel, averageTimeLabel, averageAccuracyLabel, skillLabel;
 	/** The {@link TextField} where the user will type their answer. */
@@ -87,6 +88,7 @@ public class ProblemPane extends Pane {
 
 	public ProblemPane(final CompositeProblemSupplier problemSupplier) {
 		compositeSupplier = Objects.requireNonNull(problemSupplier);
+		prefetcher = new ProblemPrefetcher(compositeSupplier);
 		resultsTracked = DEFAULT_RESULTS_TRACKED;
 		times = new FixedDoubleQueue(resultsTracked);
 		accuracies = new FixedBooleanQueue(resultsTracked);
@@ -220,6 +222,16 @@ public class ProblemPane extends Pane {
 	public CompositeProblemSupplier getCompositeSupplier() {
 		return compositeSupplier;
 	}
+	
+	/**
+	 * Stops generating {@link Problem Problems} ahead of time and removes the listeners that were added to the
+	 * {@link #getCompositeSupplier() composite supplier} and its suppliers to do so. Must be called when this {@link ProblemPane} is no longer
+	 * used, since the composite supplier would otherwise keep it from being garbage collected. Problems generated afterwards are generated on
+	 * demand.
+	 */
+	public void close() {
+		prefetcher.close();
+	}
 
 	public boolean hasSupplierNamed(String name) {
 		return supplierNames.contains(name);
@@ -383,7 +395,7 @@ public class ProblemPane extends Pane {
 
 	private void generateProblem() {
 		currentProblemSupplier = compositeSupplier.getRandomSupplier();
-		currentProblem = currentProblemSupplier.get();
+		currentProblem = prefetcher.get(currentProblemSupplier);
 	}
 	
 	private void updateProblemView() {
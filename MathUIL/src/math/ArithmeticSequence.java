@@ -1,6 +1,5 @@
 package math;
 
-import java.math.*;
 import java.util.Objects;
 
 /**
@@ -26,7 +25,61 @@ public class ArithmeticSequence implements FiniteComplexSequence {
 	}
 	*/
 	
-	private static final MathContext DEFAULT_MATH_CONTEXT = new MathContext(32);
+	/**
+	 * <p>An arithmetic sequence of {@code longs}. Terms and sums are calculated on demand in O(1) and throw an {@link ArithmeticException} if they
+	 * overflow a {@code long}.</p>
+	 */
+	public static final class OfLong implements LongSequence {
+		
+		private final long firstTerm, difference;
+		private final int size;
+		
+		/**
+		 * @throws IllegalArgumentException if {@code size <= 0}
+		 */
+		public OfLong(final long firstTerm, final long difference, final int size) {
+			if(size <= 0)
+				throw new IllegalArgumentException("size <= 0");
+			this.firstTerm = firstTerm;
+			this.difference = difference;
+			this.size = size;
+		}
+		
+		@Override
+		public long nthLong(int n) {
+			return Math.addExact(firstTerm, Math.multiplyExact(difference, n - 1L));
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		@Override
+		public long sumLong(int startIndexInclusive, int endIndexInclusive) {
+			if(startIndexInclusive > endIndexInclusive || startIndexInclusive <= 0 || endIndexInclusive > size())
+				throw new IllegalArgumentException(String.format("Illegal arguments: startIndexInclusive=%d, endIndexInclusive=%d", startIndexInclusive, endIndexInclusive));
+			final long n = endIndexInclusive - startIndexInclusive + 1L;
+			return Math.addExact(Math.multiplyExact(nthLong(startIndexInclusive), n), Math.multiplyExact(difference, n * (n - 1) / 2));
+		}
+		
+		/**
+		 * Equivalent to {@link #toFullString()}.
+		 */
+		@Override
+		public String toString() {
+			return toFullString();
+		}
+		
+		public long difference() {
+			return difference;
+		}
+		
+		public long firstTerm() {
+			return firstTerm;
+		}
+		
+	}
 	
 	private final Complex firstTerm;
 	private final Complex difference;
@@ -60,9 +113,9 @@ public class ArithmeticSequence implements FiniteComplexSequence {
 			return Complex.ZERO;
 		if(startIndexInclusive <= 0 || endIndexInclusive > size())
 			throw new IllegalArgumentException(String.format("Illegal arguments: startIndexInclusive=%d, endIndexInclusive=%d", startIndexInclusive, endIndexInclusive));
-		int n = endIndexInclusive - startIndexInclusive + 1;
-		Complex a1 = nthTerm(startIndexInclusive), aN = nthTerm(endIndexInclusive);
-		return a1.add(aN).divide(BigDecimal.valueOf(2), DEFAULT_MATH_CONTEXT).multiply(n);
+		//n * a + d * (0 + 1 + ... + (n - 1)), which (unlike n * (a + l) / 2) is exact.
+		final long n = endIndexInclusive - startIndexInclusive + 1L;
+		return nthTerm(startIndexInclusive).multiply(Complex.valueOf(n)).add(difference().multiply(Complex.valueOf(n * (n - 1) / 2)));
 	}
 	
 	/**
@@ -0,0 +1,97 @@
+package math;
+
+import java.util.*;
+
+/**
+ * <p>The results of evaluating a list of expressions with {@link Evaluator#evaluateAll(List, java.util.function.Function)}. Each expression either
+ * succeeded, in which case its {@link #value(int) value} is available, or failed, in which case the exception describing the failure is available
+ * from {@link #failure(int)}. A failure of one expression does not affect the others.</p>
+ * 
+ * <p>An invalid expression is recorded as its {@link ParseResult}, which is available from {@link #parseFailure(int)}. The exception describing it
+ * is only created when {@link #failure(int)} is called, so a batch with many invalid expressions does not fill in a stack trace for each.</p>
+ * 
+ * <p>{@code BatchResults} are immutable.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class BatchResult<T> {
+	
+	private final Object[] values;
+	private final ParseResult[] parseFailures;
+	private final RuntimeException[] evaluationFailures;
+	private final int failureCount;
+	
+	/** At most one of {@code parseFailures[i]} and {@code evaluationFailures[i]} is non-{@code null} for each {@code i}. */
+	BatchResult(final Object[] values, final ParseResult[] parseFailures, final RuntimeException[] evaluationFailures) {
+		this.values = values;
+		this.parseFailures = parseFailures;
+		this.evaluationFailures = evaluationFailures;
+		int count = 0;
+		for(int i = 0; i < values.length; i++)
+			if(!succeeded(i))
+				count++;
+		this.failureCount = count;
+	}
+	
+	/** Returns the number of expressions that were evaluated. */
+	public int size() {
+		return values.length;
+	}
+	
+	public boolean succeeded(final int index) {
+		return parseFailures[index] == null && evaluationFailures[index] == null;
+	}
+	
+	/** Returns the value of the expression at {@code index}, or {@code null} if it {@link #failure(int) failed}. */
+	@SuppressWarnings("unchecked")
+	public T value(final int index) {
+		return (T) values[index];
+	}
+	
+	/**
+	 * Returns the exception describing why the expression at {@code index} failed, or {@code null} if it {@link #succeeded(int) succeeded}. This is
+	 * an {@link IllegalArgumentException} if the expression was invalid and usually an {@link ArithmeticException} if it could not be evaluated.
+	 * If the expression was invalid, a new exception is created by each call.
+	 */
+	public RuntimeException failure(final int index) {
+		final ParseResult parsed = parseFailures[index];
+		return parsed != null ? parsed.toException() : evaluationFailures[index];
+	}
+	
+	/**
+	 * Returns the {@link ParseResult} describing the first error in the expression at {@code index}, or {@code null} if the expression was valid
+	 * (even if it could not be evaluated).
+	 */
+	public ParseResult parseFailure(final int index) {
+		return parseFailures[index];
+	}
+	
+	public int failureCount() {
+		return failureCount;
+	}
+	
+	public boolean allSucceeded() {
+		return failureCount == 0;
+	}
+	
+	/** Returns an unmodifiable view of the values, in order. The value of an expression that failed is {@code null}. */
+	@SuppressWarnings("unchecked")
+	public List<T> values() {
+		return (List<T>) Collections.unmodifiableList(Arrays.asList(values));
+	}
+	
+	/** Returns the indices of the expressions that failed, in increasing order. */
+	public int[] failedIndices() {
+		final int[] indices = new int[failureCount];
+		for(int i = 0, j = 0; j < failureCount; i++)
+			if(!succeeded(i))
+				indices[j++] = i;
+		return indices;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("BatchResult[size=%d, failures=%d]", values.length, failureCount);
+	}
+	
+}
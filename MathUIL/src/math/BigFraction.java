@@ -4,6 +4,15 @@ import java.math.*;
 import java.util.Objects;
 
 /**
+ * <p>An exact rational number. {@code BigFractions} are immutable and are always fully reduced.</p>
+ *
+ * <p>A {@code BigFraction} whose numerator and denominator both fit in a {@code long} (which is almost every fraction this program creates)
+ * stores them as {@code longs}, and arithmetic on such fractions is done on {@code longs}, so that an operation allocates nothing but its result.
+ * An operation whose result does not fit is redone with {@link BigInteger BigIntegers}, and its result stores {@code BigIntegers}. Which
+ * representation a fraction uses depends only on its value, so it never affects {@link #equals(Object)} or any other public method.</p>
+ *
+ * <p>Fractions whose denominators are at most {@code 12} and whose numerators are at most {@code 144} in magnitude are shared: every factory
+ * method and operation that produces such a value returns the same instance for it.</p>
  * @author Sam Hooper
  *
  */
@@ -13,22 +22,78 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 		final BigFraction f1 = BigFraction.of(-1, 2);
 		final BigFraction f2 = BigFraction.of(1, -3);
 		System.out.printf("f1=%s, f2=%s, comp=%s%n", f1, f2, BigFraction.compare(f1, f2));
-		
-		
+
+
 	}
 	*/
-	
+
 	private static final long serialVersionUID = -3738055726507507877L;
-	
+
 	/**
 	 * A constant representing a fraction with value zero. It has a numerator of {@code 0}, a denominator of
 	 * {@code 1}, and a positive sign.
 	 */
-	public static final BigFraction ZERO = new BigFraction(BigInteger.ZERO, BigInteger.ONE, 1);
+	public static final BigFraction ZERO = new BigFraction(0, 1, 1);
+
+	private static final int MAX_INTERNED_DENOMINATOR = 12, MAX_INTERNED_NUMERATOR = MAX_INTERNED_DENOMINATOR * MAX_INTERNED_DENOMINATOR;
+	private static final int INTERNED_ROW_LENGTH = 2 * MAX_INTERNED_NUMERATOR + 1;
+	/**
+	 * The shared fractions, indexed by {@link #internedIndex(long, long, int)}. The entry for a fraction that is not reduced is the shared
+	 * instance of its reduced form, so looking up a fraction does not require reducing it first.
+	 */
+	private static final BigFraction[] INTERNED = createInterned();
+
 	public static final BigFraction ONE = BigFraction.of(1, 1);
 	public static final BigFraction NEGATIVE_ONE = BigFraction.of(1, -1);
 	public static final BigFraction HALF = BigFraction.of(1, 2);
-	
+
+	/**
+	 * Returned by the overflow-checked {@code long} helpers when the exact result does not fit. It is never a valid result, since the magnitudes
+	 * of numerators and denominators stored as {@code longs} are at most {@link Long#MAX_VALUE}.
+	 */
+	private static final long OVERFLOW = Long.MIN_VALUE;
+	/** Integers with at most this many bits are exactly representable as {@code doubles}. */
+	private static final int DOUBLE_EXACT_BITS = 53;
+
+	private static BigFraction[] createInterned() {
+		final BigFraction[] interned = new BigFraction[MAX_INTERNED_DENOMINATOR * INTERNED_ROW_LENGTH];
+		for(int denominator = 1; denominator <= MAX_INTERNED_DENOMINATOR; denominator++) { //reduced forms have smaller denominators, so they come first.
+			for(int numerator = 0; numerator <= MAX_INTERNED_NUMERATOR; numerator++) {
+				final long gcd = gcd(numerator, denominator);
+				for(int signum = -1; signum <= 1; signum += 2) {
+					final BigFraction value;
+					if(numerator == 0)
+						value = ZERO;
+					else if(gcd == 1)
+						value = new BigFraction(numerator, denominator, signum);
+					else
+						value = interned[internedIndex(numerator / gcd, denominator / gcd, signum)];
+					interned[internedIndex(numerator, denominator, signum)] = value;
+				}
+			}
+		}
+		return interned;
+	}
+
+	/** Returns {@code true} if the fraction with the given magnitudes has an entry in {@link #INTERNED}. */
+	private static boolean isInterned(final long numerator, final long denominator) {
+		return numerator <= MAX_INTERNED_NUMERATOR && denominator <= MAX_INTERNED_DENOMINATOR;
+	}
+
+	private static int internedIndex(final long numerator, final long denominator, final int signum) {
+		return (int) (denominator - 1) * INTERNED_ROW_LENGTH + MAX_INTERNED_NUMERATOR + signum * (int) numerator;
+	}
+
+	/**
+	 * Returns the fraction with the given numerator, denominator, and sign, using the shared instance if there is one. Precondition:
+	 * {@code numerator/denominator} is fully reduced, {@code numerator >= 0}, and {@code denominator > 0}.
+	 */
+	private static BigFraction small(final long numerator, final long denominator, final int signum) {
+		if(isInterned(numerator, denominator))
+			return INTERNED[internedIndex(numerator, denominator, signum)];
+		return new BigFraction(numerator, denominator, signum);
+	}
+
 	private static BigInteger setSign(BigInteger i, int sign) {
 		final BigInteger result;
 		if(sign == 1 && BigNumbers.isNegative(i) || sign == -1 && BigNumbers.isPositive(i))
@@ -36,25 +101,61 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 		else
 			result = i;
 		return result;
-		
+
 	}
-	
+
 	/**
 	 * Returns the sum of {@code a} and {@code b}.
 	 */
 	public static final BigFraction sum(final BigFraction a, final BigFraction b) {
-		if(BigNumbers.isZero(a.num)) return b;
-		if(BigNumbers.isZero(b.num)) return a;
-		final BigInteger denomGCD = BigNumbers.gcd(a.denom, b.denom); // nonnegative
-		BigInteger denomLCM = a.denom.multiply(b.denom).divide(denomGCD); // nonnegative
-		BigInteger numSum = setSign(a.num, a.sign).multiply(denomLCM.divide(a.denom)).add(setSign(b.num, b.sign).multiply(denomLCM.divide(b.denom))); // possibly negative
+		if(a.isZero()) return b;
+		if(b.isZero()) return a;
+		if(a.isSmall() && b.isSmall()) {
+			final BigFraction result = smallSum(a.sign * a.num, a.denom, b.sign * b.num, b.denom);
+			if(result != null)
+				return result;
+		}
+		final BigInteger aNum = a.getNumerator(), aDenom = a.getDenominator(), bNum = b.getNumerator(), bDenom = b.getDenominator();
+		final BigInteger denomGCD = BigNumbers.gcd(aDenom, bDenom); // nonnegative
+		BigInteger denomLCM = aDenom.multiply(bDenom).divide(denomGCD); // nonnegative
+		BigInteger numSum = setSign(aNum, a.sign).multiply(denomLCM.divide(aDenom)).add(setSign(bNum, b.sign).multiply(denomLCM.divide(bDenom))); // possibly negative
 		return BigFraction.of(numSum, denomLCM);
 	}
 
+	/**
+	 * Returns the fully reduced sum of the reduced fractions {@code an/ad} and {@code bn/bd}, whose numerators are signed, or {@code null} if any
+	 * step overflows. Only the greatest common divisor of the denominators and of the numerator with that divisor are needed (Knuth, TAOCP 4.5.1).
+	 */
+	private static BigFraction smallSum(final long an, final long ad, final long bn, final long bd) {
+		final long g = gcd(ad, bd);
+		final long adg = ad / g, bdg = bd / g;
+		final long t1 = multiplyOrOverflow(an, bdg), t2 = multiplyOrOverflow(bn, adg);
+		if(t1 == OVERFLOW || t2 == OVERFLOW)
+			return null;
+		final long t = addOrOverflow(t1, t2);
+		if(t == OVERFLOW)
+			return null;
+		if(t == 0)
+			return ZERO;
+		final long magnitude = Math.abs(t), g2 = gcd(magnitude, g);
+		final long denominator = multiplyOrOverflow(adg, bd / g2);
+		if(denominator == OVERFLOW)
+			return null;
+		return small(magnitude / g2, denominator, t < 0 ? -1 : 1);
+	}
+
 	public static final BigFraction multiply(final BigFraction a, final BigFraction b) {
-		if(BigNumbers.isZero(a.num) || BigNumbers.isZero(b.num)) return ZERO;
-		BigInteger resultNum = a.num.multiply(b.num), resultDenom = a.denom.multiply(b.denom);
-		return BigFraction.of(resultNum, resultDenom, a.sign == b.sign ? 1 : -1);
+		if(a.isZero() || b.isZero()) return ZERO;
+		final int resultSign = a.sign == b.sign ? 1 : -1;
+		if(a.isSmall() && b.isSmall()) {
+			//cross-reduce first; since a and b are reduced, the result is then reduced too.
+			final long g1 = gcd(a.num, b.denom), g2 = gcd(b.num, a.denom);
+			final long resultNum = multiplyOrOverflow(a.num / g1, b.num / g2), resultDenom = multiplyOrOverflow(a.denom / g2, b.denom / g1);
+			if(resultNum != OVERFLOW && resultDenom != OVERFLOW)
+				return small(resultNum, resultDenom, resultSign);
+		}
+		BigInteger resultNum = a.getNumerator().multiply(b.getNumerator()), resultDenom = a.getDenominator().multiply(b.getDenominator());
+		return BigFraction.of(resultNum, resultDenom, resultSign);
 	}
 
 	public static final BigFraction subtract(final BigFraction a, final BigFraction b) {
@@ -67,11 +168,25 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 	}
 
 	public static int compare(final BigFraction a, final BigFraction b) {
-		int result = setSign(a.num.multiply(b.denom), a.sign).compareTo(setSign(a.denom.multiply(b.num), b.sign));
+		if(a == b)
+			return 0;
+		if(a.isSmall() && b.isSmall()) {
+			if(a.sign != b.sign)
+				return a.sign < b.sign ? -1 : 1;
+			final int magnitudeComparison = compareProducts(a.num, b.denom, b.num, a.denom);
+			return a.sign == 1 ? magnitudeComparison : -magnitudeComparison;
+		}
+		int result = setSign(a.getNumerator().multiply(b.getDenominator()), a.sign).compareTo(setSign(a.getDenominator().multiply(b.getNumerator()), b.sign));
 //		System.out.printf("compare(%s, %s) == %d%n", a, b, result);
 		return result;
 	}
 
+	/** Compares {@code x1 * y1} with {@code x2 * y2}, where all four values are nonnegative, using the exact 128-bit products. */
+	private static int compareProducts(final long x1, final long y1, final long x2, final long y2) {
+		final int high = Long.compare(Math.multiplyHigh(x1, y1), Math.multiplyHigh(x2, y2));
+		return high != 0 ? high : Long.compareUnsigned(x1 * y1, x2 * y2);
+	}
+
 	/**
 	 * Returns the smaller of the two given {@code BigFraction}s. If {@code compare(a, b)} returns {@code 0},
 	 * {@code a} is returned.
@@ -95,17 +210,21 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 	public static BigFraction max(final BigFraction a, final BigFraction b) {
 		return compare(a, b) >= 0 ? a : b;
 	}
-	
+
 	public static final BigFraction of(final long numerator, final long denominator) {
-		return of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+		if(numerator == 0) return ZERO;
+		if(denominator == 0) zeroDenominator();
+		if(numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) //the magnitude does not fit in a long.
+			return of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+		return reduced(Math.abs(numerator), Math.abs(denominator), (numerator < 0) ^ (denominator < 0) ? -1 : 1);
 	}
-	
+
 	public static final BigFraction of(final BigInteger numerator, final BigInteger denominator) {
 		if(BigNumbers.isZero(numerator)) return ZERO;
 		if(BigNumbers.isZero(denominator)) zeroDenominator();
-		return new BigFraction(numerator, denominator);
+		return of(numerator.abs(), denominator.abs(), numerator.signum() != denominator.signum() ? -1 : 1);
 	}
-	
+
 	/**
 	 * This method returns {@link #ZERO} if {@code numerator} is {@code 0}.
 	 * @param numerator a <b>nonnegative</b> value representing the numerator of this fraction
@@ -117,10 +236,24 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 	private static final BigFraction of(final BigInteger numerator, final BigInteger denominator, final int signum) {
 		if(BigNumbers.isZero(numerator)) return ZERO;
 		if(BigNumbers.isZero(denominator)) zeroDenominator();
-		return new BigFraction(numerator, denominator, signum);
+		if(numerator.bitLength() < Long.SIZE && denominator.bitLength() < Long.SIZE)
+			return reduced(numerator.longValue(), denominator.longValue(), signum);
+		final BigInteger gcd = BigNumbers.gcd(numerator, denominator);
+		final BigInteger num = numerator.divide(gcd), denom = denominator.divide(gcd);
+		if(num.bitLength() < Long.SIZE && denom.bitLength() < Long.SIZE)
+			return small(num.longValue(), denom.longValue(), signum);
+		return new BigFraction(num, denom, signum);
+	}
+
+	/** {@code numerator} and {@code denominator} must be positive. */
+	private static BigFraction reduced(final long numerator, final long denominator, final int signum) {
+		if(isInterned(numerator, denominator))
+			return INTERNED[internedIndex(numerator, denominator, signum)];
+		final long gcd = gcd(numerator, denominator);
+		return small(numerator / gcd, denominator / gcd, signum);
 	}
-	
-	
+
+
 	/**
 	 * Returns {@code true} if {@code vulgarFraction} is a valid vulgar fraction in {@code String} form, {@code false} otherwise.
 	 * If, for any {@code String} <i>s</i>, {@code isValidVulgar(s)} returns {@code true}, {@link #fromVulgar(String) fromVulgar}{@code (s)} will
@@ -132,7 +265,7 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 		String[] split = vulgarFraction.split("/");
 		return split.length == 1 && Utils.isInteger(vulgarFraction) || split.length == 2 && Utils.isInteger(split[0]) && Utils.isInteger(split[1]);
 	}
-	
+
 	/** Returns a new {@link BigFraction} from the given vulgar fraction expressed as a {@code String}.
 	 * Example {@code Strings} include "1/2" or "3/4".
 	 * The input {@code String} must contain exactly one {@code /} with an integer on either side of it with extraneous whitespace or other characters. An
@@ -142,11 +275,11 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 		String[] split = vulgarBigFraction.split("/");
 		return split.length == 1 ? BigFraction.of(new BigInteger(vulgarBigFraction), BigInteger.ONE) : BigFraction.of(new BigInteger(split[0]), new BigInteger(split[1]));
 	}
-	
+
 	public static final BigFraction from(final BigDecimal bigDecimal) {
 		return from(bigDecimal.toPlainString());
 	}
-	
+
 	/**
 	 * Converts a real number, given in string form in radix 10, to a {@code BigFraction}. {@code realNumberAsString}
 	 * cannot have more than eight significant digits.
@@ -160,7 +293,7 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 		}
 		final char first = realNumberAsString.charAt(0);
 		final int signum = first == '-' ? -1 : 1;
-		
+
 		String s = realNumberAsString.substring(first == '-' || first == '+' ? 1 : 0);
 		if(s.indexOf('.') == -1) { //handles the no decimal case
 			return BigFraction.of(new BigInteger(s), BigInteger.ONE, signum); //use BigFraction.of so that it will return a premade value
@@ -210,54 +343,107 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 	}
 
 	/**
-	 * The numerator of this fraction; it will always be nonnegative
+	 * Returns the greatest common divisor of {@code a} and {@code b}, which must be nonnegative, as described in {@link Utils#binaryGcd(long, long)}.
 	 */
-	private final BigInteger num;
+	private static long gcd(final long a, final long b) {
+		return Utils.binaryGcd(a, b);
+	}
+
+	/** Returns {@code x * y}, or {@link #OVERFLOW} if the product does not fit in a {@code long} (or is {@link Long#MIN_VALUE}). */
+	private static long multiplyOrOverflow(final long x, final long y) {
+		final long product = x * y;
+		return Math.multiplyHigh(x, y) == product >> 63 ? product : OVERFLOW;
+	}
+
+	/** Returns {@code x + y}, or {@link #OVERFLOW} if the sum does not fit in a {@code long} (or is {@link Long#MIN_VALUE}). */
+	private static long addOrOverflow(final long x, final long y) {
+		final long sum = x + y;
+		return ((x ^ sum) & (y ^ sum)) < 0 ? OVERFLOW : sum;
+	}
+
+	/** Returns {@code base} raised to {@code exponent}, where both are nonnegative, or {@link #OVERFLOW} if the result does not fit in a {@code long}. */
+	private static long powOrOverflow(long base, int exponent) {
+		long result = 1;
+		while(true) {
+			if((exponent & 1) != 0 && (result = multiplyOrOverflow(result, base)) == OVERFLOW)
+				return OVERFLOW;
+			exponent >>>= 1;
+			if(exponent == 0)
+				return result;
+			if((base = multiplyOrOverflow(base, base)) == OVERFLOW)
+				return OVERFLOW;
+		}
+	}
+
 	/**
-	 * The numerator of this fraction; it will always be positive
+	 * The numerator and denominator of this fraction if it {@link #isSmall() is small}; otherwise, {@code 0}. The numerator will always be
+	 * nonnegative, and the denominator will always be positive.
 	 */
-	private final BigInteger denom;
+	private final long num, denom;
+	/**
+	 * The numerator and denominator of this fraction if either of them does not fit in a {@code long}; otherwise, {@code null}. The numerator will
+	 * always be nonnegative, and the denominator will always be positive.
+	 */
+	private final BigInteger bigNum, bigDenom;
 	/**
 	 * The sign of this fraction; it will always be either {@code -1} (negative) or {@code 1} (positive). A fraction
 	 * with value zero will have a sign of {@code 1}.
 	 */
 	private final int sign;
-	
-	private BigFraction(final BigInteger numerator, final BigInteger denominator) {
-		this(numerator, denominator, (BigNumbers.isNegative(numerator)) ^ (BigNumbers.isNegative(denominator)) ? -1 : 1);	
+
+	/** Precondition: {@code numerator/denominator} is fully reduced, {@code numerator >= 0}, and {@code denominator > 0}. */
+	private BigFraction(final long numerator, final long denominator, final int signum) {
+		this.num = numerator;
+		this.denom = denominator;
+		this.bigNum = this.bigDenom = null;
+		this.sign = signum;
 	}
-	
+
 	/**
-	 * Precondition: {@code denominator is not zero}
-	 * @param numerator
-	 * @param denominator
-	 * @param signum
+	 * Precondition: {@code numerator/denominator} is fully reduced, {@code numerator >= 0}, {@code denominator > 0}, and at least one of them
+	 * does not fit in a {@code long}.
 	 */
 	private BigFraction(final BigInteger numerator, final BigInteger denominator, final int signum) {
-		final BigInteger na = numerator.abs(), da = denominator.abs();
-		final BigInteger gcd = numerator == BigInteger.ZERO ? BigInteger.ONE : BigNumbers.gcd(na, da);
+		this.num = this.denom = 0;
+		this.bigNum = numerator;
+		this.bigDenom = denominator;
 		this.sign = signum;
-		num = na.divide(gcd);
-		denom = da.divide(gcd);
 	}
+
+	/** Returns {@code true} if the numerator and denominator of this fraction are stored as {@code longs}. */
+	private boolean isSmall() {
+		return bigNum == null;
+	}
+
 	public BigFraction add(final BigFraction o) {
 		return sum(this, o);
 	}
-	
+
 	public BigFraction multiply(final BigFraction o) {
 		return multiply(this, o);
 	}
-	
+
 	public BigFraction subtract(final BigFraction o) {
 		return subtract(this, o);
 	}
-	
+
 	public BigFraction divide(final BigFraction o) {
 		return divide(this, o);
 	}
-	
+
 	public BigFraction pow(final int power) {
 		int uPow = Math.abs(power);
+		if(isSmall() && power != Integer.MIN_VALUE) {
+			final long n = powOrOverflow(num, uPow), d = powOrOverflow(denom, uPow);
+			if(n != OVERFLOW && d != OVERFLOW) { //powers of a reduced fraction are reduced.
+				final int resultSign = sign == -1 && (uPow & 1) == 1 ? -1 : 1;
+				if(power >= 0)
+					return n == 0 ? ZERO : small(n, d, resultSign);
+				if(n == 0)
+					zeroDenominator();
+				return small(d, n, resultSign);
+			}
+		}
 		BigInteger oNum = setSign(getNumerator(), sign).pow(uPow);
 		BigInteger oDenom = getDenominator().pow(uPow);
 		if(power < 0) {
@@ -268,65 +454,78 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 		return BigFraction.of(oNum, oDenom);
 	}
 	public BigFraction negate() {
-		return BigFraction.of(num, denom, -sign);
+		if(isZero())
+			return ZERO;
+		return isSmall() ? small(num, denom, -sign) : new BigFraction(bigNum, bigDenom, -sign);
 	}
-	
+
 	public BigFraction abs() {
 		return isNegative() ? negate() : this;
 	}
-	
+
 	public BigFraction multiplicativeInverse() {
-		return BigFraction.of(denom, num, sign);
+		if(isZero())
+			zeroDenominator();
+		return isSmall() ? small(denom, num, sign) : BigFraction.of(bigDenom, bigNum, sign);
 	}
-	
+
+	/**
+	 * Returns the exact value of this fraction as a {@link BigDecimal}.
+	 * @throws ArithmeticException if the decimal expansion of this fraction does not terminate.
+	 */
 	public final BigDecimal toBigDecimal() {
-		return new BigDecimal(num).divide(new BigDecimal(denom));
+		final BigDecimal magnitude = new BigDecimal(getNumerator()).divide(new BigDecimal(getDenominator()));
+		return sign == -1 ? magnitude.negate() : magnitude;
 	}
-	
+
 	public final BigDecimal toBigDecimal(MathContext mc) {
-		return new BigDecimal(num, mc).divide(new BigDecimal(denom, mc), mc);
+		final BigDecimal magnitude = new BigDecimal(getNumerator()).divide(new BigDecimal(getDenominator()), mc);
+		return sign == -1 ? magnitude.negate() : magnitude;
 	}
-	
+
 	public boolean isPositive() {
 		return isNonnegative() && !isZero();
 	}
-	
+
 	public boolean isNonnegative() {
 		return sign == 1;
 	}
-	
+
 	public boolean isNegative() {
 		return sign == -1;
 	}
-	
+
 	public BigInteger getNumerator() {
-		return num;
+		return isSmall() ? BigInteger.valueOf(num) : bigNum;
 	}
-	
+
 	public BigInteger getDenominator() {
-		return denom;
+		return isSmall() ? BigInteger.valueOf(denom) : bigDenom;
 	}
-	
+
 	public boolean isZero() {
 		return this == ZERO;
 	}
-	
+
 	public boolean isImproper() {
-		return getNumerator().compareTo(getDenominator()) > 0;
+		return isSmall() ? num > denom : bigNum.compareTo(bigDenom) > 0;
 	}
-	
+
 	public MixedNumber toMixedNumber() {
 		return MixedNumber.of(this);
 	}
-	
+
 	public boolean isInteger() {
-		return getDenominator().compareTo(BigInteger.ONE) == 0;
+		return isSmall() ? denom == 1 : bigDenom.equals(BigInteger.ONE);
 	}
 	@Override
 	public int hashCode() {
-		return Objects.hash(denom, num, sign);
+		if(isSmall())
+			return 31 * (31 * Long.hashCode(denom) + Long.hashCode(num)) + sign;
+		return Objects.hash(bigDenom, bigNum, sign);
 	}
 
+	/** The representation of a fraction depends only on its value, so two fractions with different representations are never equal. */
 	@Override
 	public boolean equals(Object obj) {
 		if(this == obj) {
@@ -339,46 +538,73 @@ public class BigFraction extends Number implements Comparable<BigFraction> {
 			return false;
 		}
 		BigFraction other = (BigFraction) obj;
-		return denom.equals(other.denom) && num.equals(other.num) && sign == other.sign;
+		if(isSmall() != other.isSmall() || sign != other.sign)
+			return false;
+		return isSmall() ? num == other.num && denom == other.denom : bigDenom.equals(other.bigDenom) && bigNum.equals(other.bigNum);
 	}
 
 	@Override
 	public String toString() {
-		if(denom.compareTo(BigInteger.ONE) == 0)
-			return String.format("%s%d", sign == -1 ? "-" : "", num);
-		return String.format("%s%d/%d", sign == -1 ? "-" : "", num, denom);
+		if(isSmall())
+			return denom == 1 ? (sign == -1 ? "-" : "") + num : (sign == -1 ? "-" : "") + num + "/" + denom;
+		if(bigDenom.compareTo(BigInteger.ONE) == 0)
+			return String.format("%s%d", sign == -1 ? "-" : "", bigNum);
+		return String.format("%s%d/%d", sign == -1 ? "-" : "", bigNum, bigDenom);
 	}
 
 	@Override
 	public int compareTo(BigFraction o) {
 		return compare(this, o);
 	}
-	
+
+	/** Returns the value of this fraction, rounded toward zero, as an {@code int}, as by a narrowing conversion of {@link #longValue()}. */
 	@Override
 	public int intValue() {
-		return toBigDecimal().intValue();
+		return (int) longValue();
 	}
-	
+
 	public int intValueExact() {
 		if(!isInteger())
 			throw new ArithmeticException("This BigFraction is not an integer");
-		int num = getNumerator().intValueExact();
+		if(isSmall())
+			return sign * Math.toIntExact(num);
+		int num = bigNum.intValueExact();
 		return sign * num;
 	}
 
+	/** Returns {@code true} if this fraction is an integer that fits in a {@code long}, {@code false} otherwise. */
+	public boolean hasExactLongValue() {
+		return isSmall() ? denom == 1 : isInteger() && setSign(bigNum, sign).bitLength() < Long.SIZE;
+	}
+
+	/**
+	 * Returns the value of this fraction as a {@code long}.
+	 * @throws ArithmeticException if this fraction does not {@link #hasExactLongValue() have an exact long value}.
+	 */
+	public long longValueExact() {
+		if(!hasExactLongValue())
+			throw new ArithmeticException("This BigFraction is not an integer that fits in a long");
+		return isSmall() ? sign * num : setSign(bigNum, sign).longValue();
+	}
+
+	/** Returns the value of this fraction, rounded toward zero, as a {@code long}. Like {@link BigInteger#longValue()}, this may overflow. */
 	@Override
 	public long longValue() {
-		return toBigDecimal().longValue();
+		if(isSmall())
+			return sign * (num / denom);
+		return setSign(bigNum.divide(bigDenom), sign).longValue();
 	}
 
 	@Override
 	public float floatValue() {
-		return toBigDecimal().floatValue();
+		return (float) doubleValue();
 	}
 
 	@Override
 	public double doubleValue() {
-		return toBigDecimal().doubleValue();
+		if(isSmall() && 64 - Long.numberOfLeadingZeros(num | denom) <= DOUBLE_EXACT_BITS) //both operands are exact, so the quotient is correctly rounded.
+			return sign * ((double) num / denom);
+		return toBigDecimal(MathContext.DECIMAL128).doubleValue();
 	}
-	
+
 }
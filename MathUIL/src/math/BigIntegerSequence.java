@@ -0,0 +1,35 @@
+package math;
+
+import java.math.BigInteger;
+import java.util.function.BinaryOperator;
+
+/**
+ * <p>A {@link SummableSequence} of {@link BigInteger BigIntegers}, summed with {@link BigInteger#add(BigInteger)}. Sums over long ranges are
+ * computed in parallel unless {@link #sum(int, int)} is overridden with a closed form.</p>
+ * @author Sam Hooper
+ *
+ */
+public interface BigIntegerSequence extends SummableSequence<BigInteger> {
+
+	public static final BinaryOperator<BigInteger> SUM_FUNCTION = BigInteger::add;
+
+	/**
+	 * Returns the sum of the terms from {@code startInclusive} to {@link #size()}.
+	 * @throws IllegalArgumentException if {@code startInclusive < 1)}.
+	 * @throws ArithmeticException if this {@link BigIntegerSequence} is not {@link #isFinite() finite}.
+	 */
+	@Override
+	default BigInteger sum(final int startInclusive) {
+		if(startInclusive < 1)
+			throw new IllegalArgumentException("startInclusive < 1");
+		if(!isFinite())
+			throw new ArithmeticException("This sequence does not have a finite sum");
+		return sum(startInclusive, size());
+	}
+
+	@Override
+	default BinaryOperator<BigInteger> sumFunction() {
+		return SUM_FUNCTION;
+	}
+
+}
@@ -38,20 +38,24 @@ public class BigNumbers {
 		return bd.compareTo(BigDecimal.ZERO) > 0;
 	}
 	
+	/**
+	 * Returns the greatest common divisor of {@code a} and {@code b}, which is always positive. {@link BigInteger#gcd(BigInteger)} is only used
+	 * if one of the numbers does not fit in a {@code long}.
+	 * @throws IllegalArgumentException if either number is zero.
+	 */
 	public static BigInteger gcd(BigInteger a, BigInteger b) {
 		if(isZero(a) || isZero(b))
 			throw new IllegalArgumentException("numbers cannot be zero");
-		if(b.compareTo(a) > 0) {
-			BigInteger temp = a;
-			a = b;
-			b = temp;
-		}
-		while(a.compareTo(b) != 0) {
-			if(a.compareTo(b) > 0)
-				a = a.subtract(b);
-			else
-				b = b.subtract(a);
-		}
-		return a;
+		if(a.bitLength() < Long.SIZE - 1 && b.bitLength() < Long.SIZE - 1)
+			return BigInteger.valueOf(Utils.binaryGcd(Math.abs(a.longValue()), Math.abs(b.longValue())));
+		return a.gcd(b);
+	}
+	
+	/**
+	 * Returns the least common multiple of {@code a} and {@code b}, which is always positive.
+	 * @throws IllegalArgumentException if either number is zero.
+	 */
+	public static BigInteger lcm(BigInteger a, BigInteger b) {
+		return a.divide(gcd(a, b)).multiply(b).abs();
 	}
 }
@@ -13,8 +13,18 @@ import problems.Prettifier;
  */
 public class Complex {
 	
-	public static final Complex ZERO = new Complex(0);
-	public static final Complex ONE = new Complex(1);
+	/** The largest integer for which {@link #valueOf(long)} returns a shared instance. */
+	private static final int MAX_INTERNED_INTEGER = 1000;
+	/** Shared instances of the integers from {@code 0} to {@link #MAX_INTERNED_INTEGER}, which are by far the most common answers. */
+	private static final Complex[] INTEGERS = new Complex[MAX_INTERNED_INTEGER + 1];
+	
+	static {
+		for(int i = 0; i < INTEGERS.length; i++)
+			INTEGERS[i] = new Complex(i);
+	}
+	
+	public static final Complex ZERO = INTEGERS[0];
+	public static final Complex ONE = INTEGERS[1];
 	
 	private static final MathContext POWER_CONTEXT = new MathContext(32);
 	
@@ -85,6 +95,21 @@ public class Complex {
 		this(a, 0);
 	}
 	
+	/**
+	 * Returns a {@link Complex} with only a real part, {@code value}. Unlike {@link #Complex(long)}, this method returns a shared instance if
+	 * {@code value} is between {@code 0} and {@code 1000} (inclusive).
+	 */
+	public static Complex valueOf(final long value) {
+		return value >= 0 && value <= MAX_INTERNED_INTEGER ? INTEGERS[(int) value] : new Complex(value);
+	}
+	
+	/**
+	 * Returns the {@link Complex} "a + bi". If {@code b} is {@code 0}, this method is equivalent to {@link #valueOf(long) valueOf(a)}.
+	 */
+	public static Complex valueOf(final long a, final long b) {
+		return b == 0 ? valueOf(a) : new Complex(a, b);
+	}
+	
 	/**
 	 * Takes a {@link String} of the form "a+bi" (where a and b are valid {@link BigDecimal BigDecimals}), or of the form "a" where
 	 * a is a valid {@code BigDecimal}, or of the form "bi" where "b" is a valid {@code BigDecimal}. The given {@code String}
@@ -150,6 +175,8 @@ public class Complex {
 	}
 	
 	public Complex add(Complex augend) {
+		if(augend == ZERO)
+			return this;
 		return new Complex(realPart().add(augend.realPart()), imaginaryPart().add(augend.imaginaryPart()));
 	}
 	
@@ -164,6 +191,8 @@ public class Complex {
 	}
 	
 	public Complex subtract(Complex subtrahend) {
+		if(subtrahend == ZERO)
+			return this;
 		return new Complex(realPart().subtract(subtrahend.realPart()), imaginaryPart().subtract(subtrahend.imaginaryPart()));
 	}
 	
@@ -199,6 +228,8 @@ public class Complex {
 	}
 	
 	public Complex multiply(Complex multiplicand) {
+		if(multiplicand == ONE)
+			return this;
 		BigDecimal real = realPart().multiply(multiplicand.realPart()).subtract(imaginaryPart().multiply(multiplicand.imaginaryPart()));
 		BigDecimal im = realPart().multiply(multiplicand.imaginaryPart()).add(imaginaryPart().multiply(multiplicand.realPart()));
 		return new Complex(real, im);
@@ -257,7 +288,7 @@ public class Complex {
 		if(power.hasExactIntValue())
 			return power(this, power.intValueExact(), mc);
 		else if(!hasImaginaryPart() && !power.hasImaginaryPart())
-			return new Complex(Utils.pow(realPart(), power.realPart()));
+			return new Complex(Utils.pow(realPart(), power.realPart(), mc));
 		throw new IllegalArgumentException("Cannot take power.");
 	}
 	
@@ -4,6 +4,7 @@ import java.math.*;
 import java.util.*;
 import java.util.function.*;
 import java.util.regex.*;
+import java.util.stream.IntStream;
 
 /**
  * @author Sam Hooper
@@ -24,52 +25,120 @@ public class Evaluator {
 		
 	}
 	public static final MathContext DEFAULT_RESULT_CONTEXT = new MathContext(16, RoundingMode.HALF_UP);
+	/** Integers whose absolute value is less than this are not changed by rounding with {@link #DEFAULT_RESULT_CONTEXT}. */
+	private static final long LONG_EXACT_BOUND = 10_000_000_000_000_000L;
 	
 	private static final MathContext INTERMEDIATE_MATH_CONTEXT = new MathContext(32, RoundingMode.HALF_UP);
-	private static final Map<String, Integer> binaryPrecedence;
-	private static final Map<String, Integer> unaryPrecedence;
-	private static final Map<String, Associativity> binaryAssociativities;
-	private static final Map<String, Associativity> unaryAssociativities;
-	private static final Map<String, BiFunction<Expression, Expression, BinaryOperator>> binaryFactories;
-	private static final Map<String, Function<Expression, UnaryOperator>> unaryFactories;
+	/**
+	 * Digits added to the working precision beyond an expression's {@link Expression#guardDigits() guard digits}, as a margin for the digits lost
+	 * when nearly equal values are subtracted.
+	 */
+	private static final int SAFETY_DIGITS = 3;
+	/** The guard digits of an expression whose rounding error cannot be bounded when it is compiled, such as a power with a variable exponent. */
+	private static final int UNKNOWN_GUARD_DIGITS = INTERMEDIATE_MATH_CONTEXT.getPrecision();
+	/** {@code WORKING_CONTEXTS[p]} is a {@code HALF_UP} {@link MathContext} with a precision of {@code p}. */
+	private static final MathContext[] WORKING_CONTEXTS = new MathContext[INTERMEDIATE_MATH_CONTEXT.getPrecision()];
+	/** Operators are single ASCII characters; the operator tables are indexed by that character. */
+	private static final int OPERATOR_TABLE_SIZE = 128;
+	/** The precedence of each binary operator, or {@code 0} if the character is not a binary operator. */
+	private static final int[] binaryPrecedence = new int[OPERATOR_TABLE_SIZE];
+	/** The precedence of each unary operator, or {@code 0} if the character is not a unary operator. */
+	private static final int[] unaryPrecedence = new int[OPERATOR_TABLE_SIZE];
+	private static final Associativity[] binaryAssociativities = new Associativity[OPERATOR_TABLE_SIZE];
+	private static final Associativity[] unaryAssociativities = new Associativity[OPERATOR_TABLE_SIZE];
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static final BiFunction<Expression, Expression, BinaryOperator>[] binaryFactories = new BiFunction[OPERATOR_TABLE_SIZE];
+	/**
+	 * Binary operators that are part of a chain ({@link #SUM_CHAIN} or {@link #PRODUCT_CHAIN}) do not have factories; consecutive operators of the
+	 * same chain are combined into a single n-ary {@link SumExpression} or {@link ProductExpression}.
+	 */
+	private static final int NO_CHAIN = 0, SUM_CHAIN = 1, PRODUCT_CHAIN = 2;
+	private static final int[] binaryChains = new int[OPERATOR_TABLE_SIZE];
+	/** {@code true} for the chain operators that subtract or divide by their right operand. */
+	private static final boolean[] binaryInverses = new boolean[OPERATOR_TABLE_SIZE];
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static final Function<Expression, UnaryOperator>[] unaryFactories = new Function[OPERATOR_TABLE_SIZE];
 	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 	private static final char DECIMAL_POINT = '.';
+	/** Literals with at most this many digits always fit in a {@code long}. */
+	private static final int MAX_SAFE_LONG_DIGITS = 18;
 	
 	static {
-		
-		binaryPrecedence = new HashMap<>();
-		unaryPrecedence = new HashMap<>();
-		binaryFactories = new HashMap<>();
-		unaryFactories = new HashMap<>();
-		binaryAssociativities = new HashMap<>();
-		unaryAssociativities = new HashMap<>();
-		
-		putBinaryOperator("+", 1, Associativity.BOTH, AdditionOperation::new);
-		putBinaryOperator("-", 1, Associativity.LEFT, SubtractionOperation::new);
-		putBinaryOperator("*", 2, Associativity.BOTH, MultiplicationOperation::new);
-		putBinaryOperator("/", 2, Associativity.LEFT, DivisionOperation::new);
-		putBinaryOperator("^", 1, Associativity.RIGHT, ExponentiationOperation::new);
-		
-		putUnaryOperator("-", 2, Associativity.RIGHT, UnaryMinus::new);
-		putUnaryOperator("+", 2, Associativity.RIGHT, UnaryPlus::new);
-		putUnaryOperator("!", 4, Associativity.LEFT, Factorial::new);
-		putUnaryOperator("%", 5, Associativity.LEFT, Percent::new);
+		putChainOperator('+', 1, Associativity.BOTH, SUM_CHAIN, false);
+		putChainOperator('-', 1, Associativity.LEFT, SUM_CHAIN, true);
+		putChainOperator('*', 2, Associativity.BOTH, PRODUCT_CHAIN, false);
+		putChainOperator('/', 2, Associativity.LEFT, PRODUCT_CHAIN, true);
+		putBinaryOperator('^', 1, Associativity.RIGHT, ExponentiationOperation::new);
+		
+		putUnaryOperator('-', 2, Associativity.RIGHT, UnaryMinus::new);
+		putUnaryOperator('+', 2, Associativity.RIGHT, UnaryPlus::new);
+		putUnaryOperator('!', 4, Associativity.LEFT, Factorial::new);
+		putUnaryOperator('%', 5, Associativity.LEFT, Percent::new);
+	}
+	
+	private static void putBinaryOperator(final char op, final int precedence, final Associativity associativity, final BiFunction<Expression, Expression, BinaryOperator> factory) {
+		binaryPrecedence[op] = precedence;
+		binaryAssociativities[op] = associativity;
+		binaryFactories[op] = factory;
 	}
 	
-	private static void putBinaryOperator(final String op, final int precedence, final Associativity associativity, final BiFunction<Expression, Expression, BinaryOperator> factory) {
-		binaryPrecedence.put(op, precedence);
-		binaryAssociativities.put(op, associativity);
-		binaryFactories.put(op, factory);
+	private static void putChainOperator(final char op, final int precedence, final Associativity associativity, final int chain, final boolean inverse) {
+		binaryPrecedence[op] = precedence;
+		binaryAssociativities[op] = associativity;
+		binaryChains[op] = chain;
+		binaryInverses[op] = inverse;
 	}
 	
-	private static void putUnaryOperator(final String op, final int precedence, final Associativity associativity, final Function<Expression, UnaryOperator> factory) {
-		unaryPrecedence.put(op, precedence);
-		unaryAssociativities.put(op, associativity);
-		unaryFactories.put(op, factory);
+	private static void putUnaryOperator(final char op, final int precedence, final Associativity associativity, final Function<Expression, UnaryOperator> factory) {
+		unaryPrecedence[op] = precedence;
+		unaryAssociativities[op] = associativity;
+		unaryFactories[op] = factory;
 	}
 	
 	interface Expression {
-		Complex eval();
+		
+		/**
+		 * Evaluates this {@link Expression}, rounding each intermediate result with {@code mc}. Constants are not rounded, and operands that must
+		 * be exact (exponents and the operands of factorials) are evaluated with at least the intermediate {@link MathContext}.
+		 */
+		Complex eval(MathContext mc);
+		
+		/**
+		 * Returns the number of digits, beyond those required in the result, that the {@link MathContext} passed to {@link #eval(MathContext)} must
+		 * have so that the rounding of intermediate results does not affect the required digits. Each rounding step is off by at most half a unit
+		 * in the last place, so {@code n} steps cost about {@code log10(n)} digits; raising to the power {@code k} multiplies the relative error of
+		 * the base by {@code k}.
+		 */
+		int guardDigits();
+		
+		/**
+		 * Returns {@code true} if this {@link Expression} consists only of integer literals and operators that can be evaluated on {@code longs}
+		 * by {@link #evalLong()}, {@code false} otherwise.
+		 */
+		default boolean isIntegral() {
+			return false;
+		}
+		
+		/**
+		 * Evaluates this {@link Expression} using {@code long} arithmetic. Only called if {@link #isIntegral()} returns {@code true}. The default
+		 * implementation evaluates this {@code Expression} {@link #evalFraction() exactly} and converts the result, so integral {@code Expressions}
+		 * should override it with direct {@code long} arithmetic.
+		 * @throws ArithmeticException if this {@code Expression} is not {@link #isIntegral() integral} or the result (or any intermediate result)
+		 * does not fit in a {@code long} or is not an integer.
+		 */
+		default long evalLong() {
+			if(!isIntegral())
+				throw new ArithmeticException("Not an integral expression");
+			return evalFraction().longValueExact();
+		}
+		
+		/**
+		 * Evaluates this {@link Expression} exactly using {@link BigFraction} arithmetic.
+		 * @throws ArithmeticException if the result (or any intermediate result) is not a rational number, such as when an imaginary number is
+		 * involved or when a number is raised to a non-integer power.
+		 */
+		BigFraction evalFraction();
+		
 	}
 	
 	interface HasOperator {
@@ -100,7 +169,7 @@ public class Evaluator {
 		
 		@Override
 		public final int getPrecendence() {
-			return binaryPrecedence.get(getOperator());
+			return binaryPrecedence[getOperator().charAt(0)];
 		}
 		
 		@Override
@@ -110,31 +179,11 @@ public class Evaluator {
 
 		@Override
 		public Associativity getAssociativity() {
-			return binaryAssociativities.get(getOperator());
+			return binaryAssociativities[getOperator().charAt(0)];
 		}
 		
 	}
 	
-	static abstract class AdditiveExpression extends BinaryOperator {
-		/**
-		 * @param left
-		 * @param right
-		 */
-		public AdditiveExpression(Expression left, Expression right) {
-			super(left, right);
-		}
-	}
-	
-	static abstract class MultiplicativeExpression extends BinaryOperator {
-		/**
-		 * @param left
-		 * @param right
-		 */
-		public MultiplicativeExpression(Expression left, Expression right) {
-			super(left, right);
-		}
-	}
-	
 	static abstract class ExponentiativeExpression extends BinaryOperator {
 		/**
 		 * @param left
@@ -145,99 +194,58 @@ public class Evaluator {
 		}
 	}
 	
-	static class AdditionOperation extends AdditiveExpression {
-		
-		public AdditionOperation(Expression left, Expression right) {
-			super(left, right);
-		}
-		
-		@Override
-		public String getOperator() {
-			return "+";
-		}
-		
-		@Override
-		public Complex eval() {
-			return left.eval().add(right.eval(), INTERMEDIATE_MATH_CONTEXT);
-		}
-		
-	}
-	
-	static class SubtractionOperation extends AdditiveExpression {
+	static class ExponentiationOperation extends ExponentiativeExpression {
 		
-		public SubtractionOperation(Expression left, Expression right) {
+		public ExponentiationOperation(Expression left, Expression right) {
 			super(left, right);
 		}
 		
 		@Override
-		public String getOperator() {
-			return "-";
-		}
-		
-		@Override
-		public Complex eval() {
-			return left.eval().subtract(right.eval(), INTERMEDIATE_MATH_CONTEXT);
-		}
-		
-	}
-	
-	static class MultiplicationOperation extends MultiplicativeExpression {
-		
-		public MultiplicationOperation(Expression left, Expression right) {
-			super(left, right);
+		public Complex eval(final MathContext mc) {
+			return left.eval(mc).pow(right.eval(atLeastIntermediate(mc)), mc);
 		}
 		
+		/**
+		 * The rounding error can only be bounded if the exponent is a constant integer {@code k}, in which case the relative error of the base grows
+		 * by a factor of {@code k}.
+		 */
 		@Override
-		public Complex eval() {
-			return left.eval().multiply(right.eval(), INTERMEDIATE_MATH_CONTEXT);
+		public int guardDigits() {
+			if(isConstant(right) && right.isIntegral() && right.evalLong() != Long.MIN_VALUE)
+				return left.guardDigits() + digitsIn(Math.abs(right.evalLong())) + 1;
+			return UNKNOWN_GUARD_DIGITS;
 		}
 		
 		@Override
-		public String getOperator() {
-			return "*";
-		}
-		
-	}
-	
-	static class DivisionOperation extends MultiplicativeExpression {
-
-		public DivisionOperation(Expression left, Expression right) {
-			super(left, right);
+		public boolean isIntegral() {
+			return left.isIntegral() && right.isIntegral();
 		}
 		
+		/** @throws ArithmeticException if the exponent is negative (since the result would not be an integer) or does not fit in an {@code int}.*/
 		@Override
-		public Complex eval() {
-			return left.eval().divide(right.eval(), INTERMEDIATE_MATH_CONTEXT);
+		public long evalLong() {
+			final long base = left.evalLong(), exponent = right.evalLong();
+			if(exponent < 0)
+				throw new ArithmeticException("Negative exponent");
+			return Utils.powExact(base, Math.toIntExact(exponent));
 		}
 		
 		@Override
 		public String getOperator() {
-			return "/";
-		}
-		
-	}
-	
-	static class ExponentiationOperation extends ExponentiativeExpression {
-		
-		public ExponentiationOperation(Expression left, Expression right) {
-			super(left, right);
+			return "^";
 		}
 		
+		/** @throws ArithmeticException if the exponent is not an integer that fits in an {@code int}. */
 		@Override
-		public Complex eval() {
-			return left.eval().pow(right.eval(), INTERMEDIATE_MATH_CONTEXT);
-		}
-		
-		@Override
-		public String getOperator() {
-			return "^";
+		public BigFraction evalFraction() {
+			return left.evalFraction().pow(right.evalFraction().intValueExact());
 		}
 		
 	}
 	
 	abstract static class UnaryOperator implements Expression, HasOperator {
 		
-		Expression expr;
+		final Expression expr;
 		
 		public UnaryOperator(Expression expr) {
 			this.expr = expr;
@@ -245,7 +253,7 @@ public class Evaluator {
 		
 		@Override
 		public final int getPrecendence() {
-			return unaryPrecedence.get(getOperator());
+			return unaryPrecedence[getOperator().charAt(0)];
 		}
 		
 		@Override
@@ -258,7 +266,7 @@ public class Evaluator {
 
 		@Override
 		public Associativity getAssociativity() {
-			return unaryAssociativities.get(getOperator());
+			return unaryAssociativities[getOperator().charAt(0)];
 		}
 		
 	}
@@ -275,8 +283,28 @@ public class Evaluator {
 		}
 
 		@Override
-		public Complex eval() {
-			return expr.eval().negate(INTERMEDIATE_MATH_CONTEXT);
+		public Complex eval(final MathContext mc) {
+			return expr.eval(mc).negate(mc);
+		}
+		
+		@Override
+		public int guardDigits() {
+			return expr.guardDigits();
+		}
+		
+		@Override
+		public boolean isIntegral() {
+			return expr.isIntegral();
+		}
+		
+		@Override
+		public long evalLong() {
+			return Math.negateExact(expr.evalLong());
+		}
+		
+		@Override
+		public BigFraction evalFraction() {
+			return expr.evalFraction().negate();
 		}
 		
 	}
@@ -293,8 +321,28 @@ public class Evaluator {
 		}
 		
 		@Override
-		public Complex eval() {
-			return expr.eval();
+		public Complex eval(final MathContext mc) {
+			return expr.eval(mc);
+		}
+		
+		@Override
+		public int guardDigits() {
+			return expr.guardDigits();
+		}
+		
+		@Override
+		public boolean isIntegral() {
+			return expr.isIntegral();
+		}
+		
+		@Override
+		public long evalLong() {
+			return expr.evalLong();
+		}
+		
+		@Override
+		public BigFraction evalFraction() {
+			return expr.evalFraction();
 		}
 		
 	}
@@ -311,8 +359,24 @@ public class Evaluator {
 		}
 
 		@Override
-		public Complex eval() {
-			return expr.eval().abs(INTERMEDIATE_MATH_CONTEXT);
+		public Complex eval(final MathContext mc) {
+			return expr.eval(mc).abs(mc);
+		}
+		
+		/** The absolute value of a complex number is rounded several times. */
+		@Override
+		public int guardDigits() {
+			return expr.guardDigits() + 1;
+		}
+		
+		@Override
+		public boolean isIntegral() {
+			return expr.isIntegral();
+		}
+		
+		@Override
+		public long evalLong() {
+			return Math.absExact(expr.evalLong());
 		}
 
 		@Override
@@ -320,6 +384,11 @@ public class Evaluator {
 			return String.format("|%s|", expr);
 		}
 		
+		@Override
+		public BigFraction evalFraction() {
+			return expr.evalFraction().abs();
+		}
+		
 	}
 	
 	static class Factorial extends UnaryOperator {
@@ -333,9 +402,42 @@ public class Evaluator {
 			return "!";
 		}
 		
+		/** @throws ArithmeticException if the operand is not a nonnegative integer that fits in an {@code int}. */
+		@Override
+		public Complex eval(final MathContext mc) {
+			final int n = expr.eval(atLeastIntermediate(mc)).intValueExact();
+			if(n < 0)
+				throw new ArithmeticException("Factorial of a negative number: " + n);
+			return n <= Utils.MAX_LONG_FACTORIAL ? Complex.valueOf(Utils.factorialExact(n)) : new Complex(Utils.factorial(n));
+		}
+		
+		/** The result is exact. */
+		@Override
+		public int guardDigits() {
+			return 0;
+		}
+		
+		@Override
+		public boolean isIntegral() {
+			return expr.isIntegral();
+		}
+		
+		/** @throws ArithmeticException if the operand is negative or if its factorial does not fit in a {@code long}. */
+		@Override
+		public long evalLong() {
+			final long n = expr.evalLong();
+			if(n < 0 || n > Utils.MAX_LONG_FACTORIAL)
+				throw new ArithmeticException("Factorial is not a long: " + n);
+			return Utils.factorialExact((int) n);
+		}
+		
+		/** @throws ArithmeticException if the operand is not a nonnegative integer that fits in an {@code int}. */
 		@Override
-		public Complex eval() {
-			return new Complex(Utils.factorial(expr.eval().intValueExact()));
+		public BigFraction evalFraction() {
+			final int n = expr.evalFraction().intValueExact();
+			if(n < 0)
+				throw new ArithmeticException("Factorial of a negative number: " + n);
+			return n <= Utils.MAX_LONG_FACTORIAL ? BigFraction.of(Utils.factorialExact(n), 1) : BigFraction.of(Utils.factorial(n), BigInteger.ONE);
 		}
 		
 	}
@@ -343,6 +445,7 @@ public class Evaluator {
 	static class Percent extends UnaryOperator {
 		
 		private static final BigDecimal B100 = BigDecimal.valueOf(100);
+		private static final BigFraction F100 = BigFraction.of(100, 1);
 
 		public Percent(Expression expr) {
 			super(expr);
@@ -354,554 +457,1125 @@ public class Evaluator {
 		}
 		
 		@Override
-		public Complex eval() {
-			return expr.eval().divide(B100, INTERMEDIATE_MATH_CONTEXT);
+		public Complex eval(final MathContext mc) {
+			return expr.eval(mc).divide(B100, mc);
+		}
+		
+		@Override
+		public int guardDigits() {
+			return expr.guardDigits() + 1;
+		}
+		
+		@Override
+		public BigFraction evalFraction() {
+			return expr.evalFraction().divide(F100);
 		}
 		
 	}
 	
-	static class ConstantExpression implements Expression {
+	/**
+	 * <p>An n-ary sum of terms, each of which is either added or subtracted, built from a chain of {@code +} and {@code -} operators. The terms are
+	 * combined from left to right, with the result rounded to the working {@link MathContext} after each one, so the value is the same as that
+	 * of the equivalent left-nested binary operations.</p>
+	 * 
+	 * <p>The rounding error of a sum is relative to the largest of its terms and partial sums, so when they nearly cancel, the result has fewer
+	 * correct digits than the working context. If a sum evaluated with less than the intermediate {@code MathContext} loses more than
+	 * {@link #SAFETY_DIGITS} digits this way, it throws {@link PrecisionLossException#INSTANCE} so that the expression is evaluated again with the
+	 * intermediate {@code MathContext}.</p>
+	 */
+	static class SumExpression implements Expression {
 		
-		private final Complex constant;
+		private final Expression[] terms;
+		/** {@code subtracted[i]} is {@code true} if {@code terms[i]} is subtracted. {@code subtracted[0]} is always {@code false}. */
+		private final boolean[] subtracted;
+		private final boolean integral;
 		
-		public ConstantExpression(Complex constant) {
-			this.constant = constant;
+		SumExpression(final Expression[] terms, final boolean[] subtracted) {
+			this.terms = terms;
+			this.subtracted = subtracted;
+			this.integral = allIntegral(terms);
 		}
 		
 		@Override
-		public Complex eval() {
-			return constant;
+		public Complex eval(final MathContext mc) {
+			Complex sum = terms[0].eval(mc);
+			int largestExponent = exponentOf(sum);
+			for(int i = 1; i < terms.length; i++) {
+				final Complex term = terms[i].eval(mc);
+				sum = subtracted[i] ? sum.subtract(term, mc) : sum.add(term, mc);
+				largestExponent = Math.max(largestExponent, Math.max(exponentOf(term), exponentOf(sum)));
+			}
+			if(mc.getPrecision() != 0 && mc.getPrecision() < INTERMEDIATE_MATH_CONTEXT.getPrecision()
+					&& (long) largestExponent - exponentOf(sum) > SAFETY_DIGITS)
+				throw PrecisionLossException.INSTANCE;
+			return sum;
 		}
 		
 		@Override
-		public String toString() {
-			return constant.toString();
+		public int guardDigits() {
+			return maxGuardDigits(terms) + digitsIn(terms.length - 1);
 		}
 		
-	}
-	
-	private enum TokenType {
-		OPERATOR, UNARY_OPERATOR, BINARY_OPERATOR, OPEN_PARENTHESIS, CLOSE_PARENTHESIS, ABSOLUTE_VALUE_BAR, CLOSE_ABSOLUTE_VALUE_BAR, OPEN_ABSOLUTE_VALUE_BAR, NUMBER;
-		
-		public boolean isOperator() {
-			return this == UNARY_OPERATOR || this == BINARY_OPERATOR || this == OPERATOR;
+		@Override
+		public boolean isIntegral() {
+			return integral;
 		}
 		
-		public boolean isParenthesis() {
-			return this == OPEN_PARENTHESIS || this == CLOSE_PARENTHESIS;
+		@Override
+		public long evalLong() {
+			long sum = terms[0].evalLong();
+			for(int i = 1; i < terms.length; i++)
+				sum = subtracted[i] ? Math.subtractExact(sum, terms[i].evalLong()) : Math.addExact(sum, terms[i].evalLong());
+			return sum;
 		}
 		
-		public boolean isOpeningSeparator() {
-			return this == OPEN_ABSOLUTE_VALUE_BAR || this == OPEN_PARENTHESIS;
+		@Override
+		public BigFraction evalFraction() {
+			BigFraction sum = terms[0].evalFraction();
+			for(int i = 1; i < terms.length; i++)
+				sum = subtracted[i] ? sum.subtract(terms[i].evalFraction()) : sum.add(terms[i].evalFraction());
+			return sum;
 		}
 		
-		public boolean isClosingSeparator() {
-			return this == CLOSE_ABSOLUTE_VALUE_BAR || this == CLOSE_PARENTHESIS;
+		@Override
+		public String toString() {
+			final StringBuilder sb = new StringBuilder("(").append(terms[0]);
+			for(int i = 1; i < terms.length; i++)
+				sb.append(subtracted[i] ? '-' : '+').append(terms[i]);
+			return sb.append(')').toString();
 		}
 		
-		public boolean isAbsoluteValueBar() {
-			return this == OPEN_ABSOLUTE_VALUE_BAR || this == CLOSE_ABSOLUTE_VALUE_BAR || this == ABSOLUTE_VALUE_BAR;
-		}
 	}
 	
-	private static class Token {
+	/**
+	 * An n-ary product of factors, each of which is either multiplied or divided by, built from a chain of {@code *} and {@code /} operators. The
+	 * factors are combined from left to right, with the result rounded to the working {@link MathContext} after each one, so the value is the
+	 * same as that of the equivalent left-nested binary operations. A product is only {@link #isIntegral() integral} if it has no divisions.
+	 */
+	static class ProductExpression implements Expression {
 		
-		private TokenType type;
-		private final String representation;
+		private final Expression[] factors;
+		/** {@code divided[i]} is {@code true} if the product is divided by {@code factors[i]}. {@code divided[0]} is always {@code false}. */
+		private final boolean[] divided;
+		private final boolean integral;
 		
-		public Token(final String representation, final TokenType type) {
-			this.representation = representation;
-			this.type = type;
+		ProductExpression(final Expression[] factors, final boolean[] divided) {
+			this.factors = factors;
+			this.divided = divided;
+			boolean anyDivided = false;
+			for(boolean d : divided)
+				anyDivided |= d;
+			this.integral = !anyDivided && allIntegral(factors);
 		}
 		
-		public void setType(final TokenType newType) {
-			this.type = newType;
+		@Override
+		public Complex eval(final MathContext mc) {
+			Complex product = factors[0].eval(mc);
+			for(int i = 1; i < factors.length; i++)
+				product = divided[i] ? product.divide(factors[i].eval(mc), mc) : product.multiply(factors[i].eval(mc), mc);
+			return product;
 		}
 		
-		public TokenType getType() {
-			return type;
+		@Override
+		public int guardDigits() {
+			return maxGuardDigits(factors) + digitsIn(factors.length - 1);
 		}
 		
-		public String getRepresentation() {
-			return representation;
+		@Override
+		public boolean isIntegral() {
+			return integral;
+		}
+		
+		@Override
+		public long evalLong() {
+			long product = factors[0].evalLong();
+			for(int i = 1; i < factors.length; i++)
+				product = Math.multiplyExact(product, factors[i].evalLong());
+			return product;
+		}
+		
+		@Override
+		public BigFraction evalFraction() {
+			BigFraction product = factors[0].evalFraction();
+			for(int i = 1; i < factors.length; i++)
+				product = divided[i] ? product.divide(factors[i].evalFraction()) : product.multiply(factors[i].evalFraction());
+			return product;
 		}
 		
 		@Override
 		public String toString() {
-			return String.format("Token[%s, %s]", representation, type);
+			final StringBuilder sb = new StringBuilder("(").append(factors[0]);
+			for(int i = 1; i < factors.length; i++)
+				sb.append(divided[i] ? '/' : '*').append(factors[i]);
+			return sb.append(')').toString();
 		}
 		
 	}
-	/*
-	public static void main(String[] args) {
-		String[] tests = {"4/3*2-1+100", "3*-4^2", "3-(-3)+4(2)", "2+((3)(2)(--1))"};
-//		System.out.println("RUNNING TESTS:");
-//		for(int i = 0; i < tests.length; i++) {
-//			final String test = tests[i];
-//			System.out.printf("%nTest result %d: %s%n%n", i, evalString(test));
-//		}
-		Scanner in = new Scanner(System.in);
-		while(true) {
-			try {
-				System.out.println("RESULT: " + evaluateAsComplex(in.nextLine()));
-			}
-			catch(Exception e) {
-				System.out.println("Error occured while parsing your input.");
-				e.printStackTrace();
-			}
+	
+	/**
+	 * Returns the exponent of the most significant digit of the larger part of {@code c}, or {@link Integer#MIN_VALUE} if {@code c} is zero. For
+	 * example, the exponent of {@code 123.4} is {@code 2}.
+	 */
+	private static int exponentOf(final Complex c) {
+		return Math.max(exponentOf(c.realPart()), exponentOf(c.imaginaryPart()));
+	}
+	
+	private static int exponentOf(final BigDecimal d) {
+		return d.signum() == 0 ? Integer.MIN_VALUE : d.precision() - d.scale() - 1;
+	}
+	
+	/**
+	 * Thrown by a {@link SumExpression} whose terms cancel so much that its result does not have the digits required of it. It is caught by
+	 * {@link CompiledExpression#evaluateAsComplex(MathContext)}, which evaluates the expression again with the intermediate {@link MathContext}.
+	 * There is only one instance, and it has no stack trace.
+	 */
+	private static final class PrecisionLossException extends RuntimeException {
+		
+		private static final long serialVersionUID = 1L;
+		static final PrecisionLossException INSTANCE = new PrecisionLossException();
+		
+		private PrecisionLossException() {
+			super("Too many digits were lost to cancellation", null, false, false);
 		}
+		
 	}
-	*/
 	
-	public static Complex evaluateAsComplex(final String expression) {
-		return evaluateAsComplex(expression, DEFAULT_RESULT_CONTEXT);
+	private static boolean allIntegral(final Expression[] exprs) {
+		for(Expression e : exprs)
+			if(!e.isIntegral())
+				return false;
+		return true;
 	}
 	
-	public static Complex evaluateAsComplex(final String expression, final MathContext resultContext) {
-//		System.out.printf("evaluateAsComplex(%s)%n", expression);
-		final List<Token> tokens = tokenize(WHITESPACE.matcher(expression).replaceAll(""));
-		final List<Token> postfixTokens = toPostfix(tokens);
-		Expression exp = makeTree(postfixTokens);
-		return exp.eval().round(resultContext);
+	private static int maxGuardDigits(final Expression[] exprs) {
+		int max = 0;
+		for(Expression e : exprs)
+			max = Math.max(max, e.guardDigits());
+		return max;
 	}
-
-	public static BigDecimal evaluateAsBigDecimalExact(final String expression) {
-		return evaluateAsComplex(expression).bigDecimalValueExact();
+	
+	/** Returns the number of decimal digits in {@code n}, which must be nonnegative. */
+	private static int digitsIn(long n) {
+		int digits = 1;
+		while(n >= 10) {
+			n /= 10;
+			digits++;
+		}
+		return digits;
 	}
 	
-	public static long evaluateAsLongExact(final String expression) {
-		return evaluateAsComplex(expression).longValueExact();
+	/** Returns a {@code HALF_UP} {@link MathContext} with the given precision, which must be less than that of the intermediate context. */
+	private static MathContext contextWithPrecision(final int precision) {
+		MathContext mc = WORKING_CONTEXTS[precision];
+		if(mc == null) //racy, but every thread creates an equal instance.
+			WORKING_CONTEXTS[precision] = mc = new MathContext(precision, RoundingMode.HALF_UP);
+		return mc;
 	}
-
-	/** Given a mathematical expression in String form, tokenizes the expression and returns the results as a {@link List} of {@link Token Tokens}.*/
-	private static List<Token> tokenize(final String expression) {
-//		System.out.printf("tokenize(%s)%n", expression);
-		List<Token> tokens = new ArrayList<>();
-		for(int i = 0; i < expression.length(); ) {
-			String iStr = expression.substring(i, i + 1);
-			final Token token;
-			if(isOpenParenthesis(iStr)) {
-				token = new Token(iStr, TokenType.OPEN_PARENTHESIS);
-				i++;
-			}
-			else if(isCloseParenthesis(iStr)) {
-				token = new Token(iStr, TokenType.CLOSE_PARENTHESIS);
-				i++;
-			}
-			else if(isAbsoluteValueBar(iStr)) {
-				token = new Token(iStr, TokenType.ABSOLUTE_VALUE_BAR);
-				i++;
+	
+	private static MathContext atLeastIntermediate(final MathContext mc) {
+		return mc.getPrecision() != 0 && mc.getPrecision() < INTERMEDIATE_MATH_CONTEXT.getPrecision() ? INTERMEDIATE_MATH_CONTEXT : mc;
+	}
+	
+	/**
+	 * <p>A constant subtree whose value is computed at most once. An {@link #isIntegral() integral} {@code FoldedExpression} stores the {@code long}
+	 * value computed when it was compiled. Any other value (the {@link Complex} value, or the exact {@link BigFraction} value) is computed from the
+	 * original subtree the first time it is needed and then kept.</p>
+	 * 
+	 * <p>The {@code Complex} value of a non-integral subtree is only kept if it was computed with the intermediate {@link MathContext}. When it
+	 * has not been and a smaller working context is used, the subtree is evaluated with that context instead, so that a one-off evaluation of a
+	 * constant expression (such as the answer to an approximation problem) only computes the digits it needs. The values are exactly those the
+	 * original subtree would produce, so folding never changes the result of an evaluation.</p>
+	 */
+	static final class FoldedExpression implements Expression {
+		
+		private final Expression source;
+		private final boolean integral;
+		private final long longValue;
+		private volatile Complex value;
+		private volatile BigFraction fraction;
+		
+		FoldedExpression(final Expression source, final long longValue) {
+			this.source = source;
+			this.integral = true;
+			this.longValue = longValue;
+		}
+		
+		/** Creates a non-integral {@link FoldedExpression} whose value is computed when it is first evaluated. */
+		FoldedExpression(final Expression source) {
+			this.source = source;
+			this.integral = false;
+			this.longValue = 0;
+		}
+		
+		@Override
+		public Complex eval(final MathContext mc) {
+			Complex v = value;
+			if(v == null) {
+				if(!integral && !mc.equals(INTERMEDIATE_MATH_CONTEXT))
+					return source.eval(mc);
+				value = v = source.eval(INTERMEDIATE_MATH_CONTEXT);
 			}
-			else {
-				if("0123456789i.".contains(iStr)) {
-					int end = endOfComplexNumber(expression, i);
-					token = new Token(expression.substring(i, end), TokenType.NUMBER);
-					i = end;
-				}
-				else {
-					String op = null;
-					op_finder:
-					for(int j = i + 1; j <= expression.length(); j++) {
-						final String sub = expression.substring(i, j);
-						if(isOperator(sub)) {
-							op = sub;
-							break op_finder;
-						}
-					}
-					if(op == null)
-						throw new IllegalArgumentException("Invalid expression. Tokens (at this stage of parsing) were: " + tokens);
-					if(isUnaryOperator(op)) {
-						if(isBinaryOperator(op)) { //This token could be a left or a right unary operator! We will figure out which one it is after.
-							token = new Token(op, TokenType.OPERATOR);
-						}
-						else {
-							token = new Token(op, TokenType.UNARY_OPERATOR);
-						}
-					}
-					else {
-						token = new Token(op, TokenType.BINARY_OPERATOR);
-					}
-					i += op.length();
-				}
+			return v;
+		}
+		
+		/** An integral value is exact; otherwise, the subtree may be evaluated with the working context. */
+		@Override
+		public int guardDigits() {
+			return integral ? 0 : source.guardDigits();
+		}
+		
+		@Override
+		public boolean isIntegral() {
+			return integral;
+		}
+		
+		@Override
+		public long evalLong() {
+			return longValue;
+		}
+		
+		@Override
+		public BigFraction evalFraction() {
+			BigFraction f = fraction;
+			if(f == null)
+				fraction = f = integral ? BigFraction.of(longValue, 1) : source.evalFraction();
+			return f;
+		}
+		
+		@Override
+		public String toString() {
+			return source.toString();
+		}
+		
+	}
+	
+	static class ConstantExpression implements Expression {
+		
+		private static final int LITERAL_CACHE_SIZE = 1024;
+		private static final ConstantExpression[] LITERALS = new ConstantExpression[LITERAL_CACHE_SIZE];
+		
+		private final Complex constant;
+		private final boolean integral;
+		private final long longValue;
+		/** The exact value of this constant, or {@code null} if it is computed from {@link #constant} when needed. */
+		private final BigFraction fraction;
+		
+		public ConstantExpression(Complex constant) {
+			this.constant = constant;
+			this.integral = false;
+			this.longValue = 0;
+			this.fraction = null;
+		}
+		
+		/**
+		 * Creates a {@link ConstantExpression} whose exact value is {@code fraction}. The {@link Complex} value of the constant is {@code fraction}
+		 * rounded to the intermediate {@link MathContext}. The {@code ConstantExpression} will be {@link #isIntegral() integral} if {@code fraction}
+		 * is an integer that fits in a {@code long}.
+		 */
+		public ConstantExpression(BigFraction fraction) {
+			final BigDecimal magnitude = new BigDecimal(fraction.getNumerator()).divide(new BigDecimal(fraction.getDenominator()), INTERMEDIATE_MATH_CONTEXT);
+			this.constant = new Complex(fraction.isNegative() ? magnitude.negate() : magnitude);
+			this.integral = fraction.isInteger() && fraction.getNumerator().bitLength() < Long.SIZE;
+			this.longValue = integral ? fraction.getNumerator().longValue() * (fraction.isNegative() ? -1 : 1) : 0;
+			this.fraction = fraction;
+		}
+		
+		/**
+		 * Returns an {@link #isIntegral() integral} {@link ConstantExpression} for {@code value}. Small nonnegative values are cached, since
+		 * {@code ConstantExpressions} are immutable.
+		 */
+		static ConstantExpression valueOf(final long value) {
+			if(value < 0 || value >= LITERAL_CACHE_SIZE)
+				return new ConstantExpression(value);
+			ConstantExpression cached = LITERALS[(int) value];
+			if(cached == null) //racy, but every thread creates an equal instance.
+				LITERALS[(int) value] = cached = new ConstantExpression(value);
+			return cached;
+		}
+		
+		/** Creates an {@link #isIntegral() integral} {@link ConstantExpression}. */
+		public ConstantExpression(long value) {
+			this.constant = Complex.valueOf(value);
+			this.integral = true;
+			this.longValue = value;
+			this.fraction = null;
+		}
+		
+		/**
+		 * Returns a {@link ConstantExpression} for the numeric literal {@code text[start:end)}, which has the same value as
+		 * {@link Complex#Complex(String)} would give for it. If the literal is a string of decimal digits whose value fits in a {@code long},
+		 * the {@code ConstantExpression} will be {@link #isIntegral() integral}.
+		 * @throws NumberFormatException if the literal is not a valid number.
+		 */
+		static ConstantExpression parse(final char[] text, final int start, final int end) {
+			if(text[end - 1] == 'i') {
+				final BigDecimal b = end - start == 1 ? BigDecimal.ONE : new BigDecimal(text, start, end - 1 - start);
+				return new ConstantExpression(new Complex(BigDecimal.ZERO, b));
 			}
-			
-			tokens.add(token);
-		}
-//		System.out.printf("before figuring out types of operators: %n\t%s%n", tokens);
-		for(int i = 0; i < tokens.size(); i++) {
-			Token token = tokens.get(i);
-			if(token.getType() == TokenType.OPERATOR) {
-				figureOutTypeOfOperator(tokens, i);
+			for(int i = start; i < end; i++)
+				if(!isDigit(text[i]))
+					return new ConstantExpression(new Complex(new BigDecimal(text, start, end - start)));
+			if(end - start <= MAX_SAFE_LONG_DIGITS) {
+				long value = 0;
+				for(int i = start; i < end; i++)
+					value = value * 10 + (text[i] - '0');
+				return valueOf(value);
 			}
+			final BigDecimal value = new BigDecimal(text, start, end - start);
+			return value.unscaledValue().bitLength() < Long.SIZE ? valueOf(value.longValueExact()) : new ConstantExpression(new Complex(value));
 		}
-//		System.out.printf("after figuring out types of operators, before figuring out types of absolute value bars: %n\t%s%n", tokens);
-		for(int i = 0; i < tokens.size(); i++) {
-			Token token = tokens.get(i);
-			if(token.getType() == TokenType.ABSOLUTE_VALUE_BAR) {
-				figureOutTypeOfAbsoluteValueBar(tokens, i);
-			}
+		
+		@Override
+		public Complex eval(final MathContext mc) {
+			return constant;
+		}
+		
+		@Override
+		public int guardDigits() {
+			return 0;
+		}
+		
+		@Override
+		public boolean isIntegral() {
+			return integral;
+		}
+		
+		@Override
+		public long evalLong() {
+			return longValue;
+		}
+		
+		/** @throws ArithmeticException if this constant has a nonzero imaginary part. */
+		@Override
+		public BigFraction evalFraction() {
+			if(fraction != null)
+				return fraction;
+			if(integral)
+				return BigFraction.of(longValue, 1);
+			if(constant.imaginaryPart().signum() != 0)
+				throw new ArithmeticException("Not a real number: " + constant);
+			return BigFraction.from(constant.realPart());
 		}
-		return tokens;
+		
+		@Override
+		public String toString() {
+			return fraction != null ? "(" + fraction + ")" : constant.toString();
+		}
+		
 	}
-
-	/** <p>Given the list of tokens and the index of a token that could either be a binary operator or a unary operator (such as a '-' sign), this method
-	 * figures out which type of operator it is and updates its {@link TokenType type} (via {@link Token#setType(TokenType)}) accordingly.</p>
-	 * <p>Precondition: {@code tokens.get(i).getType() == TokenType.OPERATOR}</p>
-	 * <p>Precondition: Any absolute values in the token list have the type {@link TokenType#ABSOLUTE_VALUE_BAR}.</p>
-	 * */
-	private static void figureOutTypeOfOperator(List<Token> tokens, int i) {
-		final Token token = tokens.get(i);
-		assert token.getType() == TokenType.OPERATOR;
-		if(wouldBeLeftAssociativeIfItWereAUnaryOperator(token.getRepresentation())) {
-			if(i == 0) {
-				throw new IllegalArgumentException("Invalid expression");
+	
+	/**
+	 * <p>Turns expression text (and, for {@link Evaluator#compile(List)}, typed operands) into an {@link Expression} tree. The text is first split
+	 * into tokens by a cursor-based lexer that records the type and offsets of each token in primitive arrays, without creating a {@code String} per
+	 * token. The tokens are then parsed in a single pass by precedence climbing.</p>
+	 * 
+	 * <p>Whether a {@code +} or {@code -} is unary or binary, and whether an absolute value bar opens or closes, is decided by whether an operand
+	 * is expected when the parser reaches it. The operator tables give the same trees as the shunting-yard conversion this replaced; in particular,
+	 * {@code ^} has the same precedence as {@code +} and {@code -}, and unary operators bind more tightly than any binary operator.</p>
+	 * 
+	 * <p>A {@code Parser} is not thread-safe; each thread reuses its own instance (and arrays) through {@link #get()}.</p>
+	 */
+	private static final class Parser {
+		
+		private static final int NUMBER = 0, OPERAND = 1, OPERATOR = 2, OPEN_PARENTHESIS = 3, CLOSE_PARENTHESIS = 4, ABSOLUTE_VALUE_BAR = 5;
+		private static final int INITIAL_TEXT_CAPACITY = 64, INITIAL_TOKEN_CAPACITY = 32, INITIAL_POSTFIX_CAPACITY = 4, INITIAL_CHAIN_CAPACITY = 4;
+		private static final ThreadLocal<Parser> LOCAL = ThreadLocal.withInitial(Parser::new);
+		
+		/** The whitespace-free text being parsed. */
+		private char[] text = new char[INITIAL_TEXT_CAPACITY];
+		private int length;
+		/** The index of each character of {@link #text} in the appended text, counting whitespace. Used to report the offsets of errors. */
+		private int[] origins = new int[INITIAL_TEXT_CAPACITY];
+		/** The number of characters appended with {@link #appendText(CharSequence)}, counting whitespace. */
+		private int appended;
+		/**
+		 * The type of each token and its offsets in {@link #text}. For an {@link #OPERATOR}, the operator is {@code text[starts[i]]}. An
+		 * {@link #OPERAND} has no text; its start and end are the offset at which it was inserted.
+		 */
+		private int[] types = new int[INITIAL_TOKEN_CAPACITY], starts = new int[INITIAL_TOKEN_CAPACITY], ends = new int[INITIAL_TOKEN_CAPACITY];
+		private int count;
+		/** The index of the next token to be parsed. */
+		private int pos;
+		/** The typed operands, in the order of their {@link #OPERAND} tokens. */
+		private final List<Expression> operands = new ArrayList<>();
+		private int nextOperand;
+		/** Scratch space for {@link #parsePostfixOperators(Expression)}. */
+		private char[] postfix = new char[INITIAL_POSTFIX_CAPACITY];
+		/** The first error found, or {@code null}. Once an error is found, no more tokens are added and nothing more is parsed. */
+		private ParseResult.ErrorKind errorKind;
+		/** The index in {@link #text} of the first error, and the offending character or {@link ParseResult#NO_CHARACTER}. */
+		private int errorIndex, errorCharacter;
+		
+		/** Returns this thread's {@link Parser}, reset so that it contains no tokens. */
+		static Parser get() {
+			final Parser parser = LOCAL.get();
+			parser.reset();
+			return parser;
+		}
+		
+		private void reset() {
+			length = appended = count = pos = nextOperand = 0;
+			operands.clear();
+			errorKind = null;
+		}
+		
+		/**
+		 * Appends {@code expression} to the text being parsed, ignoring whitespace, and splits it into tokens. A token never spans two calls to this
+		 * method or to {@link #appendOperand(Expression)}. If {@code expression} contains a character that is not part of a number or an operator,
+		 * or a number with more than one decimal point, the error is recorded and reported by {@link #failure()}.
+		 */
+		void appendText(final CharSequence expression) {
+			if(length + expression.length() > text.length) {
+				final int capacity = Math.max(text.length * 2, length + expression.length());
+				text = Arrays.copyOf(text, capacity);
+				origins = Arrays.copyOf(origins, capacity);
 			}
-			else if(i == tokens.size() - 1) {
-				token.setType(TokenType.UNARY_OPERATOR);
+			final int from = length;
+			for(int i = 0; i < expression.length(); i++) {
+				final char c = expression.charAt(i);
+				if(!isWhitespace(c)) {
+					origins[length] = appended + i;
+					text[length++] = c;
+				}
 			}
-			else {
-				Token nextToken = tokens.get(i + 1);
-				if(nextToken.getType() == null)
-					figureOutTypeOfOperator(tokens, i + 1);
-				switch(nextToken.getType()) {
-				case ABSOLUTE_VALUE_BAR -> {
-					Token nextNA;
-					int j = i + 2;
-					while(j < tokens.size() && tokens.get(j).getType() == TokenType.ABSOLUTE_VALUE_BAR)
-						j++;
-					if(j >= tokens.size()) {
-						token.setType(TokenType.UNARY_OPERATOR);
-					}
-					else {
-						nextNA = tokens.get(j);
-						if(nextNA.getType() == null)
-							figureOutTypeOfOperator(tokens, j);
-						switch(nextNA.getType()) {
-							case NUMBER, OPEN_PARENTHESIS -> token.setType(TokenType.BINARY_OPERATOR);
-							case CLOSE_PARENTHESIS, BINARY_OPERATOR -> token.setType(TokenType.UNARY_OPERATOR);
-							case UNARY_OPERATOR -> {
-								if(isLeftAssociative(nextNA)) {
-									token.setType(TokenType.UNARY_OPERATOR);
-								}
-								else {
-									token.setType(TokenType.BINARY_OPERATOR);
-								}
-							}
-							default -> throw new IllegalArgumentException("Unknown TokenType:" + nextNA.getType());
-						}
-					}
-					throw new IllegalArgumentException("Undecidable situation - cannot be determined whether an operator is unary or binary");
+			appended += expression.length();
+			if(errorKind == null)
+				lex(from, length);
+		}
+		
+		void appendOperand(final Expression operand) {
+			addToken(OPERAND, length, length);
+			operands.add(operand);
+		}
+		
+		private void lex(final int from, final int to) {
+			for(int i = from; i < to; ) {
+				final char c = text[i];
+				if(c == '(') {
+					addToken(OPEN_PARENTHESIS, i, i + 1);
+					i++;
 				}
-				case NUMBER, OPEN_PARENTHESIS -> token.setType(TokenType.BINARY_OPERATOR);
-				case CLOSE_PARENTHESIS, BINARY_OPERATOR -> token.setType(TokenType.UNARY_OPERATOR);
-				case UNARY_OPERATOR -> {
-					if(isLeftAssociative(nextToken)) {
-						token.setType(TokenType.UNARY_OPERATOR);
-					}
-					else {
-						assert isRightAssociative(nextToken);
-						token.setType(TokenType.BINARY_OPERATOR);
+				else if(c == ')') {
+					addToken(CLOSE_PARENTHESIS, i, i + 1);
+					i++;
+				}
+				else if(c == '|') {
+					addToken(ABSOLUTE_VALUE_BAR, i, i + 1);
+					i++;
+				}
+				else if(isDigit(c) || isDecimalPoint(c) || c == 'i') {
+					final int end = endOfComplexNumber(i, to);
+					if(end < 0) {
+						fail(ParseResult.ErrorKind.INVALID_NUMBER, i, ParseResult.NO_CHARACTER);
+						return;
 					}
+					addToken(NUMBER, i, end);
+					i = end;
 				}
-				default -> throw new IllegalArgumentException("Invalid expression");
+				else if(isOperator(c)) {
+					addToken(OPERATOR, i, i + 1);
+					i++;
+				}
+				else {
+					fail(ParseResult.ErrorKind.INVALID_CHARACTER, i, c);
+					return;
 				}
 			}
 		}
-		else {
-			assert wouldBeRightAssociativeIfItWereAUnaryOperator(token.getRepresentation());
-			if(i == 0) {
-				token.setType(TokenType.UNARY_OPERATOR);
+		
+		/** Returns the end of the number starting at {@code start}, or {@code -1} if it has more than one decimal point. */
+		private int endOfComplexNumber(final int start, final int to) {
+			if(text[start] == 'i')
+				return start + 1;
+			int ind = start;
+			boolean decimalPointFound = false;
+			while(ind < to) {
+				if(isDecimalPoint(text[ind])) {
+					if(decimalPointFound)
+						return -1;
+					decimalPointFound = true;
+				}
+				else if(!isDigit(text[ind])) {
+					break;
+				}
+				ind++;
 			}
-			else if(i == tokens.size() - 1) {
-				throw new IllegalArgumentException("Invalid Expression");
+			if(ind < to && text[ind] == 'i')
+				ind++;
+			return ind;
+		}
+		
+		private void addToken(final int type, final int start, final int end) {
+			if(count == types.length) {
+				types = Arrays.copyOf(types, count * 2);
+				starts = Arrays.copyOf(starts, count * 2);
+				ends = Arrays.copyOf(ends, count * 2);
 			}
-			else {
-				Token prevToken = tokens.get(i - 1);
-				switch(prevToken.getType()) {
-				case ABSOLUTE_VALUE_BAR -> {
-					final Token prevNA;
-					int j = i - 2;
-					while(j >= 0 && tokens.get(j).getType() == TokenType.ABSOLUTE_VALUE_BAR)
-						j--;
-					if(j < 0) {
-						token.setType(TokenType.UNARY_OPERATOR);
-					}
-					else {
-						prevNA = tokens.get(j);
-						switch(prevNA.getType()) {
-						case NUMBER, CLOSE_PARENTHESIS -> token.setType(TokenType.BINARY_OPERATOR);
-						case BINARY_OPERATOR, OPEN_PARENTHESIS -> token.setType(TokenType.UNARY_OPERATOR);
-						case UNARY_OPERATOR -> {
-							if(isLeftAssociative(prevNA))
-								token.setType(TokenType.BINARY_OPERATOR);
-							else
-								token.setType(TokenType.UNARY_OPERATOR);
-						}
-						default -> throw new IllegalArgumentException("Unknown TokenType:" + prevNA.getType());
-						}
+			types[count] = type;
+			starts[count] = start;
+			ends[count] = end;
+			count++;
+		}
+		
+		/**
+		 * Parses all of the tokens that have been appended. Returns {@code null} if the tokens do not form a valid expression (or if an error was
+		 * found while they were appended), in which case the error is reported by {@link #failure()}. Every method that parses part of the
+		 * expression likewise returns {@code null} if it finds an error, so that no exception is thrown for an invalid expression.
+		 */
+		Expression parse() {
+			if(errorKind != null)
+				return null;
+			final Expression result = parseExpression(0);
+			if(result == null)
+				return null;
+			if(pos < count)
+				return fail(ParseResult.ErrorKind.UNEXPECTED_TOKEN, starts[pos], tokenCharacter(pos));
+			return result;
+		}
+		
+		/** Returns a {@link ParseResult} describing the first error. Must only be called after {@link #parse()} returns {@code null}. */
+		ParseResult failure() {
+			return ParseResult.failure(errorKind, errorIndex < length ? origins[errorIndex] : appended, errorCharacter);
+		}
+		
+		/**
+		 * <p>Parses an operand followed by any number of binary operators and operands, stopping at the first binary operator that does not bind
+		 * more tightly than an operator of precedence {@code precedence} to its left. A binary operator binds more tightly if it has a higher
+		 * precedence, or the same precedence and is right associative. The top level of an expression is parsed with a precedence of {@code 0}.</p>
+		 * 
+		 * <p>Consecutive operators of the same chain (such as {@code +} and {@code -}) are collected into a single n-ary node, whose operands are
+		 * combined from left to right just as the equivalent left-nested binary operators would be.</p>
+		 */
+		private Expression parseExpression(final int precedence) {
+			Expression left = parseOperand();
+			if(left == null)
+				return null;
+			int chain = NO_CHAIN, size = 0;
+			Expression[] operands = null;
+			boolean[] inverted = null;
+			while(pos < count && types[pos] == OPERATOR) {
+				final char op = text[starts[pos]];
+				final int opPrecedence = binaryPrecedence[op];
+				if(opPrecedence == 0 || opPrecedence < precedence || opPrecedence == precedence && binaryAssociativities[op].isLeft())
+					break;
+				pos++;
+				final Expression right = parseExpression(opPrecedence);
+				if(right == null)
+					return null;
+				if(chain != NO_CHAIN && binaryChains[op] == chain) {
+					if(size == operands.length) {
+						operands = Arrays.copyOf(operands, size * 2);
+						inverted = Arrays.copyOf(inverted, size * 2);
 					}
 				}
-				case NUMBER, CLOSE_PARENTHESIS -> token.setType(TokenType.BINARY_OPERATOR);
-				case OPEN_PARENTHESIS, BINARY_OPERATOR -> token.setType(TokenType.UNARY_OPERATOR);
-				case UNARY_OPERATOR -> {
-					if(isLeftAssociative(prevToken)) {
-						token.setType(TokenType.BINARY_OPERATOR);
-					}
-					else {
-						assert isRightAssociative(prevToken);
-						token.setType(TokenType.UNARY_OPERATOR);
+				else {
+					if(chain != NO_CHAIN)
+						left = makeChain(chain, operands, inverted, size);
+					chain = binaryChains[op];
+					if(chain == NO_CHAIN) {
+						left = makeBinary(op, left, right);
+						continue;
 					}
+					operands = new Expression[INITIAL_CHAIN_CAPACITY];
+					inverted = new boolean[INITIAL_CHAIN_CAPACITY];
+					operands[0] = left;
+					size = 1;
+				}
+				operands[size] = right;
+				inverted[size++] = binaryInverses[op];
+			}
+			return chain == NO_CHAIN ? left : makeChain(chain, operands, inverted, size);
+		}
+		
+		/** Parses any number of prefix operators followed by a primary expression and any postfix operators. */
+		private Expression parseOperand() {
+			final int firstPrefix = pos;
+			while(pos < count && types[pos] == OPERATOR && isPrefixOperator(text[starts[pos]]))
+				pos++;
+			final int endPrefix = pos;
+			final Expression primary = parsePrimary();
+			if(primary == null)
+				return null;
+			Expression operand = parsePostfixOperators(primary);
+			for(int i = endPrefix - 1; i >= firstPrefix; i--)
+				operand = makeUnary(text[starts[i]], operand);
+			return operand;
+		}
+		
+		private Expression parsePrimary() {
+			if(pos == count)
+				return fail(ParseResult.ErrorKind.EXPECTED_OPERAND, length, ParseResult.NO_CHARACTER);
+			final int token = pos++;
+			return switch(types[token]) {
+				case NUMBER -> isValidNumber(starts[token], ends[token]) ? ConstantExpression.parse(text, starts[token], ends[token]) :
+					fail(ParseResult.ErrorKind.INVALID_NUMBER, starts[token], ParseResult.NO_CHARACTER);
+				case OPERAND -> operands.get(nextOperand++);
+				case OPEN_PARENTHESIS -> {
+					final Expression inner = parseExpression(0);
+					yield inner == null || !expect(CLOSE_PARENTHESIS, ParseResult.ErrorKind.MISSING_CLOSE_PARENTHESIS) ? null : inner;
 				}
-				default -> throw new IllegalArgumentException("Invalid expression");
+				case ABSOLUTE_VALUE_BAR -> {
+					final Expression inner = parseExpression(0);
+					yield inner == null || !expect(ABSOLUTE_VALUE_BAR, ParseResult.ErrorKind.MISSING_ABSOLUTE_VALUE_BAR) ? null :
+						foldIfConstant(new AbsoluteValueOperator(inner), inner);
 				}
+				default -> fail(ParseResult.ErrorKind.EXPECTED_OPERAND, starts[token], ParseResult.NO_CHARACTER);
+			};
+		}
+		
+		/**
+		 * Returns {@code true} if the number token from {@code start} to {@code end} can be parsed by {@link ConstantExpression#parse}, which is
+		 * the case if it is {@code i} or has at least one digit (the lexer has already ensured it has at most one decimal point).
+		 */
+		private boolean isValidNumber(final int start, final int end) {
+			if(text[start] == 'i')
+				return true;
+			for(int i = start; i < end; i++)
+				if(isDigit(text[i]))
+					return true;
+			return false;
+		}
+		
+		/**
+		 * Applies the postfix operators that follow an operand. A postfix operator is applied before any postfix operator of lower precedence that
+		 * precedes it, so {@code 3!%} is {@code (3%)!}, just as with the shunting-yard conversion this replaced.
+		 */
+		private Expression parsePostfixOperators(Expression operand) {
+			int size = 0;
+			while(pos < count && types[pos] == OPERATOR && isPostfixOperator(text[starts[pos]])) {
+				final char op = text[starts[pos++]];
+				while(size > 0 && (unaryPrecedence[postfix[size - 1]] > unaryPrecedence[op] ||
+						unaryPrecedence[postfix[size - 1]] == unaryPrecedence[op] && unaryAssociativities[op].isLeft()))
+					operand = makeUnary(postfix[--size], operand);
+				if(size == postfix.length)
+					postfix = Arrays.copyOf(postfix, size * 2);
+				postfix[size++] = op;
 			}
+			while(size > 0)
+				operand = makeUnary(postfix[--size], operand);
+			return operand;
 		}
-		assert token.getType() == TokenType.UNARY_OPERATOR || token.getType() == TokenType.BINARY_OPERATOR;
+		
+		/** Consumes a token of the given type, or records an error of the given kind and returns {@code false} if the next token is not of that type. */
+		private boolean expect(final int type, final ParseResult.ErrorKind kind) {
+			if(pos == count || types[pos] != type) {
+				fail(kind, pos == count ? length : starts[pos], ParseResult.NO_CHARACTER);
+				return false;
+			}
+			pos++;
+			return true;
+		}
+		
+		/** Returns the character of the token at {@code index}, or {@link ParseResult#NO_CHARACTER} if it is a typed operand. */
+		private int tokenCharacter(final int index) {
+			return types[index] == OPERAND ? ParseResult.NO_CHARACTER : text[starts[index]];
+		}
+		
+		/**
+		 * Records an error of the given kind at {@code index} in {@link #text}, unless an error has already been recorded, and returns
+		 * {@code null}.
+		 */
+		private Expression fail(final ParseResult.ErrorKind kind, final int index, final int character) {
+			if(errorKind == null) {
+				errorKind = kind;
+				errorIndex = index;
+				errorCharacter = character;
+			}
+			return null;
+		}
+		
 	}
 	
-	/**<p>Given the list of tokens and the index of a token that is an absolute value bar, this method
-	 * figures out whether it is an opening or closing absolute value bar and updates its {@link TokenType type} (via {@link Token#setType(TokenType)}) accordingly.</p>
-	 * <p>Precondition: {@code tokens.get(i).getType() == TokenType.ABSOULTE_VALUE_BAR}</p>
-	 */
-	private static void figureOutTypeOfAbsoluteValueBar(List<Token> tokens, int i) {
-		Token token = tokens.get(i);
-		assert token.getType() == TokenType.ABSOLUTE_VALUE_BAR;
-		if(i == 0)
-			token.setType(TokenType.OPEN_ABSOLUTE_VALUE_BAR);
-		else if(i == tokens.size() - 1)
-			token.setType(TokenType.CLOSE_ABSOLUTE_VALUE_BAR);
-		else {
-			Token prev = tokens.get(i - 1);
-			switch(prev.getType()) {
-			case OPEN_ABSOLUTE_VALUE_BAR, OPEN_PARENTHESIS, BINARY_OPERATOR -> token.setType(TokenType.OPEN_ABSOLUTE_VALUE_BAR);
-			case CLOSE_ABSOLUTE_VALUE_BAR, CLOSE_PARENTHESIS, NUMBER -> token.setType(TokenType.CLOSE_ABSOLUTE_VALUE_BAR);
-			case UNARY_OPERATOR -> {
-				if(isLeftAssociativeUnaryOperator(prev)) {
-					token.setType(TokenType.CLOSE_ABSOLUTE_VALUE_BAR);
-				}
-				else {
-					token.setType(TokenType.OPEN_ABSOLUTE_VALUE_BAR);
-				}
+	/*
+	public static void main(String[] args) {
+		String[] tests = {"4/3*2-1+100", "3*-4^2", "3-(-3)+4(2)", "2+((3)(2)(--1))"};
+//		System.out.println("RUNNING TESTS:");
+//		for(int i = 0; i < tests.length; i++) {
+//			final String test = tests[i];
+//			System.out.printf("%nTest result %d: %s%n%n", i, evalString(test));
+//		}
+		Scanner in = new Scanner(System.in);
+		while(true) {
+			try {
+				System.out.println("RESULT: " + evaluateAsComplex(in.nextLine()));
 			}
-			default -> throw new IllegalArgumentException("Invalid Expression: " + prev.getType());
+			catch(Exception e) {
+				System.out.println("Error occured while parsing your input.");
+				e.printStackTrace();
 			}
 		}
-		assert token.getType() == TokenType.CLOSE_ABSOLUTE_VALUE_BAR || token.getType() == TokenType.OPEN_ABSOLUTE_VALUE_BAR;
 	}
+	*/
 	
-	private static int endOfComplexNumber(final String str, final int startIndex) {
-		if(str.charAt(startIndex) == 'i') {
-			return startIndex + 1;
+	/**
+	 * <p>A parsed expression that can be evaluated any number of times without being parsed again. {@code CompiledExpressions} are immutable and
+	 * may be shared between threads. They are obtained from {@link Evaluator#compile(String)}.</p>
+	 */
+	public static final class CompiledExpression {
+		
+		private final String expression;
+		private final Expression tree;
+		private final boolean integral;
+		private final int guardDigits;
+		
+		private CompiledExpression(final String expression, final Expression tree) {
+			this.expression = expression;
+			this.tree = tree;
+			this.integral = tree.isIntegral();
+			this.guardDigits = tree.guardDigits();
 		}
-		int ind = startIndex;
-		boolean decimalPointFound = false;
-		if(isDecimalPoint(str.charAt(ind))) {
-			decimalPointFound = true;
-			ind++;
+		
+		/** Returns the normalized (whitespace-free) text this {@link CompiledExpression} was compiled from. */
+		public String expression() {
+			return expression;
 		}
-		while(ind < str.length()) {
-			if(isDecimalPoint(str.charAt(ind))) {
-				if(decimalPointFound)
-					return -1;
-				decimalPointFound = true;
-				ind++;
+		
+		public Complex evaluateAsComplex() {
+			return evaluateAsComplex(DEFAULT_RESULT_CONTEXT);
+		}
+		
+		/**
+		 * <p>Evaluates this expression, rounding the result with {@code resultContext}. If the expression is {@link #isIntegral() integral}, it is
+		 * first evaluated using {@code long} arithmetic; the general {@link Complex} evaluation is only used if that overflows or produces
+		 * a non-integer intermediate result. Both paths produce the same value, since {@code long} intermediates are always exactly representable
+		 * in the intermediate {@link MathContext}.</p>
+		 * 
+		 * <p>The general evaluation rounds its intermediate results to the {@link #workingContext(MathContext) working context} for
+		 * {@code resultContext}, so a result with few digits (such as the answer to an approximation problem) is computed with few digits. If terms
+		 * of a sum cancel so that the working context does not leave enough correct digits, the expression is evaluated again with the
+		 * intermediate {@code MathContext}, so the result is never less accurate than one computed entirely with the intermediate
+		 * {@code MathContext}.</p>
+		 */
+		public Complex evaluateAsComplex(final MathContext resultContext) {
+			if(integral) {
+				try {
+					return new Complex(BigDecimal.valueOf(tree.evalLong()).round(resultContext));
+				}
+				catch(ArithmeticException ex) {
+					//fall through to the general evaluation.
+				}
 			}
-			else if(isDigit(str.charAt(ind))) {
-				ind++;
+			try {
+				return tree.eval(workingContext(resultContext)).round(resultContext);
 			}
-			else {
-				break;
+			catch(PrecisionLossException ex) {
+				return tree.eval(INTERMEDIATE_MATH_CONTEXT).round(resultContext);
 			}
 		}
-		if(ind < str.length()) {
-			if(str.charAt(ind) == 'i') {
-				ind++;
+		
+		/**
+		 * Returns the {@link MathContext} to which intermediate results are rounded when this expression is evaluated with {@code resultContext}.
+		 * Its precision is the precision of {@code resultContext} plus the {@link Expression#guardDigits() guard digits} of this expression and a
+		 * small safety margin. Results with at least the precision of {@link Evaluator#DEFAULT_RESULT_CONTEXT} (or with unlimited precision) are
+		 * never computed with less than the intermediate {@code MathContext}.
+		 */
+		public MathContext workingContext(final MathContext resultContext) {
+			final int resultPrecision = resultContext.getPrecision();
+			if(resultPrecision == 0)
+				return INTERMEDIATE_MATH_CONTEXT;
+			final int precision = resultPrecision + guardDigits + SAFETY_DIGITS;
+			if(resultPrecision >= DEFAULT_RESULT_CONTEXT.getPrecision())
+				return precision <= INTERMEDIATE_MATH_CONTEXT.getPrecision() ? INTERMEDIATE_MATH_CONTEXT : new MathContext(precision, RoundingMode.HALF_UP);
+			return precision < INTERMEDIATE_MATH_CONTEXT.getPrecision() ? contextWithPrecision(precision) : INTERMEDIATE_MATH_CONTEXT;
+		}
+		
+		/**
+		 * Returns {@code true} if this expression contains only integer literals and the operators {@code +}, {@code -}, {@code *}, {@code ^},
+		 * {@code !}, and absolute value, and its value (along with every intermediate value) fits in a {@code long}. Such an expression is
+		 * evaluated on {@code longs}.
+		 */
+		public boolean isIntegral() {
+			return integral;
+		}
+		
+		public BigDecimal evaluateAsBigDecimalExact() {
+			return evaluateAsComplex().bigDecimalValueExact();
+		}
+		
+		/** Evaluates this expression as by {@link #evaluateAsComplex(MathContext)} and returns the result as a {@link BigDecimal}. */
+		public BigDecimal evaluateAsBigDecimalExact(final MathContext resultContext) {
+			return evaluateAsComplex(resultContext).bigDecimalValueExact();
+		}
+		
+		/**
+		 * Evaluates this expression exactly using {@link BigFraction} arithmetic. Unlike {@link #evaluateAsComplex()}, the result is never rounded.
+		 * If the expression is {@link #isIntegral() integral}, it is first evaluated using {@code long} arithmetic.
+		 * @throws ArithmeticException if the expression does not have a rational value, such as when it involves an imaginary number or a
+		 * non-integer exponent, or if it divides by zero.
+		 */
+		public BigFraction evaluateAsFraction() {
+			if(integral) {
+				try {
+					return BigFraction.of(tree.evalLong(), 1);
+				}
+				catch(ArithmeticException ex) {
+					//fall through to the general evaluation.
+				}
+			}
+			return tree.evalFraction();
+		}
+		
+		public long evaluateAsLongExact() {
+			if(integral) {
+				try {
+					final long result = tree.evalLong();
+					if(Math.abs(result) < LONG_EXACT_BOUND) //otherwise the result would have been rounded by DEFAULT_RESULT_CONTEXT.
+						return result;
+				}
+				catch(ArithmeticException ex) {
+					//fall through to the general evaluation.
+				}
 			}
+			return evaluateAsComplex().longValueExact();
 		}
-		return ind;
+		
+		@Override
+		public String toString() {
+			return tree.toString();
+		}
+		
 	}
 	
+	private static final ExpressionCache CACHE = new ExpressionCache();
+	
 	/**
-	 * Converts the {@link List} of infix {@link Token Tokens} to a list of postfix tokens. A token with the type of {@link TokenType#ABSOLUTE_VALUE_BAR}
-	 * in the returned list should be treated, when the postfix tokens are being evaluated, as a unary operator that takes the absolute value of the previous number.
-	 * @param infixTokens
-	 * @return
+	 * Returns the {@link ExpressionCache} used by {@link #compile(String)}.
 	 */
-	private static List<Token> toPostfix(List<Token> infixTokens) {
-		List<Token> postfixTokens = new ArrayList<>();
-		Stack<Token> opStack = new Stack<>();
-		for(Token token : infixTokens) {
-			switch(token.getType()) {
-			case NUMBER -> postfixTokens.add(token);
-			case OPEN_PARENTHESIS, OPEN_ABSOLUTE_VALUE_BAR -> opStack.push(token);
-			case UNARY_OPERATOR, BINARY_OPERATOR -> {
-				while(!opStack.isEmpty() && !opStack.peek().getType().isOpeningSeparator() && 
-					(
-						precedenceOfOperator(opStack.peek()) > precedenceOfOperator(token) ||
-						(precedenceOfOperator(opStack.peek()) == precedenceOfOperator(token) && isLeftAssociative(token))
-					)
-				) {
-					postfixTokens.add(opStack.pop());
-				}
-				opStack.push(token);
-			}
-			case CLOSE_PARENTHESIS -> {
-				while(opStack.peek().getType() != TokenType.OPEN_PARENTHESIS)
-					postfixTokens.add(opStack.pop());
-				opStack.pop();
-			}
-			case CLOSE_ABSOLUTE_VALUE_BAR -> {
-				while(opStack.peek().getType() != TokenType.OPEN_ABSOLUTE_VALUE_BAR)
-					postfixTokens.add(opStack.pop());
-				opStack.pop();
-				postfixTokens.add(new Token("|", TokenType.ABSOLUTE_VALUE_BAR));
-			}
-			default -> throw new IllegalArgumentException("Invalid Expression");
-			}
-		}
-		while(!opStack.isEmpty())
-			postfixTokens.add(opStack.pop());
-		return postfixTokens;
+	public static ExpressionCache cache() {
+		return CACHE;
 	}
 	
 	/**
-	 * @param postfixTokens
-	 * @return
+	 * Returns a {@link CompiledExpression} for the given expression. Whitespace in the expression is ignored. If an equivalent expression has been
+	 * compiled recently, the cached {@code CompiledExpression} is returned and the expression is not parsed again.
+	 * @throws IllegalArgumentException if the expression is invalid.
 	 */
-	private static Expression makeTree(List<Token> postfixTokens) {
-		Stack<Expression> stack = new Stack<>();
-		for(Token token : postfixTokens) {
-			switch(token.getType()) {
-			case NUMBER -> stack.push(new ConstantExpression(new Complex(token.getRepresentation())));
-			case ABSOLUTE_VALUE_BAR -> stack.push(new AbsoluteValueOperator(stack.pop()));
-			case BINARY_OPERATOR -> {
-				Expression b = stack.pop(), a = stack.pop();
-				stack.push(fromOp(token, a, b));
-			}
-			case UNARY_OPERATOR -> stack.push(fromOp(token, stack.pop()));
-			default -> throw new IllegalArgumentException("Invalid expression");
-			}
-		}
-		if(stack.size() != 1)
-			throw new IllegalArgumentException("Invalid expression, Postfix tokens were: " + postfixTokens);
-		return stack.pop();
+	public static CompiledExpression compile(final String expression) {
+		return CACHE.get(normalize(expression), normalized -> parseUncached(expression, normalized).orElseThrow());
 	}
 	
-	private static int precedenceOfOperator(final Token token) {
-		if(token.getType() == TokenType.UNARY_OPERATOR)
-			return precedenceOfUnaryOperator(token);
-		else if(token.getType() == TokenType.BINARY_OPERATOR)
-			return precedenceOfBinaryOperator(token);
-		throw new IllegalArgumentException("The given token is not an operator");
+	/**
+	 * Parses the given expression without throwing an exception if it is invalid. Whitespace in the expression is ignored. If the expression is
+	 * valid, the returned {@link ParseResult} holds the same {@link CompiledExpression} that {@link #compile(String)} would return, and it is
+	 * cached in the same way; otherwise, it describes the first error in the expression. This is the preferred way to validate user input.
+	 */
+	public static ParseResult parse(final String expression) {
+		final String normalized = normalize(expression);
+		final CompiledExpression cached = CACHE.getIfPresent(normalized);
+		if(cached != null)
+			return ParseResult.success(cached);
+		final ParseResult result = parseUncached(expression, normalized);
+		if(result.isValid())
+			CACHE.put(normalized, result.expression());
+		return result;
 	}
 	
-	private static int precedenceOfUnaryOperator(final Token token) {
-		return unaryPrecedence.get(token.getRepresentation());
+	/** Returns {@code true} if the given expression is valid. Equivalent to {@code parse(expression).isValid()}. */
+	public static boolean isValid(final String expression) {
+		return parse(expression).isValid();
 	}
 	
-	private static int precedenceOfBinaryOperator(final Token token) {
-		return binaryPrecedence.get(token.getRepresentation());
+	private static String normalize(final String expression) {
+		for(int i = 0; i < expression.length(); i++)
+			if(isWhitespace(expression.charAt(i)))
+				return WHITESPACE.matcher(expression).replaceAll("");
+		return expression;
 	}
 	
-	private static boolean isDigit(char c) {
-		return c >= '0' && c <= '9';
+	private static Expression makeUnary(final char op, final Expression operand) {
+		return foldIfConstant(unaryFactories[op].apply(operand), operand);
 	}
 	
-	private static boolean isDecimalPoint(char c) {
-		return c == DECIMAL_POINT;
+	private static Expression makeBinary(final char op, final Expression left, final Expression right) {
+		final Expression result = binaryFactories[op].apply(left, right);
+		return isConstant(left) && isConstant(right) ? fold(result) : result;
 	}
 	
-	/**
-	 * @throws IllegalArgumentException if the operator denoted by {@code operatorAsString} could not be a unary operator.
-	 */
-	private static boolean wouldBeRightAssociativeIfItWereAUnaryOperator(String operatorAsString) {
-		if(unaryAssociativities.containsKey(operatorAsString))
-			return unaryAssociativities.get(operatorAsString).isRight();
-		throw new IllegalArgumentException(operatorAsString + " could not be a unary operator");
+	/** Returns a {@link SumExpression} or {@link ProductExpression} of the first {@code size} operands, folded if they are all constant. */
+	private static Expression makeChain(final int chain, final Expression[] operands, final boolean[] inverted, final int size) {
+		final Expression[] os = Arrays.copyOf(operands, size);
+		final boolean[] is = Arrays.copyOf(inverted, size);
+		final Expression result = chain == SUM_CHAIN ? new SumExpression(os, is) : new ProductExpression(os, is);
+		for(Expression operand : os)
+			if(!isConstant(operand))
+				return result;
+		return fold(result);
+	}
+	
+	private static Expression foldIfConstant(final Expression expr, final Expression operand) {
+		return isConstant(operand) ? fold(expr) : expr;
+	}
+	
+	private static boolean isConstant(final Expression expr) {
+		return expr instanceof ConstantExpression || expr instanceof FoldedExpression;
 	}
 	
 	/**
-	 * @throws IllegalArgumentException if the operator denoted by {@code operatorAsString} could not be a unary operator.
+	 * Returns a {@link FoldedExpression} for {@code expr}, whose operands must all be {@link #isConstant(Expression) constant}. If {@code expr} is
+	 * {@link Expression#isIntegral() integral}, its {@code long} value is computed now; otherwise (or if that overflows), its value is computed
+	 * when it is first evaluated, so that it is only computed with the precision the evaluation needs. If it cannot be evaluated (for example,
+	 * because it divides by zero), the evaluation fails in the same way it would have without folding.
 	 */
-	private static boolean wouldBeLeftAssociativeIfItWereAUnaryOperator(String operatorAsString) {
-		if(unaryAssociativities.containsKey(operatorAsString))
-			return unaryAssociativities.get(operatorAsString).isLeft();
-		throw new IllegalArgumentException(operatorAsString + " could not be a unary operator");
+	private static Expression fold(final Expression expr) {
+		if(expr.isIntegral()) {
+			try {
+				return new FoldedExpression(expr, expr.evalLong());
+			}
+			catch(ArithmeticException ex) {
+				//fold the Complex value instead.
+			}
+		}
+		return new FoldedExpression(expr);
 	}
 	
-	private static boolean isLeftAssociative(Token token) {
-		return 	isLeftAssociativeBinaryOperator(token) || isLeftAssociativeUnaryOperator(token);
+	/** Parses {@code expression}, whose normalized form is {@code normalizedExpression}, without consulting the {@link #cache() cache}. */
+	private static ParseResult parseUncached(final String expression, final String normalizedExpression) {
+		final Parser parser = Parser.get();
+		parser.appendText(expression);
+		final Expression tree = parser.parse();
+		return tree == null ? parser.failure() : ParseResult.success(new CompiledExpression(normalizedExpression, tree));
 	}
-
-	private static boolean isLeftAssociativeUnaryOperator(Token token) {
-		return token.getType() == TokenType.UNARY_OPERATOR && unaryAssociativities.get(token.getRepresentation()).isLeft();
+	
+	/**
+	 * <p>Returns a {@link CompiledExpression} for an expression given as a sequence of parts. Each part must be one of:</p>
+	 * <ul>
+	 * <li>a {@link String}, which is treated as expression text (operators, parentheses, or numbers)</li>
+	 * <li>a {@link BigInteger}, {@link BigDecimal}, {@link BigFraction}, or {@link MixedNumber}, which is a single real operand whose exact value is
+	 * kept, so that {@link CompiledExpression#evaluateAsFraction()} can be used</li>
+	 * <li>a {@link Complex}, which is a single operand</li>
+	 * </ul>
+	 * <p>Typed operands are used directly and are never converted to text and parsed again. The result is not cached. The index reported for an
+	 * invalid expression counts only the characters of the {@code String} parts.</p>
+	 * @throws IllegalArgumentException if the expression is invalid or if a part is not of one of the above types.
+	 */
+	public static CompiledExpression compile(final List<?> parts) {
+		final Parser parser = Parser.get();
+		final StringBuilder text = new StringBuilder();
+		for(Object part : parts) {
+			if(part instanceof String) {
+				parser.appendText((String) part);
+				text.append(normalize((String) part));
+			}
+			else {
+				final Expression operand = operandFor(part);
+				parser.appendOperand(operand);
+				text.append(operand);
+			}
+		}
+		final Expression tree = parser.parse();
+		if(tree == null)
+			throw parser.failure().toException();
+		return new CompiledExpression(text.toString(), tree);
 	}
-
-	private static boolean isLeftAssociativeBinaryOperator(Token token) {
-		return token.getType() == TokenType.BINARY_OPERATOR && binaryAssociativities.get(token.getRepresentation()).isLeft();
+	
+	private static Expression operandFor(final Object part) {
+		if(part instanceof BigFraction)
+			return new ConstantExpression((BigFraction) part);
+		if(part instanceof MixedNumber)
+			return new ConstantExpression(((MixedNumber) part).toFraction());
+		if(part instanceof BigInteger)
+			return new ConstantExpression(BigFraction.of((BigInteger) part, BigInteger.ONE));
+		if(part instanceof BigDecimal)
+			return new ConstantExpression(BigFraction.from((BigDecimal) part));
+		if(part instanceof Complex)
+			return new ConstantExpression((Complex) part);
+		throw new IllegalArgumentException("Unsupported operand: " + part);
 	}
 	
-	private static boolean isRightAssociative(Token token) {
-		return 	isRightAssociativeBinaryOperator(token) ||
-				isRightAssociativeUnaryOperator(token);
+	public static Complex evaluateAsComplex(final String expression) {
+		return evaluateAsComplex(expression, DEFAULT_RESULT_CONTEXT);
 	}
-
-	private static boolean isRightAssociativeUnaryOperator(Token token) {
-		return token.getType() == TokenType.UNARY_OPERATOR && unaryAssociativities.get(token.getRepresentation()).isRight();
+	
+	public static Complex evaluateAsComplex(final String expression, final MathContext resultContext) {
+		return compile(expression).evaluateAsComplex(resultContext);
 	}
 
-	private static boolean isRightAssociativeBinaryOperator(Token token) {
-		return token.getType() == TokenType.BINARY_OPERATOR && binaryAssociativities.get(token.getRepresentation()).isRight();
-	}
-	
-	private static boolean isOperator(final String s) {
-		final boolean result = isBinaryOperator(s) || isUnaryOperator(s);
-//		System.out.printf("\tisOperator(%s) == %b%n", s, result);
-		return result;
+	/**
+	 * Evaluates each of the given expressions as by {@link #evaluateAsComplex(String)}. See {@link #evaluateAll(List, Function)}.
+	 */
+	public static BatchResult<Complex> evaluateAll(final List<String> expressions) {
+		return evaluateAll(expressions, CompiledExpression::evaluateAsComplex);
 	}
 	
-	private static boolean isBinaryOperator(final String s) {
-		return binaryPrecedence.containsKey(s);
+	/**
+	 * <p>Compiles each of the given expressions and applies {@code evaluation} to it (for example, {@code CompiledExpression::evaluateAsBigDecimalExact}).
+	 * The expressions are processed in parallel on the common {@link java.util.concurrent.ForkJoinPool ForkJoinPool}; each worker thread parses with
+	 * its own reusable buffers.</p>
+	 * 
+	 * <p>No exception is thrown for an expression that is invalid or cannot be evaluated; the failure is recorded in the returned {@link BatchResult}
+	 * instead. Invalid expressions are detected as by {@link #parse(String)}, so the parser itself never throws, and no exception is created for
+	 * them unless {@link BatchResult#failure(int)} is called. The expressions are not added to the {@link #cache() cache}, since a large batch
+	 * would evict everything else from it, and so that the workers do not contend for its lock.</p>
+	 */
+	public static <T> BatchResult<T> evaluateAll(final List<String> expressions, final Function<? super CompiledExpression, ? extends T> evaluation) {
+		final String[] array = expressions.toArray(new String[0]);
+		final Object[] values = new Object[array.length];
+		final ParseResult[] parseFailures = new ParseResult[array.length];
+		final RuntimeException[] evaluationFailures = new RuntimeException[array.length];
+		IntStream.range(0, array.length).parallel().forEach(i -> {
+			final ParseResult parsed = parseUncached(array[i], normalize(array[i]));
+			if(!parsed.isValid()) {
+				parseFailures[i] = parsed; //the exception is only created if it is asked for.
+				return;
+			}
+			try {
+				values[i] = evaluation.apply(parsed.expression());
+			}
+			catch(RuntimeException ex) {
+				evaluationFailures[i] = ex;
+			}
+		});
+		return new BatchResult<>(values, parseFailures, evaluationFailures);
 	}
 	
-	private static boolean isUnaryOperator(final String s) {
-		return unaryPrecedence.containsKey(s);
+	public static BigDecimal evaluateAsBigDecimalExact(final String expression) {
+		return compile(expression).evaluateAsBigDecimalExact();
 	}
 	
-	private static Integer getBinaryPrecedence(final String op) {
-		return binaryPrecedence.get(op);
+	/**
+	 * Evaluates the given expression, rounding the result with {@code resultContext}. Intermediate results are computed with only as many digits
+	 * as {@code resultContext} requires; see {@link CompiledExpression#workingContext(MathContext)}.
+	 */
+	public static BigDecimal evaluateAsBigDecimalExact(final String expression, final MathContext resultContext) {
+		return compile(expression).evaluateAsBigDecimalExact(resultContext);
 	}
 	
-	private static Integer getUnaryPrecedence(final String op) {
-		return unaryPrecedence.get(op);
+	/** Evaluates the given expression as by {@link CompiledExpression#evaluateAsLongExact()}. */
+	public static long evaluateAsLongExact(final String expression) {
+		return compile(expression).evaluateAsLongExact();
 	}
 	
-	private static boolean isGroupingSeparator(String s) {
-		return isParenthesis(s) || isAbsoluteValueBar(s);
+	/**
+	 * Evaluates the given expression exactly. See {@link CompiledExpression#evaluateAsFraction()}.
+	 * @throws IllegalArgumentException if the expression is invalid.
+	 * @throws ArithmeticException if the expression does not have a rational value.
+	 */
+	public static BigFraction evaluateAsFraction(final String expression) {
+		return compile(expression).evaluateAsFraction();
 	}
-	
-	private static boolean isAbsoluteValueBar(String s) {
-		return "|".equals(s);
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
 	}
 	
-	private static boolean isParenthesis(String s) {
-		return isOpenParenthesis(s) || isCloseParenthesis(s);
+	private static boolean isDecimalPoint(char c) {
+		return c == DECIMAL_POINT;
 	}
 	
-	private static boolean isOpenParenthesis(String s) {
-		return "(".equals(s);
+	/** Returns {@code true} if {@code c} is matched by the regex {@code \\s}. */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
 	}
 	
-	private static boolean isCloseParenthesis(String s) {
-		return ")".equals(s);
+	private static boolean isOperator(char c) {
+		return c < OPERATOR_TABLE_SIZE && (binaryPrecedence[c] != 0 || unaryPrecedence[c] != 0);
 	}
 	
-	
-	private static UnaryOperator fromOp(final Token operator, final Expression expr) {
-		return unaryFactories.get(operator.getRepresentation()).apply(expr);
+	private static boolean isPrefixOperator(char c) {
+		return unaryPrecedence[c] != 0 && unaryAssociativities[c].isRight();
 	}
 	
-	private static BinaryOperator fromOp(final Token operator, final Expression left, final Expression right) {
-		return binaryFactories.get(operator.getRepresentation()).apply(left, right);
+	private static boolean isPostfixOperator(char c) {
+		return unaryPrecedence[c] != 0 && unaryAssociativities[c].isLeft();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package math;
+
+import java.util.*;
+import java.util.function.Function;
+
+import math.Evaluator.CompiledExpression;
+
+/**
+ * <p>A bounded, least-recently-used cache of {@link CompiledExpression CompiledExpressions} keyed by their normalized expression text (the text with
+ * all whitespace removed). The cache is bounded both by the number of entries and by the total length of the keys, which is used as a rough measure of
+ * the size of the compiled trees. When either bound is exceeded, the least recently used entries are evicted.</p>
+ *
+ * <p>The cache keeps counts of hits, misses, and evictions so that its bounds can be tuned. All methods are safe for use by multiple concurrent threads.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class ExpressionCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+	public static final int DEFAULT_MAX_WEIGHT = 1 << 16;
+
+	private final LinkedHashMap<String, CompiledExpression> map;
+	private int maxEntries, maxWeight;
+	private long weight, hits, misses, evictions;
+
+	/**
+	 * Creates an empty {@link ExpressionCache} with a maximum of {@link #DEFAULT_MAX_ENTRIES} entries and a maximum total key length of
+	 * {@link #DEFAULT_MAX_WEIGHT}.
+	 */
+	public ExpressionCache() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if {@code maxEntries < 0} or {@code maxWeight < 0}.
+	 */
+	public ExpressionCache(final int maxEntries, final int maxWeight) {
+		ensureValidBounds(maxEntries, maxWeight);
+		this.map = new LinkedHashMap<>(16, 0.75f, true);
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+	}
+
+	private static void ensureValidBounds(final int maxEntries, final int maxWeight) {
+		if(maxEntries < 0)
+			throw new IllegalArgumentException("maxEntries < 0");
+		if(maxWeight < 0)
+			throw new IllegalArgumentException("maxWeight < 0");
+	}
+
+	/**
+	 * Returns the {@link CompiledExpression} cached under {@code normalizedExpression}, compiling it with {@code compiler} and caching the result
+	 * if it is not present. Any exception thrown by {@code compiler} is propagated and nothing is cached.
+	 */
+	CompiledExpression get(final String normalizedExpression, final Function<String, CompiledExpression> compiler) {
+		final CompiledExpression cached = getIfPresent(normalizedExpression);
+		if(cached != null)
+			return cached;
+		return put(normalizedExpression, compiler.apply(normalizedExpression)); //compile outside the lock so other threads are not blocked
+	}
+	
+	/** Returns the {@link CompiledExpression} cached under {@code normalizedExpression}, or {@code null}. Counts a hit or a miss. */
+	synchronized CompiledExpression getIfPresent(final String normalizedExpression) {
+		final CompiledExpression cached = map.get(normalizedExpression);
+		if(cached != null)
+			hits++;
+		else
+			misses++;
+		return cached;
+	}
+	
+	/**
+	 * Caches {@code compiled} under {@code normalizedExpression} unless another thread has already done so, and returns the cached
+	 * {@link CompiledExpression}.
+	 */
+	synchronized CompiledExpression put(final String normalizedExpression, final CompiledExpression compiled) {
+		final CompiledExpression raced = map.putIfAbsent(normalizedExpression, compiled);
+		if(raced != null)
+			return raced;
+		weight += normalizedExpression.length();
+		trim();
+		return compiled;
+	}
+
+	/** Evicts least recently used entries until both bounds are satisfied. Must be called while holding the lock. */
+	private void trim() {
+		for(Iterator<Map.Entry<String, CompiledExpression>> itr = map.entrySet().iterator(); itr.hasNext() && (map.size() > maxEntries || weight > maxWeight);) {
+			weight -= itr.next().getKey().length();
+			itr.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Sets the bounds of this {@link ExpressionCache}, evicting entries immediately if the new bounds are exceeded.
+	 * @throws IllegalArgumentException if {@code maxEntries < 0} or {@code maxWeight < 0}.
+	 */
+	public synchronized void setBounds(final int maxEntries, final int maxWeight) {
+		ensureValidBounds(maxEntries, maxWeight);
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+		trim();
+	}
+
+	/** Removes all entries from this {@link ExpressionCache}. Does not reset the counters and does not count the removed entries as evictions. */
+	public synchronized void clear() {
+		map.clear();
+		weight = 0;
+	}
+
+	/** Resets the {@link #hits()}, {@link #misses()}, and {@link #evictions()} counters to zero. */
+	public synchronized void resetCounters() {
+		hits = misses = evictions = 0;
+	}
+
+	public synchronized int size() {
+		return map.size();
+	}
+
+	/** Returns the sum of the lengths of all the normalized expressions currently in this {@link ExpressionCache}. */
+	public synchronized long weight() {
+		return weight;
+	}
+
+	public synchronized int maxEntries() {
+		return maxEntries;
+	}
+
+	public synchronized int maxWeight() {
+		return maxWeight;
+	}
+
+	public synchronized long hits() {
+		return hits;
+	}
+
+	public synchronized long misses() {
+		return misses;
+	}
+
+	public synchronized long evictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("ExpressionCache[size=%d, weight=%d, hits=%d, misses=%d, evictions=%d]", map.size(), weight, hits, misses, evictions);
+	}
+
+}
@@ -1,12 +1,18 @@
 package math;
 
-import java.util.*;
+import java.math.*;
 import java.util.function.BinaryOperator;
 
 /**
- * An fibonacci-like {@link Sequence} of {@link Complex} numbers. A "fibonacci-like" sequence is {@link #FibSequence(Complex, Complex) constructed}
+ * <p>An fibonacci-like {@link Sequence} of {@link Complex} numbers. A "fibonacci-like" sequence is {@link #FibSequence(Complex, Complex) constructed}
  * by providing the first and second term.
- * Each term after the second is equal to the sum of the previous two terms.
+ * Each term after the second is equal to the sum of the previous two terms.</p>
+ * 
+ * <p>Terms and sums are computed on demand from the Fibonacci numbers, using the identities <i>G(n) = G(1)F(n-2) + G(2)F(n-1)</i> and
+ * <i>G(1) + ... + G(n) = G(n+2) - G(2)</i>, where <i>G</i> is this sequence and <i>F</i> is the Fibonacci sequence. Fibonacci numbers that fit in a
+ * {@code long} are looked up, and larger ones are computed by fast doubling, so any term or sum takes O(log(n)) multiplications and
+ * {@code FibSequences} use constant memory. If both seeds are integers that fit in a {@code long}, terms and sums are computed with {@code long}
+ * arithmetic when they fit.</p>
  * @author Sam Hooper
  *
  */
@@ -14,20 +20,114 @@ public class FibSequence implements SummableSequence<Complex> {
 	
 	public static final BinaryOperator<Complex> SUM_FUNCTION = Complex::add;
 	
+	/** The largest {@code n} for which the {@code n}th Fibonacci number fits in a {@code long}. */
+	private static final int MAX_LONG_FIBONACCI = 92;
+	/** {@code FIBONACCI[n]} is the {@code n}th Fibonacci number, where {@code FIBONACCI[0] == 0} and {@code FIBONACCI[1] == 1}. */
+	private static final long[] FIBONACCI = new long[MAX_LONG_FIBONACCI + 1];
+	/** Integers with at most this many digits always fit in a {@code long}. */
+	private static final int MAX_SAFE_LONG_DIGITS = 18;
+	
+	static {
+		FIBONACCI[1] = 1;
+		for(int i = 2; i < FIBONACCI.length; i++)
+			FIBONACCI[i] = FIBONACCI[i - 1] + FIBONACCI[i - 2];
+	}
+	
 	private final Complex first, second;
-	private final ArrayList<Complex> memoized;
+	/** {@code true} if {@link #first} and {@link #second} are integers that fit in a {@code long}, in which case they are stored in
+	 * {@link #longFirst} and {@link #longSecond}. */
+	private final boolean integral;
+	private final long longFirst, longSecond;
+	
 	public FibSequence(Complex first, Complex second) {
 		this.first = first;
 		this.second = second;
-		this.memoized = new ArrayList<>();
-		Collections.addAll(memoized, null, first, second);
+		this.integral = isSafeLong(first) && isSafeLong(second);
+		this.longFirst = integral ? first.longValueExact() : 0;
+		this.longSecond = integral ? second.longValueExact() : 0;
+	}
+	
+	private static boolean isSafeLong(final Complex c) {
+		if(!c.hasExactIntValue())
+			return false;
+		final BigDecimal real = c.realPart().stripTrailingZeros();
+		return real.signum() == 0 || real.precision() - real.scale() <= MAX_SAFE_LONG_DIGITS;
+	}
+	
+	/**
+	 * Returns the Fibonacci numbers <i>F(k)</i> and <i>F(k+1)</i>, where {@code k >= -1}. <i>F(-1)</i> is {@code 1}.
+	 */
+	private static BigInteger[] fibonacciPair(final int k) {
+		if(k < MAX_LONG_FIBONACCI)
+			return new BigInteger[] {BigInteger.valueOf(longFibonacci(k)), BigInteger.valueOf(longFibonacci(k + 1))};
+		//fast doubling: F(2m) = F(m)(2F(m+1) - F(m)) and F(2m+1) = F(m)^2 + F(m+1)^2.
+		BigInteger a = BigInteger.ZERO, b = BigInteger.ONE; //F(m), F(m+1), where m is the bits of k seen so far.
+		for(int bit = Integer.highestOneBit(k); bit != 0; bit >>>= 1) {
+			final BigInteger d = a.multiply(b.shiftLeft(1).subtract(a)), e = a.multiply(a).add(b.multiply(b));
+			if((k & bit) == 0) {
+				a = d;
+				b = e;
+			}
+			else {
+				a = e;
+				b = d.add(e);
+			}
+		}
+		return new BigInteger[] {a, b};
+	}
+	
+	/** Returns the Fibonacci number <i>F(k)</i>, where {@code -1 <= k <= }{@link #MAX_LONG_FIBONACCI}. */
+	private static long longFibonacci(final int k) {
+		return k < 0 ? 1 : FIBONACCI[k];
+	}
+	
+	/**
+	 * Returns the {@code n}th term, where {@code n} may be {@code n == 1} or {@code n == size() + 1}, and so is not checked.
+	 */
+	private Complex term(final int n) {
+		final int k = n - 2;
+		if(integral && k < MAX_LONG_FIBONACCI) {
+			final long exact = longTerm(k);
+			if(exact != Long.MIN_VALUE)
+				return Complex.valueOf(exact);
+		}
+		final BigInteger[] fib = fibonacciPair(k);
+		return first.multiply(new Complex(fib[0])).add(second.multiply(new Complex(fib[1])));
 	}
 	
+	/** Returns <i>G(1)F(k) + G(2)F(k+1)</i> if it fits in a {@code long} (other than {@link Long#MIN_VALUE}), or {@link Long#MIN_VALUE} otherwise. */
+	private long longTerm(final int k) {
+		final long x = longFirst * longFibonacci(k), y = longSecond * longFibonacci(k + 1), sum = x + y;
+		if(Math.multiplyHigh(longFirst, longFibonacci(k)) != x >> 63 || Math.multiplyHigh(longSecond, longFibonacci(k + 1)) != y >> 63 ||
+				((x ^ sum) & (y ^ sum)) < 0)
+			return Long.MIN_VALUE;
+		return sum;
+	}
+	
+	/**
+	 * @throws IllegalArgumentException if {@code n < 1}.
+	 */
 	@Override
 	public Complex nthTerm(int n) {
-		while(n >= memoized.size())
-			memoized.add(memoized.get(memoized.size() - 1).add(memoized.get(memoized.size() - 2)));
-		return memoized.get(n);
+		if(n < 1)
+			throw new IllegalArgumentException("n < 1");
+		return term(n);
+	}
+	
+	/**
+	 * Returns the {@link #nthTerm(int) nth term} as a {@code long}.
+	 * @throws IllegalArgumentException if {@code n < 1}.
+	 * @throws ArithmeticException if the term is not an integer or does not fit in a {@code long}.
+	 */
+	public long nthTermExact(int n) {
+		if(n < 1)
+			throw new IllegalArgumentException("n < 1");
+		if(integral && n - 2 < MAX_LONG_FIBONACCI) {
+			final long exact = longTerm(n - 2);
+			if(exact != Long.MIN_VALUE)
+				return exact;
+		}
+		return term(n).longValueExact();
 	}
 	
 	@Override
@@ -35,12 +135,54 @@ public class FibSequence implements SummableSequence<Complex> {
 		return -1;
 	}
 	
+	/**
+	 * Returns the sum of the terms from {@code startInclusive} to {@code endInclusive}, which is <i>G(endInclusive+2) - G(startInclusive+1)</i>.
+	 * Returns {@link Complex#ZERO} if {@code startInclusive > endInclusive}.
+	 * @throws IllegalArgumentException if {@code startInclusive < 1} or {@code endInclusive == Integer.MAX_VALUE}.
+	 */
 	@Override
 	public Complex sum(int startInclusive, int endInclusive) {
-		Complex total = Complex.ZERO;
-		for(int i = startInclusive; i <= endInclusive; i++)
-			total = total.add(nthTerm(i));
-		return total;
+		if(startInclusive > endInclusive)
+			return Complex.ZERO;
+		checkSumArguments(startInclusive, endInclusive);
+		if(integral) {
+			final long exact = longSum(startInclusive, endInclusive);
+			if(exact != Long.MIN_VALUE)
+				return Complex.valueOf(exact);
+		}
+		return term(endInclusive + 2).subtract(term(startInclusive + 1));
+	}
+	
+	/**
+	 * Returns the {@link #sum(int, int) sum} of the terms from {@code startInclusive} to {@code endInclusive} as a {@code long}.
+	 * @throws IllegalArgumentException if {@code startInclusive < 1} or {@code endInclusive == Integer.MAX_VALUE}.
+	 * @throws ArithmeticException if the sum is not an integer or does not fit in a {@code long}.
+	 */
+	public long sumExact(int startInclusive, int endInclusive) {
+		if(startInclusive > endInclusive)
+			return 0;
+		checkSumArguments(startInclusive, endInclusive);
+		if(integral) {
+			final long exact = longSum(startInclusive, endInclusive);
+			if(exact != Long.MIN_VALUE)
+				return exact;
+		}
+		return term(endInclusive + 2).subtract(term(startInclusive + 1)).longValueExact();
+	}
+	
+	private static void checkSumArguments(final int startInclusive, final int endInclusive) {
+		if(startInclusive < 1 || endInclusive > Integer.MAX_VALUE - 2)
+			throw new IllegalArgumentException(String.format("Invalid arguments: startInclusive=%d, endInclusive=%d", startInclusive, endInclusive));
+	}
+	
+	/** Returns the sum of the terms from {@code start} to {@code end} if it fits in a {@code long}, or {@link Long#MIN_VALUE} otherwise. */
+	private long longSum(final int start, final int end) {
+		if(end >= MAX_LONG_FIBONACCI)
+			return Long.MIN_VALUE;
+		final long high = longTerm(end), low = longTerm(start - 1), difference = high - low;
+		if(high == Long.MIN_VALUE || low == Long.MIN_VALUE || ((high ^ low) & (high ^ difference)) < 0)
+			return Long.MIN_VALUE;
+		return difference;
 	}
 
 	@Override
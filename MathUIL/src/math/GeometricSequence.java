@@ -84,6 +84,8 @@ public class GeometricSequence implements SummableSequence<BigFraction> {
 			throw new IllegalArgumentException(String.format("Invalid arguments: startInclusive=%d, endInclusive=%d", startInclusive, endInclusive));
 		final BigFraction a = nthTerm(startInclusive);
 		final int n = endInclusive - startInclusive + 1;
+		if(ratio.equals(BigFraction.ONE)) //1 - ratio is zero, and every term is a.
+			return a.multiply(BigFraction.of(n, 1));
 		return a.multiply(BigFraction.ONE.subtract(ratio.pow(n))).divide(BigFraction.ONE.subtract(ratio));
 	}
 
@@ -0,0 +1,353 @@
+package math;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * <p>A matrix of {@code longs}, stored in a single array in row-major order. Rows and columns are indexed starting from zero. Arithmetic is
+ * exact: every method that computes {@code longs} throws an {@link ArithmeticException} if a result overflows. {@code LongMatrix} objects are
+ * immutable.</p>
+ *
+ * <p>A {@code LongMatrix} can be converted to a {@link Matrix} with {@link #toMatrix()}, and a {@code Matrix} whose elements are all integers
+ * that fit in a {@code long} can be converted to a {@code LongMatrix} with {@link Matrix#toLongMatrix()}. Neither conversion loses
+ * information.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class LongMatrix {
+
+	/**
+	 * Returns a new {@link LongMatrix} of {@code rowCount} rows and {@code colCount} columns whose elements are {@code elements}, in row-major
+	 * order. The given array is defensively copied.
+	 * @throws IllegalArgumentException if {@code (rowCount <= 0 || colCount <= 0 || elements.length != rowCount * colCount)}.
+	 */
+	public static LongMatrix of(final int rowCount, final int colCount, final long... elements) {
+		ensureValidDimensions(rowCount, colCount);
+		if(elements.length != (long) rowCount * colCount)
+			throw new IllegalArgumentException("elements.length must be rowCount * colCount. Was: " + elements.length);
+		return new LongMatrix(rowCount, colCount, elements.clone());
+	}
+
+	/**
+	 * Returns a new {@link LongMatrix} of {@code rowCount} rows and {@code colCount} columns where each element is supplied by the given
+	 * {@link LongSupplier}. The elements are supplied in row-major order.
+	 * @throws IllegalArgumentException if {@code (rowCount <= 0 || colCount <= 0)}.
+	 */
+	public static LongMatrix from(final int rowCount, final int colCount, final LongSupplier elementSupplier) {
+		Objects.requireNonNull(elementSupplier);
+		ensureValidDimensions(rowCount, colCount);
+		final long[] elements = new long[Math.multiplyExact(rowCount, colCount)];
+		for(int i = 0; i < elements.length; i++)
+			elements[i] = elementSupplier.getAsLong();
+		return new LongMatrix(rowCount, colCount, elements);
+	}
+
+	/**
+	 * Returns the {@code n x n} identity matrix.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static LongMatrix identity(final int n) {
+		ensureValidDimensions(n, n);
+		final long[] elements = new long[Math.multiplyExact(n, n)];
+		for(int i = 0; i < n; i++)
+			elements[i * n + i] = 1;
+		return new LongMatrix(n, n, elements);
+	}
+
+	private static void ensureValidDimensions(final int rows, final int cols) {
+		if(rows <= 0)
+			throw new IllegalArgumentException("rows must be greater than 0. Was: " + rows);
+		if(cols <= 0)
+			throw new IllegalArgumentException("cols must be greater than 0. Was: " + cols);
+	}
+
+	/** Returns {@code true} if {@code a} and {@code b} have the same dimensions, {@code false} otherwise. */
+	public static boolean sameDimensions(final LongMatrix a, final LongMatrix b) {
+		return a.rowCount == b.rowCount && a.colCount == b.colCount;
+	}
+
+	private final int rowCount, colCount;
+	/** The elements in row-major order. */
+	private final long[] elements;
+
+	/** Does <b>not</b> defensively copy the array. */
+	LongMatrix(final int rowCount, final int colCount, final long[] elements) {
+		this.rowCount = rowCount;
+		this.colCount = colCount;
+		this.elements = elements;
+	}
+
+	/** Returns the element at row {@code row} and column {@code col}. */
+	public long get(final int row, final int col) {
+		return elements[Objects.checkIndex(row, rowCount) * colCount + Objects.checkIndex(col, colCount)];
+	}
+
+	public int rowCount() {
+		return rowCount;
+	}
+
+	public int colCount() {
+		return colCount;
+	}
+
+	public int elementCount() {
+		return elements.length;
+	}
+
+	public boolean isSquare() {
+		return rowCount == colCount;
+	}
+
+	/**
+	 * Returns a {@link LongMatrix} that is identical to this one, except that the element at row {@code row} and column {@code col} is
+	 * {@code value}.
+	 */
+	public LongMatrix with(final int row, final int col, final long value) {
+		final long[] result = elements.clone();
+		result[Objects.checkIndex(row, rowCount) * colCount + Objects.checkIndex(col, colCount)] = value;
+		return new LongMatrix(rowCount, colCount, result);
+	}
+
+	/**
+	 * Returns the negation of this {@link LongMatrix}.
+	 * @throws ArithmeticException if an element is {@link Long#MIN_VALUE}.
+	 */
+	public LongMatrix negate() {
+		final long[] result = new long[elements.length];
+		for(int i = 0; i < result.length; i++)
+			result[i] = Math.negateExact(elements[i]);
+		return new LongMatrix(rowCount, colCount, result);
+	}
+
+	/**
+	 * Returns {@code (this + val)}.
+	 * @throws ArithmeticException if {@code this} and {@code val} do not have the {@link #sameDimensions(LongMatrix, LongMatrix) same dimensions}
+	 * or if an element of the sum overflows.
+	 */
+	public LongMatrix add(final LongMatrix val) {
+		ensureSameDimensions(val);
+		final long[] result = new long[elements.length];
+		for(int i = 0; i < result.length; i++)
+			result[i] = Math.addExact(elements[i], val.elements[i]);
+		return new LongMatrix(rowCount, colCount, result);
+	}
+
+	/**
+	 * Returns {@code (this - val)}.
+	 * @throws ArithmeticException if {@code this} and {@code val} do not have the {@link #sameDimensions(LongMatrix, LongMatrix) same dimensions}
+	 * or if an element of the difference overflows.
+	 */
+	public LongMatrix subtract(final LongMatrix val) {
+		ensureSameDimensions(val);
+		final long[] result = new long[elements.length];
+		for(int i = 0; i < result.length; i++)
+			result[i] = Math.subtractExact(elements[i], val.elements[i]);
+		return new LongMatrix(rowCount, colCount, result);
+	}
+
+	private void ensureSameDimensions(final LongMatrix val) {
+		Objects.requireNonNull(val);
+		if(!sameDimensions(this, val))
+			throw new ArithmeticException("this and val have different dimensions");
+	}
+
+	/**
+	 * Returns {@code (this * val)}.
+	 * @throws ArithmeticException if {@code this} does not have as many columns as {@code val} has rows or if a product or sum overflows.
+	 */
+	public LongMatrix multiply(final LongMatrix val) {
+		Objects.requireNonNull(val);
+		if(colCount != val.rowCount)
+			throw new ArithmeticException("this and val do not have compatible dimensions");
+		final int n = rowCount, m = colCount, p = val.colCount;
+		final long[] a = elements, b = val.elements, result = new long[n * p];
+		for(int r = 0; r < n; r++) { //r-i-c order, so that both val and result are traversed along their rows.
+			for(int i = 0; i < m; i++) {
+				final long factor = a[r * m + i];
+				if(factor == 0)
+					continue;
+				for(int c = 0; c < p; c++)
+					result[r * p + c] = Math.addExact(result[r * p + c], Math.multiplyExact(factor, b[i * p + c]));
+			}
+		}
+		return new LongMatrix(n, p, result);
+	}
+
+	/**
+	 * Returns the sum of all the elements in this {@link LongMatrix}.
+	 * @throws ArithmeticException if the sum overflows.
+	 */
+	public long sum() {
+		long sum = 0;
+		for(long element : elements)
+			sum = Math.addExact(sum, element);
+		return sum;
+	}
+
+	/**
+	 * Returns the determinant of this {@link LongMatrix}, computed by fraction-free (Bareiss) elimination. Intermediate values that overflow a
+	 * {@code long} are handled with {@link BigInteger BigIntegers}, so this only throws if the determinant itself overflows.
+	 * @throws ArithmeticException if {@code this} is not {@link #isSquare() square} or if the determinant overflows a {@code long}.
+	 */
+	public long determinant() {
+		return bigDeterminant().longValueExact();
+	}
+
+	/**
+	 * Returns the determinant of this {@link LongMatrix} as a {@link BigInteger}.
+	 * @throws ArithmeticException if {@code this} is not {@link #isSquare() square}.
+	 */
+	public BigInteger bigDeterminant() {
+		if(!isSquare())
+			throw new ArithmeticException("Cannot find the determinant of a non-square matrix");
+		final int n = rowCount;
+		try {
+			final long[] a = elements.clone();
+			return bareiss(a, n, n) == n ? BigInteger.valueOf(a[n * n - 1]) : BigInteger.ZERO;
+		}
+		catch(ArithmeticException e) {
+			final BigInteger[] a = bigIntegers();
+			return bareiss(a, n, n) == n ? a[n * n - 1] : BigInteger.ZERO;
+		}
+	}
+
+	/** Returns the rank of this {@link LongMatrix}: the number of linearly independent rows (or, equivalently, columns). */
+	public int rank() {
+		try {
+			return bareiss(elements.clone(), rowCount, colCount);
+		}
+		catch(ArithmeticException e) {
+			return bareiss(bigIntegers(), rowCount, colCount);
+		}
+	}
+
+	private BigInteger[] bigIntegers() {
+		final BigInteger[] result = new BigInteger[elements.length];
+		for(int i = 0; i < result.length; i++)
+			result[i] = BigInteger.valueOf(elements[i]);
+		return result;
+	}
+
+	/*
+	 * The elimination methods below reduce the rows x cols integer matrix a (stored in row-major order) to row echelon form in place and return
+	 * its rank. When a pivot is found below the current row, the two rows are swapped and one of them is negated, which preserves the
+	 * determinant. Every element of the reduced matrix is then a minor of the original, so if a square matrix has full rank, its last element is
+	 * its determinant.
+	 */
+
+	/** @throws ArithmeticException if an intermediate value overflows a {@code long}. */
+	private static int bareiss(final long[] a, final int rows, final int cols) {
+		long previousPivot = 1;
+		int rank = 0;
+		for(int col = 0; col < cols && rank < rows; col++) {
+			int pivotRow = rank;
+			while(pivotRow < rows && a[pivotRow * cols + col] == 0)
+				pivotRow++;
+			if(pivotRow == rows)
+				continue;
+			if(pivotRow != rank) {
+				for(int j = col; j < cols; j++) {
+					final long temp = a[rank * cols + j];
+					a[rank * cols + j] = a[pivotRow * cols + j];
+					a[pivotRow * cols + j] = Math.negateExact(temp);
+				}
+			}
+			final long pivot = a[rank * cols + col];
+			for(int row = rank + 1; row < rows; row++) {
+				final long factor = a[row * cols + col];
+				for(int j = col + 1; j < cols; j++)
+					a[row * cols + j] = divideExact(
+							Math.subtractExact(Math.multiplyExact(a[row * cols + j], pivot), Math.multiplyExact(factor, a[rank * cols + j])), previousPivot);
+				a[row * cols + col] = 0;
+			}
+			previousPivot = pivot;
+			rank++;
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns {@code x / y}.
+	 * @throws ArithmeticException if the quotient overflows, which only happens for {@code Long.MIN_VALUE / -1}.
+	 */
+	private static long divideExact(final long x, final long y) {
+		if(x == Long.MIN_VALUE && y == -1)
+			throw new ArithmeticException("long overflow");
+		return x / y;
+	}
+
+	private static int bareiss(final BigInteger[] a, final int rows, final int cols) {
+		BigInteger previousPivot = BigInteger.ONE;
+		int rank = 0;
+		for(int col = 0; col < cols && rank < rows; col++) {
+			int pivotRow = rank;
+			while(pivotRow < rows && a[pivotRow * cols + col].signum() == 0)
+				pivotRow++;
+			if(pivotRow == rows)
+				continue;
+			if(pivotRow != rank) {
+				for(int j = col; j < cols; j++) {
+					final BigInteger temp = a[rank * cols + j];
+					a[rank * cols + j] = a[pivotRow * cols + j];
+					a[pivotRow * cols + j] = temp.negate();
+				}
+			}
+			final BigInteger pivot = a[rank * cols + col];
+			for(int row = rank + 1; row < rows; row++) {
+				final BigInteger factor = a[row * cols + col];
+				for(int j = col + 1; j < cols; j++)
+					a[row * cols + j] = a[row * cols + j].multiply(pivot).subtract(factor.multiply(a[rank * cols + j])).divide(previousPivot);
+				a[row * cols + col] = BigInteger.ZERO;
+			}
+			previousPivot = pivot;
+			rank++;
+		}
+		return rank;
+	}
+
+	/**
+	 * Maps this {@link LongMatrix} to a 2D array of some type, where each element in the returned array is computed from the corresponding
+	 * {@code long} in this {@code LongMatrix} by the given {@link LongFunction}.
+	 */
+	public <T> T[][] mapTo(final LongFunction<T> mapper, final IntFunction<T[]> rowFactory, final IntFunction<T[][]> arrayFactory) {
+		final T[][] result = arrayFactory.apply(rowCount);
+		for(int row = 0; row < rowCount; row++) {
+			result[row] = rowFactory.apply(colCount);
+			for(int col = 0; col < colCount; col++)
+				result[row][col] = mapper.apply(elements[row * colCount + col]);
+		}
+		return result;
+	}
+
+	/** Returns a {@link Matrix} with the same elements as this {@link LongMatrix}. */
+	public Matrix toMatrix() {
+		return Matrix.from(this);
+	}
+
+	@Override
+	public String toString() {
+		final StringJoiner rows = new StringJoiner(", ", "[", "]");
+		for(int row = 0; row < rowCount; row++)
+			rows.add(Arrays.toString(Arrays.copyOfRange(elements, row * colCount, (row + 1) * colCount)));
+		return rows.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(elements) + colCount;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if(this == obj)
+			return true;
+		if(obj == null)
+			return false;
+		if(getClass() != obj.getClass())
+			return false;
+		final LongMatrix other = (LongMatrix) obj;
+		return colCount == other.colCount && Arrays.equals(elements, other.elements);
+	}
+
+}
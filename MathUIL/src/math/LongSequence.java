@@ -0,0 +1,96 @@
+package math;
+
+import java.util.Spliterator;
+import java.util.function.BinaryOperator;
+import java.util.stream.*;
+
+/**
+ * <p>A {@link SummableSequence} whose terms are {@code longs}. Terms are computed as primitives with {@link #nthLong(int)} and can be streamed
+ * as a {@link LongStream} without boxing. Sums are exact: they throw an {@link ArithmeticException} if they overflow a {@code long}.</p>
+ * @author Sam Hooper
+ *
+ */
+public interface LongSequence extends SummableSequence<Long> {
+
+	public static final BinaryOperator<Long> SUM_FUNCTION = Math::addExact;
+
+	/**
+	 * Returns the <i>n</i>th term in this {@link LongSequence}, as described in {@link #nthTerm(int)}.
+	 */
+	long nthLong(int n);
+
+	/** Returns {@link #nthLong(int) nthLong(n)}, boxed. */
+	@Override
+	default Long nthTerm(final int n) {
+		return nthLong(n);
+	}
+
+	/**
+	 * Returns the sum of the terms from {@code startInclusive} to {@code endInclusive}. Unless it is overridden with a closed form, this method
+	 * sums the {@link #longStream(int, int) stream} of the terms, in parallel if there are more than {@link #PARALLEL_SUM_THRESHOLD} of them.
+	 * @throws IllegalArgumentException if {@code (startInclusive > endInclusive || (isFinite() && endInclusive > size()) || startInclusive < 1)}.
+	 * @throws ArithmeticException if the sum overflows a {@code long}.
+	 */
+	default long sumLong(final int startInclusive, final int endInclusive) {
+		if(startInclusive > endInclusive || (isFinite() && endInclusive > size()) || startInclusive < 1)
+			throw new IllegalArgumentException(String.format("Invalid arguments: startInclusive=%d, endInclusive=%d", startInclusive, endInclusive));
+		final LongStream terms = longStream(startInclusive, endInclusive);
+		return (endInclusive - startInclusive >= PARALLEL_SUM_THRESHOLD ? terms.parallel() : terms).reduce(0, Math::addExact);
+	}
+
+	/** Returns {@link #sumLong(int, int) sumLong(startInclusive, endInclusive)}, boxed. */
+	@Override
+	default Long sum(final int startInclusive, final int endInclusive) {
+		return sumLong(startInclusive, endInclusive);
+	}
+
+	/**
+	 * Returns the sum of the terms from {@code startInclusive} to {@link #size()}.
+	 * @throws IllegalArgumentException if {@code startInclusive < 1)}.
+	 * @throws ArithmeticException if this {@link LongSequence} is not {@link #isFinite() finite} or if the sum overflows a {@code long}.
+	 */
+	@Override
+	default Long sum(final int startInclusive) {
+		if(startInclusive < 1)
+			throw new IllegalArgumentException("startInclusive < 1");
+		if(!isFinite())
+			throw new ArithmeticException("This sequence does not have a finite sum");
+		return sumLong(startInclusive, size());
+	}
+
+	@Override
+	default BinaryOperator<Long> sumFunction() {
+		return SUM_FUNCTION;
+	}
+
+	/**
+	 * Returns a {@link Spliterator.OfLong} over the terms of this {@link LongSequence}, from lowest index to greatest, as described in
+	 * {@link #spliterator()}.
+	 */
+	default Spliterator.OfLong longSpliterator() {
+		return new SequenceSpliterator.OfLong(this, 1, SequenceSpliterator.endOf(this), isFinite());
+	}
+
+	/** Returns a sequential {@link LongStream} of the terms of this {@link LongSequence}, from lowest index to greatest. */
+	default LongStream longStream() {
+		return StreamSupport.longStream(longSpliterator(), false);
+	}
+
+	/** Returns a possibly parallel {@link LongStream} of the terms of this {@link LongSequence}, from lowest index to greatest. */
+	default LongStream parallelLongStream() {
+		return StreamSupport.longStream(longSpliterator(), true);
+	}
+
+	/**
+	 * Returns a sequential, {@link Spliterator#SIZED SIZED} {@link LongStream} of the terms of this {@link LongSequence} from
+	 * {@code startInclusive} to {@code endInclusive}, as described in {@link #stream(int, int)}.
+	 * @throws IllegalArgumentException if {@code (startInclusive < 1 || (isFinite() && endInclusive > size()))}.
+	 */
+	default LongStream longStream(final int startInclusive, final int endInclusive) {
+		if(startInclusive < 1 || isFinite() && endInclusive > size())
+			throw new IllegalArgumentException(String.format("Invalid arguments: startInclusive=%d, endInclusive=%d", startInclusive, endInclusive));
+		return StreamSupport.longStream(
+				new SequenceSpliterator.OfLong(this, startInclusive, Math.max(startInclusive, endInclusive + 1L), true), false);
+	}
+
+}
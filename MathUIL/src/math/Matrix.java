@@ -1,10 +1,16 @@
 package math;
 
+import java.math.BigInteger;
 import java.util.*;
 import java.util.function.*;
 
 /**
- * A matrix of {@link BigFraction BigFractions}. Rows and columns are indexed starting from zero. {@code Matrix} object are immutable.
+ * <p>A matrix of {@link BigFraction BigFractions}. Rows and columns are indexed starting from zero. {@code Matrix} object are immutable.</p>
+ * 
+ * <p>If every element of a {@code Matrix} is an integer that fits in a {@code long}, the elements are stored in a {@link LongMatrix}, and
+ * arithmetic, the {@link #determinant()}, and the {@link #rank()} are computed with {@code longs} (switching to {@code BigFractions} if a
+ * {@code long} would overflow). Determinants and ranks of integer matrices are computed by fraction-free (Bareiss) elimination, and those of
+ * other matrices by Gaussian elimination.</p>
  * @author Sam Hooper
  *
  */
@@ -41,6 +47,22 @@ public class Matrix {
 		return new Matrix(elems);
 	}
 	
+	/**
+	 * Returns a new {@link Matrix} of {@code rowCount} rows and {@code colCount} columns where each element is the integer supplied by the given
+	 * {@link LongSupplier}. The elements are supplied in row-major order and stored in a {@link LongMatrix}, as by
+	 * {@link LongMatrix#from(int, int, LongSupplier)}, without creating any {@code BigFractions}. {@code rowCount} and {@code colCount} must be
+	 * strictly greater than {@code 0}.
+	 */
+	public static Matrix fromLongs(final int rowCount, final int colCount, final LongSupplier elementSupplier) {
+		return new Matrix(LongMatrix.from(rowCount, colCount, elementSupplier));
+	}
+	
+	/**
+	 * Returns a {@link Matrix} with the same elements as the given {@link LongMatrix}.
+	 */
+	public static Matrix from(final LongMatrix longMatrix) {
+		return new Matrix(Objects.requireNonNull(longMatrix));
+	}
 
 	/**
 	 * Returns a new {@link Matrix} of {@code rowCount} rows and {@code colCount} columns where each element is supplied by the given {@link CellMapper}. There
@@ -95,13 +117,68 @@ public class Matrix {
 		return a.rowCount() == b.rowCount() && a.colCount() == b.colCount();
 	}
 	
+	/**
+	 * Returns a {@link LongMatrix} of the elements of {@code elements}, or {@code null} if any of them does not
+	 * {@link BigFraction#hasExactLongValue() have an exact long value}.
+	 */
+	private static LongMatrix toLongMatrix(final BigFraction[][] elements) {
+		final int colCount = elements[0].length;
+		final long[] longs = new long[elements.length * colCount];
+		for(int row = 0; row < elements.length; row++) {
+			for(int col = 0; col < colCount; col++) {
+				final BigFraction f = elements[row][col];
+				if(!f.hasExactLongValue())
+					return null;
+				longs[row * colCount + col] = f.longValueExact();
+			}
+		}
+		return new LongMatrix(elements.length, colCount, longs);
+	}
+	
+	private final int rowCount, colCount;
+	/** The elements, or {@code null} if they are stored in {@link #longMatrix}. */
 	private final BigFraction[][] elements;
+	/** The elements if they are all integers that fit in a {@code long}, otherwise {@code null}. */
+	private final LongMatrix longMatrix;
 	
 	/**
 	 * Does <b>not</b> defensively copy the array, nor does it {@link #ensureValidDimensions(BigFraction[][]) ensure its dimensions are valid}.
 	 */
 	private Matrix(final BigFraction[][] elements) {
-		this.elements = elements;
+		this.rowCount = elements.length;
+		this.colCount = elements[0].length;
+		this.longMatrix = toLongMatrix(elements);
+		this.elements = longMatrix == null ? elements : null;
+	}
+	
+	private Matrix(final LongMatrix longMatrix) {
+		this.rowCount = longMatrix.rowCount();
+		this.colCount = longMatrix.colCount();
+		this.elements = null;
+		this.longMatrix = longMatrix;
+	}
+	
+	/** Returns {@code true} if the elements of this {@link Matrix} are stored as a {@link LongMatrix}, {@code false} otherwise. */
+	private boolean isLong() {
+		return longMatrix != null;
+	}
+	
+	/**
+	 * Returns {@code true} if every element of this {@link Matrix} is an integer that fits in a {@code long}, in which case it can be converted to
+	 * a {@link LongMatrix}; {@code false} otherwise.
+	 */
+	public boolean hasExactLongValues() {
+		return isLong();
+	}
+	
+	/**
+	 * Returns a {@link LongMatrix} with the same elements as this {@link Matrix}.
+	 * @throws ArithmeticException if this {@code Matrix} does not {@link #hasExactLongValues() have exact long values}.
+	 */
+	public LongMatrix toLongMatrix() {
+		if(!isLong())
+			throw new ArithmeticException("This Matrix has an element that is not an integer that fits in a long");
+		return longMatrix;
 	}
 	
 	public void forEach(final Consumer<BigFraction> consumer) {
@@ -157,6 +234,14 @@ public class Matrix {
 	 * {@code Matrix}.
 	 */
 	public Matrix negate() {
+		if(isLong()) {
+			try {
+				return new Matrix(longMatrix.negate());
+			}
+			catch(ArithmeticException e) {
+				//overflowed, so negate the BigFractions instead.
+			}
+		}
 		return map(BigFraction::negate);
 	}
 	
@@ -169,6 +254,14 @@ public class Matrix {
 		Objects.requireNonNull(val);
 		if(!sameDimensions(this, val))
 			throw new ArithmeticException("this and val have different dimensions");
+		if(isLong() && val.isLong()) {
+			try {
+				return new Matrix(longMatrix.add(val.longMatrix));
+			}
+			catch(ArithmeticException e) {
+				//overflowed, so add the BigFractions instead.
+			}
+		}
 		return map((r, c) -> get(r, c).add(val.get(r, c)));
 	}
 	
@@ -181,54 +274,164 @@ public class Matrix {
 		Objects.requireNonNull(val);
 		if(!sameDimensions(this, val))
 			throw new ArithmeticException("this and val have different dimensions");
+		if(isLong() && val.isLong()) {
+			try {
+				return new Matrix(longMatrix.subtract(val.longMatrix));
+			}
+			catch(ArithmeticException e) {
+				//overflowed, so subtract the BigFractions instead.
+			}
+		}
 		return map((r, c) -> get(r, c).subtract(val.get(r, c)));
 	}
 	
 	/**
 	 * Returns {@code (this * val)}. Throws an exception if multiplying the two matrices is impossible.
 	 * @throws NullPointerException if {@code val} is {@code null}.
-	 * @throws ArithmeticException if {@code this} and {@code val} do not have compatible dimensions.
+	 * @throws ArithmeticException if {@code this} and {@code val} do not have compatible dimensions (that is, if {@code this} does not have as many
+	 * columns as {@code val} has rows).
 	 */
 	public Matrix multiply(Matrix val) {
 		Objects.requireNonNull(val);
-		if(rowCount() != val.colCount() || colCount() != val.rowCount())
+		if(colCount() != val.rowCount())
 			throw new ArithmeticException("this and val do not have compatible dimensions");
-//		System.out.printf("Multiplying %s and %s%n",this, val);
-		return from(rowCount(), rowCount(), (r, c) -> {
-			BigFraction total = BigFraction.ZERO;
-			for(int i = 0; i < colCount(); i++)
-				total = total.add(get(r, i).multiply(val.get(i, c)));
-			return total;
-		});
+		final int n = rowCount(), m = colCount(), p = val.colCount();
+		if(isLong() && val.isLong()) {
+			try {
+				return new Matrix(longMatrix.multiply(val.longMatrix));
+			}
+			catch(ArithmeticException e) {
+				//overflowed, so multiply the BigFractions instead.
+			}
+		}
+		final BigFraction[][] a = getRows(), b = val.getRows(), result = new BigFraction[n][p];
+		for(int r = 0; r < n; r++) {
+			for(int c = 0; c < p; c++) {
+				BigFraction total = BigFraction.ZERO;
+				for(int i = 0; i < m; i++)
+					total = total.add(a[r][i].multiply(b[i][c]));
+				result[r][c] = total;
+			}
+		}
+		return new Matrix(result);
 	}
 	
 	/**
-	 * Returns the determinant of this {@link Matrix} as a {@link BigFraction}. Determinants are not supported for
-	 * matrices larger than 2x2.
+	 * Returns the determinant of this {@link Matrix} as a {@link BigFraction}.
 	 * @throws ArithmeticException if {@code this} {@link Matrix} is not {@link #isSquare() square}.
-	 * @throws UnsupportedOperationException if this {@code Matrix} is square but is larger than 2x2.
 	 */
 	public BigFraction determinant() {
 		if(!isSquare())
 			throw new ArithmeticException("Cannot find the determinant of a non-square matrix");
-		if(rowCount() > 2)
-			throw new UnsupportedOperationException("Calculating the determinant of a " + rowCount() + "x" + colCount() + " matrix is not supported");
-		if(rowCount() == 1)
-			return get(0, 0);
-		return get(0, 0).multiply(get(1, 1)).subtract(get(0, 1).multiply(get(1, 0)));
+		if(isLong())
+			return BigFraction.of(longMatrix.bigDeterminant(), BigInteger.ONE);
+		final int n = rowCount();
+		final BigFraction[][] a = getRows();
+		return gauss(a) == n ? a[n - 1][n - 1] : BigFraction.ZERO;
+	}
+	
+	/**
+	 * Returns the rank of this {@link Matrix}: the number of linearly independent rows (or, equivalently, columns).
+	 */
+	public int rank() {
+		if(isLong())
+			return longMatrix.rank();
+		return gauss(getRows());
+	}
+	
+	/**
+	 * Returns the inverse of this {@link Matrix}, computed by Gauss-Jordan elimination.
+	 * @throws ArithmeticException if {@code this} {@link Matrix} is not {@link #isSquare() square} or is singular (its {@link #determinant()} is
+	 * zero).
+	 */
+	public Matrix inverse() {
+		if(!isSquare())
+			throw new ArithmeticException("Cannot find the inverse of a non-square matrix");
+		final int n = rowCount();
+		final BigFraction[][] a = getRows(), inverse = new BigFraction[n][n];
+		for(int row = 0; row < n; row++)
+			for(int col = 0; col < n; col++)
+				inverse[row][col] = row == col ? BigFraction.ONE : BigFraction.ZERO;
+		for(int col = 0; col < n; col++) {
+			int pivotRow = col;
+			while(pivotRow < n && a[pivotRow][col].isZero())
+				pivotRow++;
+			if(pivotRow == n)
+				throw new ArithmeticException("This matrix is singular");
+			swapRows(a, pivotRow, col);
+			swapRows(inverse, pivotRow, col);
+			final BigFraction pivotInverse = a[col][col].multiplicativeInverse();
+			for(int j = 0; j < n; j++) {
+				a[col][j] = a[col][j].multiply(pivotInverse);
+				inverse[col][j] = inverse[col][j].multiply(pivotInverse);
+			}
+			for(int row = 0; row < n; row++) {
+				final BigFraction factor = a[row][col];
+				if(row == col || factor.isZero())
+					continue;
+				for(int j = 0; j < n; j++) {
+					a[row][j] = a[row][j].subtract(factor.multiply(a[col][j]));
+					inverse[row][j] = inverse[row][j].subtract(factor.multiply(inverse[col][j]));
+				}
+			}
+		}
+		return new Matrix(inverse);
+	}
+	
+	/**
+	 * Gaussian elimination of {@code a}: reduces {@code a} to row echelon form in place and returns its rank. When a pivot is found below the
+	 * current row, the two rows are swapped and one of them is negated, which preserves the determinant. If {@code a} is square and has full rank,
+	 * its last element is set to the product of the diagonal, which is its determinant.
+	 */
+	private static int gauss(final BigFraction[][] a) {
+		final int rows = a.length, cols = a[0].length;
+		BigFraction diagonalProduct = BigFraction.ONE;
+		int rank = 0;
+		for(int col = 0; col < cols && rank < rows; col++) {
+			int pivotRow = rank;
+			while(pivotRow < rows && a[pivotRow][col].isZero())
+				pivotRow++;
+			if(pivotRow == rows)
+				continue;
+			if(pivotRow != rank) {
+				swapRows(a, pivotRow, rank);
+				for(int j = col; j < cols; j++)
+					a[pivotRow][j] = a[pivotRow][j].negate();
+			}
+			final BigFraction pivot = a[rank][col];
+			for(int row = rank + 1; row < rows; row++) {
+				final BigFraction factor = a[row][col].divide(pivot);
+				if(factor.isZero())
+					continue;
+				for(int j = col + 1; j < cols; j++)
+					a[row][j] = a[row][j].subtract(factor.multiply(a[rank][j]));
+				a[row][col] = BigFraction.ZERO;
+			}
+			diagonalProduct = diagonalProduct.multiply(pivot);
+			rank++;
+		}
+		if(rank == rows && rows == cols)
+			a[rows - 1][cols - 1] = diagonalProduct;
+		return rank;
+	}
+	
+	private static void swapRows(final BigFraction[][] a, final int i, final int j) {
+		final BigFraction[] temp = a[i];
+		a[i] = a[j];
+		a[j] = temp;
 	}
 	
 	public BigFraction sumOfRow(final int row) {
 		BigFraction total = BigFraction.ZERO;
-		for(BigFraction f : elements[row])
-			total = total.add(f);
+		for(int col = 0; col < colCount(); col++)
+			total = total.add(get(row, col));
 		return total;
 	}
 	
 	public BigFraction sumOfCol(final int col) {
 		BigFraction total = BigFraction.ZERO;
 		for(int row = 0; row < rowCount(); row++)
-			total = total.add(elements[row][col]);
+			total = total.add(get(row, col));
 		return total;
 	}
 	
@@ -236,6 +439,8 @@ public class Matrix {
 	 * Returns the element at row {@code row} and column {@code col} in this {@link Matrix}.
 	 */
 	public BigFraction get(final int row, final int col) {
+		if(isLong())
+			return BigFraction.of(longMatrix.get(row, col), 1);
 		return elements[row][col];
 	}
 	
@@ -245,6 +450,12 @@ public class Matrix {
 	 * The returned array has length {@code colCount()}.
 	 */
 	public BigFraction[] getRow(final int row) {
+		if(isLong()) {
+			final BigFraction[] result = new BigFraction[colCount];
+			for(int col = 0; col < colCount; col++)
+				result[col] = get(row, col);
+			return result;
+		}
 		return Arrays.copyOf(elements[row], elements[row].length);
 	}
 	
@@ -253,6 +464,12 @@ public class Matrix {
 	 * and c is the {@link #colCount() number of columns} in this {@code Matrix}. Modifying the returned array in any way will not affect this {@code Matrix}.
 	 */
 	public BigFraction[][] getRows() {
+		if(isLong()) {
+			final BigFraction[][] result = new BigFraction[rowCount][];
+			for(int row = 0; row < rowCount; row++)
+				result[row] = getRow(row);
+			return result;
+		}
 		return copyOf(elements);
 	}
 	
@@ -264,7 +481,7 @@ public class Matrix {
 	public BigFraction[] getCol(final int col) {
 		BigFraction[] column = new BigFraction[rowCount()];
 		for(int row = 0; row < rowCount(); row++)
-			column[row] = elements[row][col];
+			column[row] = get(row, col);
 		return column;
 	}
 	
@@ -272,14 +489,14 @@ public class Matrix {
 	 * Returns the number of rows in this {@link Matrix}. The returned value will always be greater than {@code 0}.
 	 */
 	public int rowCount() {
-		return elements.length;
+		return rowCount;
 	}
 	
 	/**
 	 * Returns the number of columns in this {@link Matrix}. The returned value will always be greater than {@code 0}.
 	 */
 	public int colCount() {
-		return elements[0].length;
+		return colCount;
 	}
 	
 	public int elementCount() {
@@ -295,14 +512,14 @@ public class Matrix {
 
 	@Override
 	public String toString() {
-		return Arrays.deepToString(elements);
+		return Arrays.deepToString(isLong() ? getRows() : elements);
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + Arrays.deepHashCode(elements);
+		result = prime * result + (isLong() ? longMatrix.hashCode() : Arrays.deepHashCode(elements));
 		return result;
 	}
 
@@ -315,6 +532,9 @@ public class Matrix {
 		if(getClass() != obj.getClass())
 			return false;
 		Matrix other = (Matrix) obj;
+		//a Matrix is stored as a LongMatrix if and only if its elements are all integers that fit in a long, so equal matrices are stored the same way.
+		if(isLong())
+			return longMatrix.equals(other.longMatrix);
 		return Arrays.deepEquals(elements, other.elements);
 	}
 	
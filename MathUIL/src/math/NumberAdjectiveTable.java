@@ -0,0 +1,186 @@
+package math;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import utils.RandomSource;
+
+/**
+ * <p>The {@link NumberAdjectives} of every integer in a range, precomputed. Each integer's adjectives are stored as a {@link NumberAdjectives#mask(int)
+ * mask}, and the integers described by each adjective are stored in increasing order, so that an integer with (or without) given adjectives can be
+ * chosen at random without trying integers until one fits.</p>
+ *
+ * <p>The table is built in a single parallel pass over the range. {@code NumberAdjectiveTables} are immutable and thread-safe.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class NumberAdjectiveTable {
+
+	/** The {@link #high() high} end of the range of the {@link #shared() shared} table. */
+	public static final int SHARED_HIGH = 10_000;
+	/** The number of random candidates {@link #random(RandomSource, int, int, Set, Set)} tries before it lists every match. */
+	private static final int MAX_RANDOM_ATTEMPTS = 32;
+
+	private static final class Holder {
+		static final NumberAdjectiveTable SHARED = of(1, SHARED_HIGH);
+	}
+
+	private static final NumberAdjectives[] ADJECTIVES = NumberAdjectives.values();
+
+	private final int low, high;
+	/** {@code masks[n - low]} is the mask of {@code n}. */
+	private final long[] masks;
+	/** {@code described[adj.ordinal()]} holds the integers in the range described by {@code adj}, in increasing order. */
+	private final int[][] described;
+
+	private NumberAdjectiveTable(final int low, final int high) {
+		this.low = low;
+		this.high = high;
+		final long[] masks = new long[high - low + 1];
+		IntStream.rangeClosed(low, high).parallel().forEach(n -> masks[n - low] = NumberAdjectives.mask(n));
+		final int[] counts = new int[ADJECTIVES.length];
+		for(long mask : masks)
+			for(long m = mask; m != 0; m &= m - 1)
+				counts[Long.numberOfTrailingZeros(m)]++;
+		final int[][] described = new int[ADJECTIVES.length][];
+		for(int i = 0; i < described.length; i++)
+			described[i] = new int[counts[i]];
+		Arrays.fill(counts, 0);
+		for(int n = low; n <= high; n++)
+			for(long m = masks[n - low]; m != 0; m &= m - 1) {
+				final int i = Long.numberOfTrailingZeros(m);
+				described[i][counts[i]++] = n;
+			}
+		this.masks = masks;
+		this.described = described;
+	}
+
+	/**
+	 * Returns a table of the integers from {@code low} to {@code high}, inclusive.
+	 * @throws IllegalArgumentException if {@code low <= 0} or {@code high < low}.
+	 */
+	public static NumberAdjectiveTable of(final int low, final int high) {
+		if(low <= 0)
+			throw new IllegalArgumentException("low must be greater than 0");
+		if(high < low)
+			throw new IllegalArgumentException("high must be at least low");
+		return new NumberAdjectiveTable(low, high);
+	}
+
+	/** Returns the table of the integers from {@code 1} to {@link #SHARED_HIGH}, which is built the first time this method is called. */
+	public static NumberAdjectiveTable shared() {
+		return Holder.SHARED;
+	}
+
+	public int low() {
+		return low;
+	}
+
+	public int high() {
+		return high;
+	}
+
+	/** Returns {@code true} if {@code n} is in the range of this table, {@code false} otherwise. */
+	public boolean covers(final int n) {
+		return n >= low && n <= high;
+	}
+
+	/**
+	 * Returns the {@link NumberAdjectives#mask(int) mask} of {@code n}.
+	 * @throws IllegalArgumentException if {@code n} is not {@link #covers(int) covered} by this table.
+	 */
+	public long mask(final int n) {
+		checkCovered(n);
+		return masks[n - low];
+	}
+
+	/**
+	 * Returns the adjectives that describe {@code n}.
+	 * @throws IllegalArgumentException if {@code n} is not {@link #covers(int) covered} by this table.
+	 */
+	public EnumSet<NumberAdjectives> describe(final int n) {
+		return NumberAdjectives.fromMask(mask(n));
+	}
+
+	/**
+	 * Returns the number of integers from {@code low} to {@code high} (inclusive) that {@code adj} describes.
+	 * @throws IllegalArgumentException if the range is not {@link #covers(int) covered} by this table.
+	 */
+	public int count(final NumberAdjectives adj, final int low, final int high) {
+		checkRange(low, high);
+		final int[] ints = described[adj.ordinal()];
+		return upperIndex(ints, high) - lowerIndex(ints, low);
+	}
+
+	/**
+	 * <p>Returns a uniformly random integer from {@code low} to {@code high} (inclusive) that is described by all of the adjectives in {@code with} and
+	 * by none of the adjectives in {@code without}, or an empty {@link OptionalInt} if there is no such integer.</p>
+	 *
+	 * <p>Candidates are drawn only from the integers described by the rarest adjective in {@code with}, so this takes constant time unless the
+	 * other adjectives exclude most of those candidates, in which case the matches are listed.</p>
+	 * @throws IllegalArgumentException if the range is not {@link #covers(int) covered} by this table.
+	 */
+	public OptionalInt random(final RandomSource random, final int low, final int high, final Set<NumberAdjectives> with,
+			final Set<NumberAdjectives> without) {
+		checkRange(low, high);
+		final long withMask = NumberAdjectives.mask(with), withoutMask = NumberAdjectives.mask(without);
+		if((withMask & withoutMask) != 0)
+			return OptionalInt.empty();
+		int[] candidates = null;
+		int from = low - this.low, to = high - this.low + 1; //candidates[from:to), or the integers low + [from:to) if candidates is null.
+		for(NumberAdjectives adj : with) {
+			final int[] ints = described[adj.ordinal()];
+			final int f = lowerIndex(ints, low), t = upperIndex(ints, high);
+			if(t - f < to - from) {
+				candidates = ints;
+				from = f;
+				to = t;
+			}
+		}
+		if(from >= to)
+			return OptionalInt.empty();
+		for(int i = 0; i < MAX_RANDOM_ATTEMPTS; i++) {
+			final int index = from + random.nextInt(to - from), n = candidates == null ? this.low + index : candidates[index];
+			if(matches(n, withMask, withoutMask))
+				return OptionalInt.of(n);
+		}
+		final int[] matches = new int[to - from];
+		int size = 0;
+		for(int index = from; index < to; index++) {
+			final int n = candidates == null ? this.low + index : candidates[index];
+			if(matches(n, withMask, withoutMask))
+				matches[size++] = n;
+		}
+		return size == 0 ? OptionalInt.empty() : OptionalInt.of(matches[random.nextInt(size)]);
+	}
+
+	private boolean matches(final int n, final long withMask, final long withoutMask) {
+		final long mask = masks[n - low];
+		return (mask & withMask) == withMask && (mask & withoutMask) == 0;
+	}
+
+	/** Returns the index of the first element of the sorted array {@code ints} that is at least {@code n}. */
+	private static int lowerIndex(final int[] ints, final int n) {
+		final int i = Arrays.binarySearch(ints, n);
+		return i >= 0 ? i : -i - 1;
+	}
+
+	/** Returns the index of the first element of the sorted array {@code ints} that is greater than {@code n}. */
+	private static int upperIndex(final int[] ints, final int n) {
+		final int i = Arrays.binarySearch(ints, n);
+		return i >= 0 ? i + 1 : -i - 1;
+	}
+
+	private void checkCovered(final int n) {
+		if(!covers(n))
+			throw new IllegalArgumentException(n + " is not in the range of this table: [" + low + ", " + high + "]");
+	}
+
+	private void checkRange(final int low, final int high) {
+		checkCovered(low);
+		checkCovered(high);
+		if(high < low)
+			throw new IllegalArgumentException("high must be at least low");
+	}
+
+}
@@ -11,7 +11,7 @@ public enum NumberAdjectives {
 
 		@Override
 		public boolean describes(int n) {
-			return Utils.factorsUnsorted(n).sum() < n * 2;
+			return PrimeSieve.divisorSum(n) < n * 2L;
 		}
 		
 	},
@@ -19,7 +19,7 @@ public enum NumberAdjectives {
 
 		@Override
 		public boolean describes(int n) {
-			return Utils.factorsUnsorted(n).sum() == n * 2;
+			return PrimeSieve.divisorSum(n) == n * 2L;
 		}
 		
 	},
@@ -27,7 +27,7 @@ public enum NumberAdjectives {
 
 		@Override
 		public boolean describes(int n) {
-			return Utils.factorsUnsorted(n).sum() > n * 2;
+			return PrimeSieve.divisorSum(n) > n * 2L;
 		}
 		
 	},
@@ -35,14 +35,10 @@ public enum NumberAdjectives {
 
 		@Override
 		public boolean describes(int n) {
-			Set<Integer> seen = new HashSet<>();
-			while(n != 1) {
-				if(seen.contains(n))
-					return false;
-				seen.add(n);
-				n = Utils.digits(n).map(x -> x * x).sum();
-			}
-			return true;
+			//every number eventually reaches 1, 0, or the cycle 4, 16, 37, 58, 89, 145, 42, 20, 4.
+			while(n != 1 && n != 4 && n != 0)
+				n = digitSquareSum(n);
+			return n == 1;
 		}
 		
 	},
@@ -113,15 +109,62 @@ public enum NumberAdjectives {
 		
 	};
 	
+	private static final NumberAdjectives[] VALUES = values();
+	
 	public abstract boolean describes(int n);
 	
+	/** Returns the bit that represents this adjective in a {@link #mask(int) mask}. */
+	public long bit() {
+		return 1L << ordinal();
+	}
+	
+	/**
+	 * Returns the adjectives that describe {@code n}. If {@code n} is covered by the {@link NumberAdjectiveTable#shared() shared table}, this
+	 * is a lookup.
+	 */
 	public static EnumSet<NumberAdjectives> describe(int n) {
+		final NumberAdjectiveTable table = NumberAdjectiveTable.shared();
+		return fromMask(table.covers(n) ? table.mask(n) : mask(n));
+	}
+	
+	/**
+	 * Returns a mask of the adjectives that describe {@code n}: the bitwise OR of the {@link #bit() bits} of those adjectives. {@code n} is factored
+	 * only once.
+	 */
+	public static long mask(int n) {
+		//adjectives come in groups, exactly one of which describes any number. Every constant must belong to a group here.
+		final long divisorSum = PrimeSieve.divisorSum(n), twiceN = 2L * n;
+		long mask = divisorSum < twiceN ? DEFICIENT.bit() : divisorSum == twiceN ? PERFECT.bit() : ABUNDANT.bit();
+		mask |= HAPPY.describes(n) ? HAPPY.bit() : UNHAPPY.bit();
+		mask |= EVIL.describes(n) ? EVIL.bit() : ODIOUS.bit();
+		mask |= IMPOLITE.describes(n) ? IMPOLITE.bit() : POLITE.bit();
+		final int digits = digitsInPrimeFactorization(n), magnitude = Utils.magnitude(n);
+		mask |= digits < magnitude ? FRUGAL.bit() : digits == magnitude ? EQUIDIGITAL.bit() : EXTRAVAGANT.bit();
+		return mask;
+	}
+	
+	/** Returns the mask of the given adjectives. */
+	public static long mask(Collection<NumberAdjectives> adjectives) {
+		long mask = 0;
+		for(NumberAdjectives adj : adjectives)
+			mask |= adj.bit();
+		return mask;
+	}
+	
+	/** Returns the adjectives whose {@link #bit() bits} are set in {@code mask}. */
+	public static EnumSet<NumberAdjectives> fromMask(long mask) {
 		EnumSet<NumberAdjectives> result = EnumSet.noneOf(NumberAdjectives.class);
-		for(NumberAdjectives adj : NumberAdjectives.values())
-			if(adj.describes(n))
-				result.add(adj);
+		for(; mask != 0; mask &= mask - 1)
+			result.add(VALUES[Long.numberOfTrailingZeros(mask)]);
 		return result;
 	}
+	
+	private static int digitSquareSum(int n) {
+		int sum = 0;
+		for(; n != 0; n /= 10)
+			sum += (n % 10) * (n % 10);
+		return sum;
+	}
 	/**
 	 * Returns the nth s-gonal number.
 	 */
@@ -140,21 +183,29 @@ public enum NumberAdjectives {
 		return POLYGONAL_ADJECTIVES[sides - MIN_POLYGON_SIDES];
 	}
 	
-	/** Returns the politeness of {@code n}
+	/** Returns the politeness of {@code n}: the number of ways to write {@code n} as a sum of two or more consecutive positive integers,
+	 * which is the number of odd divisors of {@code n} that are greater than one.
 	 * @param n
 	 * @return
 	 */
 	public static int politeness(int n) {
-		return (int) Utils.factorsUnsorted(n).stream().filter(x -> x > 1 && (x & 1) == 0).count();
+		PrimeSieve.Factorization f = PrimeSieve.factorize(n);
+		int oddDivisors = 1;
+		for(int i = 0; i < f.size(); i++)
+			if(f.prime(i) != 2)
+				oddDivisors *= f.exponent(i) + 1;
+		return oddDivisors - 1;
 	}
 	
+	/** Returns the number of digits needed to write the prime factorization of {@code n}, counting the digits of each prime and of each
+	 * exponent greater than one. */
 	private static int digitsInPrimeFactorization(int n) {
-		SortedMap<Integer, Integer> map = Utils.primeFactorization(n);
+		PrimeSieve.Factorization f = PrimeSieve.factorize(n);
 		int total = 0;
-		for(Map.Entry<Integer, Integer> e : map.entrySet()) {
-			total += e.getKey();
-			if(e.getValue() > 1)
-				total += e.getValue();
+		for(int i = 0; i < f.size(); i++) {
+			total += Utils.magnitude(f.prime(i));
+			if(f.exponent(i) > 1)
+				total += Utils.magnitude(f.exponent(i));
 		}
 		return total;
 	}
@@ -0,0 +1,122 @@
+package math;
+
+import math.Evaluator.CompiledExpression;
+
+/**
+ * <p>The result of parsing an expression with {@link Evaluator#parse(String)}. A {@code ParseResult} is either valid, in which case it holds the
+ * {@link CompiledExpression}, or invalid, in which case it describes the first error in the expression: its {@link ErrorKind kind} and the index
+ * in the expression at which it was found. No exception is thrown (or created) while parsing an invalid expression, so validating an invalid
+ * expression costs no more than parsing a valid one.</p>
+ *
+ * <p>{@code ParseResults} are immutable.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class ParseResult {
+
+	public enum ErrorKind {
+		/** A character that is not part of a number, an operator, a parenthesis, or an absolute value bar. */
+		INVALID_CHARACTER("Invalid character"),
+		/** A number with more than one decimal point or with no digits, such as {@code 1.2.3} or {@code .}. */
+		INVALID_NUMBER("Invalid number"),
+		/** The expression ended, or a token other than an operand was found, where an operand was required. */
+		EXPECTED_OPERAND("Expected an operand"),
+		/** A token after the end of a complete expression, such as the second {@code )} in {@code (1+2))}. */
+		UNEXPECTED_TOKEN("Unexpected token"),
+		MISSING_CLOSE_PARENTHESIS("Expected ')'"),
+		MISSING_ABSOLUTE_VALUE_BAR("Expected '|'");
+
+		private final String description;
+
+		ErrorKind(final String description) {
+			this.description = description;
+		}
+
+		public String description() {
+			return description;
+		}
+
+	}
+
+	/** The value of {@link #character} if there is no offending character, such as when the expression ended too soon. */
+	static final int NO_CHARACTER = -1;
+
+	private final CompiledExpression expression;
+	private final ErrorKind errorKind;
+	private final int errorOffset;
+	private final int character;
+
+	private ParseResult(final CompiledExpression expression, final ErrorKind errorKind, final int errorOffset, final int character) {
+		this.expression = expression;
+		this.errorKind = errorKind;
+		this.errorOffset = errorOffset;
+		this.character = character;
+	}
+
+	static ParseResult success(final CompiledExpression expression) {
+		return new ParseResult(expression, null, -1, NO_CHARACTER);
+	}
+
+	/** {@code character} is the character at {@code errorOffset}, or {@link #NO_CHARACTER}. */
+	static ParseResult failure(final ErrorKind errorKind, final int errorOffset, final int character) {
+		return new ParseResult(null, errorKind, errorOffset, character);
+	}
+
+	public boolean isValid() {
+		return expression != null;
+	}
+
+	/** Returns the {@link CompiledExpression}, or {@code null} if the expression is not {@link #isValid() valid}. */
+	public CompiledExpression expression() {
+		return expression;
+	}
+
+	/**
+	 * Returns the {@link CompiledExpression}.
+	 * @throws IllegalArgumentException if the expression is not {@link #isValid() valid}.
+	 */
+	public CompiledExpression orElseThrow() {
+		if(expression == null)
+			throw toException();
+		return expression;
+	}
+
+	/** Returns the kind of the first error in the expression, or {@code null} if the expression is {@link #isValid() valid}. */
+	public ErrorKind errorKind() {
+		return errorKind;
+	}
+
+	/**
+	 * Returns the index in the expression of the first error, or {@code -1} if the expression is {@link #isValid() valid}. Whitespace is counted,
+	 * so the index refers to the text exactly as it was given. If the expression ended too soon, this is the length of the expression.
+	 */
+	public int errorOffset() {
+		return errorOffset;
+	}
+
+	/** Returns a description of the first error, such as {@code "Invalid character '#' at index 3"}, or {@code null} if there is no error. */
+	public String errorMessage() {
+		if(errorKind == null)
+			return null;
+		final StringBuilder sb = new StringBuilder(errorKind.description());
+		if(character != NO_CHARACTER)
+			sb.append(" '").append((char) character).append('\'');
+		return sb.append(" at index ").append(errorOffset).toString();
+	}
+
+	/**
+	 * Returns an {@link IllegalArgumentException} describing the first error, as would be thrown by {@link Evaluator#compile(String)}.
+	 * @throws IllegalStateException if the expression is {@link #isValid() valid}.
+	 */
+	public IllegalArgumentException toException() {
+		if(errorKind == null)
+			throw new IllegalStateException("The expression is valid");
+		return new IllegalArgumentException("Invalid expression: " + errorMessage());
+	}
+
+	@Override
+	public String toString() {
+		return isValid() ? "ParseResult[valid: " + expression.expression() + "]" : "ParseResult[" + errorMessage() + "]";
+	}
+
+}
@@ -0,0 +1,283 @@
+package math;
+
+import java.util.*;
+
+/**
+ * <p>Number-theoretic functions of positive {@code ints}, backed by a sieve of smallest prime factors. The sieve also stores Euler's totient, the
+ * number of divisors, and the sum of the divisors of every number it covers, so those are array lookups, and a {@link Factorization} takes one
+ * division per prime factor (counted with multiplicity).</p>
+ *
+ * <p>The sieve is created the first time it is needed and grows (at least doubling) whenever a larger number is queried, up to
+ * {@link #MAX_LIMIT}. Larger numbers are factored by trial division, so every method accepts any positive {@code int}. All methods are
+ * thread-safe.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class PrimeSieve {
+
+	/** The largest number the sieve will cover. */
+	public static final int MAX_LIMIT = 1 << 20;
+	private static final int INITIAL_LIMIT = 1 << 10;
+
+	/** The sieve and the tables derived from it. A {@code Tables} is never modified after it is published. */
+	private static final class Tables {
+
+		/** The numbers from {@code 0} (inclusive) to {@code limit} (exclusive) are covered. */
+		final int limit;
+		/** {@code smallestPrimeFactor[n]} is the smallest prime factor of {@code n}, or {@code 1} if {@code n < 2}. */
+		final int[] smallestPrimeFactor;
+		final int[] totient, divisorCount;
+		final long[] divisorSum;
+
+		Tables(final int limit) {
+			this.limit = limit;
+			final int[] spf = new int[limit];
+			spf[1] = 1;
+			for(int i = 2; i < limit; i++) {
+				if(spf[i] != 0)
+					continue;
+				spf[i] = i;
+				for(long j = (long) i * i; j < limit; j += i)
+					if(spf[(int) j] == 0)
+						spf[(int) j] = i;
+			}
+			final int[] phi = new int[limit], tau = new int[limit];
+			final long[] sigma = new long[limit];
+			/* primePower[n] is the largest power of spf[n] that divides n. Every n that is not a prime power is the product of two smaller coprime
+			 * numbers, primePower[n] and n / primePower[n], and the three functions are multiplicative. */
+			final int[] primePower = new int[limit];
+			phi[1] = tau[1] = 1;
+			sigma[1] = 1;
+			for(int n = 2; n < limit; n++) {
+				final int p = spf[n], m = n / p;
+				primePower[n] = spf[m] == p ? primePower[m] * p : p;
+				final int rest = n / primePower[n];
+				if(rest == 1) {
+					phi[n] = n - m;
+					tau[n] = tau[m] + 1;
+					sigma[n] = sigma[m] * p + 1;
+				}
+				else {
+					final int q = primePower[n];
+					phi[n] = phi[q] * phi[rest];
+					tau[n] = tau[q] * tau[rest];
+					sigma[n] = sigma[q] * sigma[rest];
+				}
+			}
+			this.smallestPrimeFactor = spf;
+			this.totient = phi;
+			this.divisorCount = tau;
+			this.divisorSum = sigma;
+		}
+
+	}
+
+	/**
+	 * <p>The prime factorization of a positive integer, as parallel arrays of its distinct prime factors (in increasing order) and their exponents.
+	 * For example, the factorization of {@code 12} has the primes {@code [2, 3]} and the exponents {@code [2, 1]}. The factorization of {@code 1}
+	 * has no primes.</p>
+	 *
+	 * <p>{@code Factorizations} are immutable.</p>
+	 */
+	public static final class Factorization {
+
+		private final int[] primes, exponents;
+
+		private Factorization(final int[] primes, final int[] exponents) {
+			this.primes = primes;
+			this.exponents = exponents;
+		}
+
+		/** Returns the number of distinct prime factors. */
+		public int size() {
+			return primes.length;
+		}
+
+		/** Returns the {@code i}th smallest distinct prime factor. */
+		public int prime(final int i) {
+			return primes[i];
+		}
+
+		/** Returns the exponent of {@link #prime(int) prime(i)}. */
+		public int exponent(final int i) {
+			return exponents[i];
+		}
+
+		/** Returns a copy of the distinct prime factors, in increasing order. */
+		public int[] primes() {
+			return primes.clone();
+		}
+
+		/** Returns a copy of the exponents, in the order of {@link #primes()}. */
+		public int[] exponents() {
+			return exponents.clone();
+		}
+
+		/** Returns a {@link SortedMap} from each distinct prime factor to its exponent, as described in {@link Utils#primeFactorization(int)}. */
+		public SortedMap<Integer, Integer> toSortedMap() {
+			final SortedMap<Integer, Integer> map = new TreeMap<>();
+			for(int i = 0; i < primes.length; i++)
+				map.put(primes[i], exponents[i]);
+			return map;
+		}
+
+		@Override
+		public String toString() {
+			final StringJoiner sj = new StringJoiner(" * ");
+			for(int i = 0; i < primes.length; i++)
+				sj.add(exponents[i] == 1 ? Integer.toString(primes[i]) : primes[i] + "^" + exponents[i]);
+			return primes.length == 0 ? "1" : sj.toString();
+		}
+
+	}
+
+	private static volatile Tables tables;
+
+	private PrimeSieve() {}
+
+	/**
+	 * Returns the sieve if it covers {@code n}, growing it if necessary, or {@code null} if {@code n} is greater than {@link #MAX_LIMIT}.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	private static Tables tablesFor(final int n) {
+		if(n <= 0)
+			throw new IllegalArgumentException("n must be greater than 0");
+		final Tables t = tables;
+		if(t != null && n < t.limit)
+			return t;
+		return n > MAX_LIMIT ? null : grow(n);
+	}
+
+	private static synchronized Tables grow(final int n) {
+		final Tables t = tables;
+		if(t != null && n < t.limit)
+			return t;
+		final int limit = (int) Math.min(MAX_LIMIT + 1L, Math.max(n + 1L, t == null ? INITIAL_LIMIT : 2L * t.limit));
+		return tables = new Tables(limit);
+	}
+
+	/**
+	 * Returns the smallest prime factor of {@code n}, or {@code 1} if {@code n} is {@code 1}.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static int smallestPrimeFactor(final int n) {
+		final Tables t = tablesFor(n);
+		if(t != null)
+			return t.smallestPrimeFactor[n];
+		if((n & 1) == 0)
+			return 2;
+		for(int i = 3; i <= n / i; i += 2)
+			if(n % i == 0)
+				return i;
+		return n;
+	}
+
+	/**
+	 * Returns {@code true} if {@code n} is prime, {@code false} otherwise. Returns {@code false} for every {@code n < 2}.
+	 */
+	public static boolean isPrime(final int n) {
+		return n >= 2 && smallestPrimeFactor(n) == n;
+	}
+
+	/**
+	 * Returns the prime factorization of {@code n}.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static Factorization factorize(int n) {
+		final Tables t = tablesFor(n);
+		final int[] primes = new int[distinctPrimeFactorBound(n)], exponents = new int[primes.length];
+		int size = 0;
+		while(n > 1) {
+			final int p = t != null && n < t.limit ? t.smallestPrimeFactor[n] : smallestPrimeFactor(n);
+			int e = 0;
+			do {
+				n /= p;
+				e++;
+			} while(n % p == 0);
+			primes[size] = p;
+			exponents[size++] = e;
+		}
+		return new Factorization(Arrays.copyOf(primes, size), Arrays.copyOf(exponents, size));
+	}
+
+	/** Returns an upper bound on the number of distinct prime factors of the positive {@code int n}. */
+	private static int distinctPrimeFactorBound(final int n) {
+		return n < 30 ? 2 : n < 210 ? 3 : 9; //2*3*5*7*11*13*17*19*23*29 overflows an int.
+	}
+
+	/**
+	 * Returns Euler's totient of {@code n}: the number of positive integers less than or equal to {@code n} that are relatively prime to {@code n}.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static int totient(final int n) {
+		final Tables t = tablesFor(n);
+		if(t != null)
+			return t.totient[n];
+		final Factorization f = factorize(n);
+		int result = n;
+		for(int i = 0; i < f.size(); i++)
+			result = result / f.prime(i) * (f.prime(i) - 1);
+		return result;
+	}
+
+	/**
+	 * Returns the number of positive divisors of {@code n}.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static int divisorCount(final int n) {
+		final Tables t = tablesFor(n);
+		if(t != null)
+			return t.divisorCount[n];
+		final Factorization f = factorize(n);
+		int result = 1;
+		for(int i = 0; i < f.size(); i++)
+			result *= f.exponent(i) + 1;
+		return result;
+	}
+
+	/**
+	 * Returns the sum of the positive divisors of {@code n} (including {@code n} itself).
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static long divisorSum(final int n) {
+		final Tables t = tablesFor(n);
+		if(t != null)
+			return t.divisorSum[n];
+		final Factorization f = factorize(n);
+		long result = 1;
+		for(int i = 0; i < f.size(); i++) {
+			final long p = f.prime(i);
+			long powerSum = 1, power = 1;
+			for(int e = 0; e < f.exponent(i); e++)
+				powerSum += power *= p;
+			result *= powerSum;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the positive divisors of {@code n}, in no particular order. The returned array has a length of {@link #divisorCount(int)
+	 * divisorCount(n)}.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
+	 */
+	public static int[] divisors(final int n) {
+		final Factorization f = factorize(n);
+		int count = 1;
+		for(int i = 0; i < f.size(); i++)
+			count *= f.exponent(i) + 1;
+		final int[] divisors = new int[count];
+		divisors[0] = 1;
+		int size = 1;
+		for(int i = 0; i < f.size(); i++) {
+			final int p = f.prime(i), previousSize = size;
+			int power = 1;
+			for(int e = 0; e < f.exponent(i); e++) {
+				power *= p;
+				for(int j = 0; j < previousSize; j++)
+					divisors[size++] = divisors[j] * power;
+			}
+		}
+		return divisors;
+	}
+
+}
@@ -0,0 +1,243 @@
+package math;
+
+import java.math.BigInteger;
+
+/**
+ * <p>Conversions between numbers and their representations in radixes from {@link Utils#MIN_RADIX} to {@link Utils#MAX_RADIX}. The powers of
+ * every radix that fit in a {@code long} are precomputed, and numbers that fit in a {@code long} are converted without
+ * {@link BigInteger BigIntegers}.</p>
+ *
+ * <p>Digits greater than nine are the letters {@code 'A'} to {@code 'F'}. They are written in upper case and read in either case. A
+ * representation may begin with a sign.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class Radix {
+
+	private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+	/** {@code DIGIT_VALUES[c]} is the value of the digit {@code c}, or {@code -1} if {@code c} is not a digit in any supported radix. */
+	private static final byte[] DIGIT_VALUES = new byte[128];
+	/** {@code POWERS[radix][k]} is {@code radix}<sup>{@code k}</sup>, for every {@code k} for which that fits in a {@code long}. */
+	private static final long[][] POWERS = new long[Utils.MAX_RADIX + 1][];
+
+	static {
+		java.util.Arrays.fill(DIGIT_VALUES, (byte) -1);
+		for(int d = 0; d < DIGITS.length; d++) {
+			DIGIT_VALUES[DIGITS[d]] = (byte) d;
+			DIGIT_VALUES[Character.toLowerCase(DIGITS[d])] = (byte) d;
+		}
+		for(int radix = Utils.MIN_RADIX; radix <= Utils.MAX_RADIX; radix++) {
+			int count = 1;
+			for(long power = 1; power <= Long.MAX_VALUE / radix; power *= radix)
+				count++;
+			final long[] powers = new long[count];
+			powers[0] = 1;
+			for(int k = 1; k < count; k++)
+				powers[k] = powers[k - 1] * radix;
+			POWERS[radix] = powers;
+		}
+	}
+
+	private Radix() {}
+
+	/**
+	 * Returns the number of digits that any non-negative integer with at most that many digits in {@code radix} is guaranteed to fit in a
+	 * {@code long}.
+	 */
+	private static int maxLongDigits(final int radix) {
+		return POWERS[radix].length - 1;
+	}
+
+	private static void checkRadix(final int radix) {
+		if(radix < Utils.MIN_RADIX || radix > Utils.MAX_RADIX)
+			throw new IllegalArgumentException("Unsupported radix: " + radix);
+	}
+
+	/**
+	 * Returns the value of the digit {@code c} in {@code radix}, or {@code -1} if {@code c} is not a digit in {@code radix}.
+	 * @throws IllegalArgumentException if {@code radix} is unsupported.
+	 */
+	public static int digit(final char c, final int radix) {
+		checkRadix(radix);
+		final int value = c < DIGIT_VALUES.length ? DIGIT_VALUES[c] : -1;
+		return value < radix ? value : -1;
+	}
+
+	/**
+	 * Returns {@code radix}<sup>{@code exponent}</sup>.
+	 * @throws IllegalArgumentException if {@code radix} is unsupported or {@code exponent} is negative.
+	 */
+	public static BigInteger power(final int radix, final int exponent) {
+		checkRadix(radix);
+		if(exponent < 0)
+			throw new IllegalArgumentException("exponent must be non-negative");
+		final long[] powers = POWERS[radix];
+		return exponent < powers.length ? BigInteger.valueOf(powers[exponent]) : BigInteger.valueOf(radix).pow(exponent);
+	}
+
+	/**
+	 * Returns {@code value} in {@code radix}.
+	 * @throws IllegalArgumentException if {@code radix} is unsupported.
+	 */
+	public static String toString(final long value, final int radix) {
+		checkRadix(radix);
+		final char[] chars = new char[Long.SIZE + 1];
+		int i = chars.length;
+		long v = value < 0 ? value : -value; //negated so that Long.MIN_VALUE needs no special case.
+		do {
+			chars[--i] = DIGITS[(int) -(v % radix)];
+			v /= radix;
+		} while(v != 0);
+		if(value < 0)
+			chars[--i] = '-';
+		return new String(chars, i, chars.length - i);
+	}
+
+	/**
+	 * Returns {@code value} in {@code radix}.
+	 * @throws IllegalArgumentException if {@code radix} is unsupported.
+	 */
+	public static String toString(final BigInteger value, final int radix) {
+		checkRadix(radix);
+		if(value.bitLength() < Long.SIZE)
+			return toString(value.longValue(), radix);
+		return value.toString(radix).toUpperCase();
+	}
+
+	/**
+	 * Returns the integer {@code number}, given in {@code startRadix}, in {@code endRadix}.
+	 * @throws NumberFormatException if {@code number} is not an integer in {@code startRadix}.
+	 * @throws IllegalArgumentException if either radix is unsupported.
+	 */
+	public static String convert(final String number, final int startRadix, final int endRadix) {
+		checkRadix(startRadix);
+		checkRadix(endRadix);
+		final int start = number.startsWith("-") || number.startsWith("+") ? 1 : 0;
+		if(number.length() - start <= maxLongDigits(startRadix)) {
+			final long magnitude = parseMagnitude(number, start, number.length(), startRadix);
+			return toString(number.charAt(0) == '-' ? -magnitude : magnitude, endRadix);
+		}
+		return new BigInteger(number, startRadix).toString(endRadix).toUpperCase();
+	}
+
+	/**
+	 * Returns the value of the digits of {@code number} from {@code start} (inclusive) to {@code end} (exclusive) in {@code radix}. There must
+	 * be at most {@link #maxLongDigits(int)} of them.
+	 * @throws NumberFormatException if there are no digits or one of the characters is not a digit in {@code radix}.
+	 */
+	private static long parseMagnitude(final String number, final int start, final int end, final int radix) {
+		if(start == end)
+			throw new NumberFormatException("No digits in \"" + number + "\"");
+		long value = 0;
+		for(int i = start; i < end; i++)
+			value = value * radix + digitOrThrow(number, i, radix);
+		return value;
+	}
+
+	private static int digitOrThrow(final String number, final int index, final int radix) {
+		final int digit = digit(number.charAt(index), radix);
+		if(digit < 0)
+			throw new NumberFormatException("For input string: \"" + number + "\" under radix " + radix);
+		return digit;
+	}
+
+	/**
+	 * Returns the value of {@code number}, given in {@code radix}, which may have a radix point ({@code '.'}). There may be no digits on either
+	 * side of the radix point, but there must be at least one digit if there is no radix point.
+	 * @throws NumberFormatException if {@code number} is not a number in {@code radix}.
+	 * @throws IllegalArgumentException if {@code radix} is unsupported.
+	 */
+	public static BigFraction toFraction(final String number, final int radix) {
+		checkRadix(radix);
+		final boolean negative = number.startsWith("-");
+		final int start = negative || number.startsWith("+") ? 1 : 0, dot = number.indexOf('.'), integralEnd = dot < 0 ? number.length() : dot;
+		int end = number.length();
+		if(dot < 0) {
+			if(start == end)
+				throw new NumberFormatException("No digits in \"" + number + "\"");
+		}
+		else {
+			while(end > dot + 1 && number.charAt(end - 1) == '0') //trailing zeros after the radix point do not change the value.
+				end--;
+		}
+		final int fractionalDigits = dot < 0 ? 0 : end - dot - 1;
+		if(integralEnd - start + fractionalDigits <= maxLongDigits(radix)) {
+			long numerator = 0;
+			for(int i = start; i < end; i++)
+				if(i != dot)
+					numerator = numerator * radix + digitOrThrow(number, i, radix);
+			return BigFraction.of(negative ? -numerator : numerator, POWERS[radix][fractionalDigits]);
+		}
+		final BigInteger bigRadix = BigInteger.valueOf(radix);
+		BigInteger numerator = BigInteger.ZERO;
+		for(int i = start; i < end; i++)
+			if(i != dot)
+				numerator = numerator.multiply(bigRadix).add(BigInteger.valueOf(digitOrThrow(number, i, radix)));
+		return BigFraction.of(negative ? numerator.negate() : numerator, power(radix, fractionalDigits));
+	}
+
+	/**
+	 * <p>Returns {@code fraction} in {@code radix}, with as many digits after the radix point as are needed to represent it exactly. The
+	 * digits after the radix point are computed one at a time by long division.</p>
+	 *
+	 * <p>Zero is {@code "0"}. Otherwise, the returned {@code String} always has a radix point, there are no digits before it if
+	 * {@code |fraction| < 1}, and there are no digits after it if {@code fraction} is an integer. For example, one half in radix 2 is
+	 * {@code ".1"} and three is {@code "11."}.</p>
+	 * @throws IllegalArgumentException if {@code radix} is unsupported or {@code fraction} does not terminate in {@code radix} (that is, if its
+	 * denominator has a prime factor that does not divide {@code radix}).
+	 */
+	public static String toString(final BigFraction fraction, final int radix) {
+		checkRadix(radix);
+		if(fraction.isZero())
+			return "0";
+		final BigInteger numerator = fraction.getNumerator(), denominator = fraction.getDenominator();
+		if(!terminates(denominator, radix))
+			throw new IllegalArgumentException(fraction + " does not terminate in radix " + radix);
+		final StringBuilder sb = new StringBuilder();
+		if(fraction.isNegative())
+			sb.append('-');
+		if(numerator.bitLength() < Long.SIZE && denominator.bitLength() < Long.SIZE && denominator.longValue() <= Long.MAX_VALUE / radix) {
+			final long d = denominator.longValue(), integral = numerator.longValue() / d;
+			long remainder = numerator.longValue() % d;
+			if(integral != 0)
+				sb.append(toString(integral, radix));
+			sb.append('.');
+			while(remainder != 0) {
+				remainder *= radix;
+				sb.append(DIGITS[(int) (remainder / d)]);
+				remainder %= d;
+			}
+			return sb.toString();
+		}
+		final BigInteger[] divMod = numerator.divideAndRemainder(denominator);
+		if(divMod[0].signum() != 0)
+			sb.append(toString(divMod[0], radix));
+		sb.append('.');
+		final BigInteger bigRadix = BigInteger.valueOf(radix);
+		BigInteger remainder = divMod[1];
+		while(remainder.signum() != 0) {
+			final BigInteger[] digitAndRemainder = remainder.multiply(bigRadix).divideAndRemainder(denominator);
+			sb.append(DIGITS[digitAndRemainder[0].intValue()]);
+			remainder = digitAndRemainder[1];
+		}
+		return sb.toString();
+	}
+
+	/** Returns {@code true} if every prime factor of the positive {@code denominator} divides {@code radix}, {@code false} otherwise. */
+	private static boolean terminates(BigInteger denominator, final int radix) {
+		if(denominator.bitLength() < Long.SIZE) {
+			long d = denominator.longValue();
+			for(int factor = 2; factor <= radix; factor++)
+				if(radix % factor == 0)
+					while(d % factor == 0)
+						d /= factor;
+			return d == 1;
+		}
+		final BigInteger bigRadix = BigInteger.valueOf(radix);
+		BigInteger gcd;
+		while(!(gcd = denominator.gcd(bigRadix)).equals(BigInteger.ONE))
+			denominator = denominator.divide(gcd);
+		return denominator.equals(BigInteger.ONE);
+	}
+
+}
@@ -1,8 +1,12 @@
 package math;
 
-import java.util.Scanner;
+import java.util.*;
 
 /**
+ * <p>Conversions between integers from {@link #MIN_VALUE} to {@link #MAX_VALUE} and their Roman numerals. The numeral of every integer in that
+ * range and a trie of all of those numerals are built the first time either conversion is used, so converting in either direction takes no
+ * allocation: {@link #toRomanNumerals(int)} is an array lookup, and {@link #fromRomanNumerals(String)} takes one step through the trie per
+ * character.</p>
  * @author Sam Hooper
  *
  */
@@ -31,8 +35,85 @@ public class RomanNumerals {
 	public static final int MAX_VALUE = 4000;
 	public static final int MIN_VALUE = 1;
 	
+	private static final String SYMBOLS = "IVXLCDM";
+	
+	private static final class Tables {
+		
+		/** {@code NUMERALS[n]} is the Roman numeral of {@code n}, for every {@code n} from {@link #MIN_VALUE} to {@link #MAX_VALUE}. */
+		static final String[] NUMERALS = new String[MAX_VALUE + 1];
+		/**
+		 * The trie of the {@link #NUMERALS}. {@code CHILDREN[node * SYMBOLS.length() + symbol]} is the child of {@code node} for the character
+		 * {@code SYMBOLS.charAt(symbol)}, or {@code 0} if there is none. Node {@code 0} is the root (which is never a child).
+		 */
+		static final int[] CHILDREN;
+		/** {@code VALUES[node]} is the value of the numeral that ends at {@code node}, or {@code 0} if no numeral ends there. */
+		static final int[] VALUES;
+		
+		static {
+			int characters = 0;
+			for(int n = MIN_VALUE; n <= MAX_VALUE; n++)
+				characters += (NUMERALS[n] = build(n)).length();
+			final int[] children = new int[(characters + 1) * SYMBOLS.length()], values = new int[characters + 1];
+			int nodeCount = 1;
+			for(int n = MIN_VALUE; n <= MAX_VALUE; n++) {
+				int node = 0;
+				for(int i = 0; i < NUMERALS[n].length(); i++) {
+					final int edge = node * SYMBOLS.length() + SYMBOLS.indexOf(NUMERALS[n].charAt(i));
+					if(children[edge] == 0)
+						children[edge] = nodeCount++;
+					node = children[edge];
+				}
+				values[node] = n;
+			}
+			CHILDREN = Arrays.copyOf(children, nodeCount * SYMBOLS.length());
+			VALUES = Arrays.copyOf(values, nodeCount);
+		}
+		
+	}
+	
+	/**
+	 * Returns the Roman numeral of {@code n}.
+	 * @throws IllegalArgumentException if {@code n} is not between {@link #MIN_VALUE} and {@link #MAX_VALUE} (inclusive).
+	 */
 	public static String toRomanNumerals(int n) {
 		ensureInBounds(n);
+		return Tables.NUMERALS[n];
+	}
+	
+	/**
+	 * Returns the value of the Roman numeral {@code roman}.
+	 * @throws IllegalArgumentException if {@code roman} is not the Roman numeral (in upper case, with no whitespace) of an integer between
+	 * {@link #MIN_VALUE} and {@link #MAX_VALUE} (inclusive).
+	 */
+	public static int fromRomanNumerals(final String roman) {
+		final int value = decode(roman);
+		if(value == 0)
+			throw new IllegalArgumentException(roman + " is not a Roman numeral between " + MIN_VALUE + " and " + MAX_VALUE);
+		return value;
+	}
+	
+	/**
+	 * Returns {@code true} if {@code roman} is the Roman numeral of an integer between {@link #MIN_VALUE} and {@link #MAX_VALUE} (inclusive),
+	 * {@code false} otherwise.
+	 */
+	public static boolean isRomanNumerals(final String roman) {
+		return decode(roman) != 0;
+	}
+	
+	/** Returns the value of {@code roman}, or {@code 0} if it is not a Roman numeral. */
+	private static int decode(final String roman) {
+		final int[] children = Tables.CHILDREN;
+		int node = 0;
+		for(int i = 0; i < roman.length(); i++) {
+			final int symbol = SYMBOLS.indexOf(roman.charAt(i));
+			if(symbol < 0 || (node = children[node * SYMBOLS.length() + symbol]) == 0)
+				return 0;
+		}
+		return Tables.VALUES[node];
+	}
+	
+	/** Builds the Roman numeral of {@code n}. */
+	private static String build(int n) {
 		StringBuilder result = new StringBuilder();
 		int thousands = n / 1000;
 		result.append("M".repeat(thousands));
@@ -47,26 +128,6 @@ public class RomanNumerals {
 		return result.toString();
 	}
 	
-	/** The given String is assumed to be an accurate Roman numeral.*/
-	public static int fromRomanNumerals(final String roman) {
-		int total = 0;
-		for(int i = 0; i < roman.length();) {
-			final String sub = roman.substring(i, i + 1);
-			int value = value(sub);
-			if(i < roman.length() - 1) {
-				int nextValue = value(roman.substring(i + 1, i + 2));
-				if(value < nextValue) {
-					total += nextValue - value;
-					i += 2;
-					continue;
-				}
-			}
-			total += value;
-			i += 1;
-		}
-		return total;
-	}
-	
 	/** Precondition: 0 <= n <= 9 */
 	private static String getHundreds(int n) {
 		return HUNDREDS[n];
@@ -82,18 +143,6 @@ public class RomanNumerals {
 		return ONES[n];
 	}
 	
-	private static int value(String s) {
-		return switch(s) {
-		case "I" -> 1;
-		case "V" -> 5;
-		case "X" -> 10;
-		case "L" -> 50;
-		case "C" -> 100;
-		case "D" -> 500;
-		case "M" -> 1000;
-		default -> throw new IllegalArgumentException(s + " is unrecognized.");
-		};
-	}
 	private static void ensureInBounds(int n) {
 		if(n < MIN_VALUE || n > MAX_VALUE)
 			throw new IllegalArgumentException("n must be between " + MIN_VALUE + " and " + MAX_VALUE);
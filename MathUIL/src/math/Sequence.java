@@ -1,11 +1,15 @@
 package math;
 
 import java.util.*;
+import java.util.stream.*;
 
 /**
  * <p>A positive, non-zero, possibly infinite length sequence of objects intended to represent a sequence in mathematics. {@code Sequences} are immutable;
  * the values of their terms do not change. Sequences use 1-based indexing; the value at index <i>i</i> can be
  * retrieved by {@link #nthTerm(int) nthTerm}{@code (i)}.</p>
+ * 
+ * <p>The {@link #spliterator()} of a {@code Sequence} computes terms on demand and splits its range of indices in half, so the terms of a
+ * {@code Sequence} can be {@link #parallelStream() streamed in parallel}.</p>
  * @author Sam Hooper
  *
  */
@@ -48,10 +52,7 @@ public interface Sequence<T> extends Iterable<T> {
 	default String toFullString() {
 		if(!isFinite())
 			return "INFINITE_SEQUENCE@" + hashCode();
-		StringJoiner j = new StringJoiner(", ");
-		for(T t : this)
-			j.add(t.toString());
-		return j.toString();
+		return stream().map(Object::toString).collect(Collectors.joining(", "));
 	}
 	
 	/**
@@ -154,6 +155,37 @@ public interface Sequence<T> extends Iterable<T> {
 		};
 	}
 	
+	/**
+	 * Returns a {@link Spliterator} over the terms of this {@link Sequence}, from lowest index to greatest. The returned {@code Spliterator} is
+	 * {@link Spliterator#SIZED SIZED} if this {@code Sequence} {@link #isFinite() is finite}. If this {@code Sequence} is infinite, it covers every
+	 * {@code int} index.
+	 */
+	@Override
+	default Spliterator<T> spliterator() {
+		return new SequenceSpliterator<>(this, 1, SequenceSpliterator.endOf(this), isFinite());
+	}
+	
+	/** Returns a sequential {@link Stream} of the terms of this {@link Sequence}, from lowest index to greatest. */
+	default Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	/** Returns a possibly parallel {@link Stream} of the terms of this {@link Sequence}, from lowest index to greatest. */
+	default Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+	
+	/**
+	 * Returns a sequential, {@link Spliterator#SIZED SIZED} {@link Stream} of the terms of this {@link Sequence} from {@code startInclusive} to
+	 * {@code endInclusive}. The {@code Stream} is empty if {@code (startInclusive > endInclusive)}.
+	 * @throws IllegalArgumentException if {@code (startInclusive < 1 || (isFinite() && endInclusive > size()))}.
+	 */
+	default Stream<T> stream(final int startInclusive, final int endInclusive) {
+		if(startInclusive < 1 || isFinite() && endInclusive > size())
+			throw new IllegalArgumentException(String.format("Invalid arguments: startInclusive=%d, endInclusive=%d", startInclusive, endInclusive));
+		return StreamSupport.stream(new SequenceSpliterator<>(this, startInclusive, Math.max(startInclusive, endInclusive + 1L), true), false);
+	}
+	
 	default Sequence<T> subSequence(final int startInclusive, final int endInclusive) {
 		throw new UnsupportedOperationException(); //TODO
 	}
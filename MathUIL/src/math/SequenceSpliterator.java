@@ -0,0 +1,126 @@
+package math;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * <p>A {@link Spliterator} over a range of indices of a {@link Sequence}. Each term is computed with {@link Sequence#nthTerm(int) nthTerm} as it
+ * is traversed, and the range is split in half, so the terms of a long range can be computed in parallel. The spliterator is
+ * {@link #SIZED} if the range was given an end, which is the case for every range of a {@link Sequence#isFinite() finite} {@code Sequence}.</p>
+ * @author Sam Hooper
+ *
+ */
+class SequenceSpliterator<T> implements Spliterator<T> {
+
+	/** The {@link #characteristics()} of every spliterator over a {@link Sequence}. */
+	private static final int CHARACTERISTICS = ORDERED | IMMUTABLE | NONNULL;
+
+	/** A {@link Spliterator.OfLong} over a range of indices of a {@link LongSequence}, which computes terms with {@link LongSequence#nthLong(int)}. */
+	static final class OfLong implements Spliterator.OfLong {
+
+		private final LongSequence sequence;
+		private final boolean sized;
+		private long index;
+		private final long end;
+
+		/** {@code end} is exclusive. */
+		OfLong(final LongSequence sequence, final long index, final long end, final boolean sized) {
+			this.sequence = sequence;
+			this.index = index;
+			this.end = end;
+			this.sized = sized;
+		}
+
+		@Override
+		public boolean tryAdvance(final LongConsumer action) {
+			if(index >= end)
+				return false;
+			action.accept(sequence.nthLong((int) index++));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(final LongConsumer action) {
+			final long end = this.end;
+			for(long i = index; i < end; i++)
+				action.accept(sequence.nthLong((int) i));
+			index = end;
+		}
+
+		@Override
+		public SequenceSpliterator.OfLong trySplit() {
+			final long mid = (index + end) >>> 1;
+			if(mid <= index)
+				return null;
+			final SequenceSpliterator.OfLong prefix = new SequenceSpliterator.OfLong(sequence, index, mid, sized);
+			index = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return end - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return sized ? CHARACTERISTICS | SIZED | SUBSIZED : CHARACTERISTICS;
+		}
+
+	}
+
+	private final Sequence<T> sequence;
+	private final boolean sized;
+	private long index;
+	private final long end;
+
+	/** {@code end} is exclusive. */
+	SequenceSpliterator(final Sequence<T> sequence, final long index, final long end, final boolean sized) {
+		this.sequence = sequence;
+		this.index = index;
+		this.end = end;
+		this.sized = sized;
+	}
+
+	/** Returns the exclusive end of the range of all of the indices of {@code sequence}. */
+	static long endOf(final Sequence<?> sequence) {
+		return sequence.isFinite() ? sequence.size() + 1L : Integer.MAX_VALUE + 1L;
+	}
+
+	@Override
+	public boolean tryAdvance(final Consumer<? super T> action) {
+		if(index >= end)
+			return false;
+		action.accept(sequence.nthTerm((int) index++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(final Consumer<? super T> action) {
+		final long end = this.end;
+		for(long i = index; i < end; i++)
+			action.accept(sequence.nthTerm((int) i));
+		index = end;
+	}
+
+	@Override
+	public SequenceSpliterator<T> trySplit() {
+		final long mid = (index + end) >>> 1;
+		if(mid <= index)
+			return null;
+		final SequenceSpliterator<T> prefix = new SequenceSpliterator<>(sequence, index, mid, sized);
+		index = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return end - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return sized ? CHARACTERISTICS | SIZED | SUBSIZED : CHARACTERISTICS;
+	}
+
+}
@@ -1,7 +1,6 @@
 package math;
 
 import java.math.BigInteger;
-import java.util.function.BinaryOperator;
 
 /**
  * @author Sam Hooper
@@ -32,15 +31,17 @@ public class SpecialSequences {
 	}
 	*/
 	
+	/** Returns the {@code n}th triangular number, which fits in a {@code long} for every non-negative {@code int n}. */
+	private static long triangular(final int n) {
+		return (long) n * (n + 1L) / 2;
+	}
 	
-	public enum Squares implements SummableSequence<BigInteger> {
+	public enum Squares implements BigIntegerSequence {
 		INFINITE;
 		
-		private static final BinaryOperator<BigInteger> SUM_FUNCTION = BigInteger::add;
-		
 		@Override
 		public BigInteger nthTerm(int n) {
-			return BigInteger.valueOf(n).pow(2);
+			return BigInteger.valueOf((long) n * n);
 		}
 
 		@Override
@@ -48,11 +49,6 @@ public class SpecialSequences {
 			return -1;
 		}
 
-		@Override
-		public BigInteger sum(int startInclusive) {
-			throw new ArithmeticException("This sequence does not have a finite sum");
-		}
-		
 		@Override
 		public BigInteger sum(int startInclusive, int endInclusive) {
 			if(startInclusive > endInclusive || (isFinite() && endInclusive > size()) || startInclusive < 1)
@@ -65,18 +61,11 @@ public class SpecialSequences {
 			return bigN.multiply(bigN.add(BigInteger.ONE)).multiply(BigInteger.TWO.multiply(bigN).add(BigInteger.ONE)).divide(BigInteger.valueOf(6));
 		}
 
-		@Override
-		public BinaryOperator<BigInteger> sumFunction() {
-			return SUM_FUNCTION;
-		}
-		
 	}
 	
-	public enum Cubes implements SummableSequence<BigInteger> {
+	public enum Cubes implements BigIntegerSequence {
 		INFINITE;
 		
-		private static final BinaryOperator<BigInteger> SUM_FUNCTION = BigInteger::add;
-		
 		@Override
 		public BigInteger nthTerm(int n) {
 			return BigInteger.valueOf(n).pow(3);
@@ -87,11 +76,6 @@ public class SpecialSequences {
 			return -1;
 		}
 		
-		@Override
-		public BigInteger sum(int startInclusive) {
-			throw new ArithmeticException("This sequence does not have a finite sum");
-		}
-		
 		@Override
 		public BigInteger sum(int startInclusive, int endInclusive) {
 			if(startInclusive > endInclusive || (isFinite() && endInclusive > size()) || startInclusive < 1)
@@ -101,23 +85,17 @@ public class SpecialSequences {
 		
 		public BigInteger sumFirstN(final int n) {
 			//The sum of the first N cubes is (nth triangular number)^2
-			return BigInteger.valueOf(NumberAdjectives.sGonalNumber(3, n)).pow(2);
+			return BigInteger.valueOf(triangular(n)).pow(2);
 		}
 		
-		@Override
-		public BinaryOperator<BigInteger> sumFunction() {
-			return SUM_FUNCTION;
-		}
 	}
 	
-	public enum Triangles implements SummableSequence<BigInteger>  {
+	public enum Triangles implements BigIntegerSequence {
 		INFINITE;
 		
-		private static final BinaryOperator<BigInteger> SUM_FUNCTION = BigInteger::add;
-		
 		@Override
 		public BigInteger nthTerm(int n) {
-			return BigInteger.valueOf(NumberAdjectives.sGonalNumber(3, n));
+			return BigInteger.valueOf(triangular(n));
 		}
 
 		@Override
@@ -125,11 +103,6 @@ public class SpecialSequences {
 			return -1;
 		}
 
-		@Override
-		public BigInteger sum(int startInclusive) {
-			throw new ArithmeticException("This sequence does not have a finite sum");
-		}
-		
 		@Override
 		public BigInteger sum(int startInclusive, int endInclusive) {
 			if(startInclusive > endInclusive || (isFinite() && endInclusive > size()) || startInclusive < 1)
@@ -141,10 +114,6 @@ public class SpecialSequences {
 			final BigInteger bigN = BigInteger.valueOf(n);
 			return bigN.multiply(bigN.add(BigInteger.ONE)).multiply(bigN.add(BigInteger.TWO)).divide(BigInteger.valueOf(6));
 		}
-
-		@Override
-		public BinaryOperator<BigInteger> sumFunction() {
-			return SUM_FUNCTION;
-		}
+		
 	}
 }
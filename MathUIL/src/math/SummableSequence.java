@@ -1,12 +1,17 @@
 package math;
 
 import java.util.function.*;
+import java.util.stream.Stream;
 
 /**
  * @author Sam Hooper
  *
  */
 public interface SummableSequence<T> extends Sequence<T> {
+	
+	/** The number of terms above which {@link #sum(int, int)} sums the terms in parallel (unless it is overridden). */
+	public static final int PARALLEL_SUM_THRESHOLD = 1 << 12;
+	
 	/**
 	 * Returns the sum all the terms in this {@link SummableSequence}. If this {@link Sequence} {@link #isFinite() is finite},
 	 * this method is equivalent to:
@@ -25,17 +30,16 @@ public interface SummableSequence<T> extends Sequence<T> {
 	/**
 	 * Returns the sum of the terms in this sequence between {@code startInclusive} and {@code endInclusive}, according to
 	 * the {@link #sumFunction()}. If
-	 * {@code (startInclusive == endInclusive)}, returns {@link #nthTerm(int) nthTerm}{@code (startInclusive)}.
+	 * {@code (startInclusive == endInclusive)}, returns {@link #nthTerm(int) nthTerm}{@code (startInclusive)}. Unless it is overridden with a closed
+	 * form, this method reduces the {@link #stream(int, int) stream} of the terms, in parallel if there are more than
+	 * {@link #PARALLEL_SUM_THRESHOLD} of them.
 	 * @throws IllegalArgumentException if {@code (startInclusive > endInclusive || (isFinite() && endInclusive > size()) || startInclusive < 1)}.
 	 */
 	default T sum(int startInclusive, int endInclusive) {
 		if(startInclusive > endInclusive || (isFinite() && endInclusive > size()) || startInclusive < 1)
 			throw new IllegalArgumentException(String.format("Invalid arguments: startInclusive=%d, endInclusive=%d", startInclusive, endInclusive));
-		T total = nthTerm(startInclusive);
-		for(int i = startInclusive + 1; i <= endInclusive; i++)
-			total = sumFunction().apply(total, nthTerm(i));
-		return total;
-			
+		final Stream<T> terms = stream(startInclusive, endInclusive);
+		return (endInclusive - startInclusive >= PARALLEL_SUM_THRESHOLD ? terms.parallel() : terms).reduce(sumFunction()).get();
 	}
 	
 	/**
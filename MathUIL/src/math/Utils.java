@@ -81,6 +81,28 @@ public class Utils {
 		return baseToPositiveExponent;
 	}
 	
+	/**
+	 * Returns {@code base} raised to the power of {@code exponent}, with every intermediate result rounded using {@code mc}, so that only as many
+	 * digits as {@code mc} requires are computed. Returns {@link BigDecimal#ONE} if {@code (exponent.compareTo(BigDecimal.ZERO) == 0)} regardless
+	 * of what {@code base} is. If {@code exponent} is not an integer, the fractional part of the power is computed with {@code double} arithmetic,
+	 * so the result has at most about 15 accurate digits. Unlike {@link #pow(BigDecimal, BigDecimal)}, this method does not round {@code exponent}
+	 * to 14 digits first, so its result may differ from that method's in the last few of those digits, and is closer to the exact value.
+	 */
+	public static BigDecimal pow(final BigDecimal base, final BigDecimal exponent, final MathContext mc) {
+		if(exponent.signum() == 0)
+			return BigDecimal.ONE;
+		final BigDecimal positiveExponent = exponent.abs();
+		if(positiveExponent.compareTo(MAX_INTEGER_POWER) > 0)
+			return new BigDecimal(Math.pow(base.doubleValue(), exponent.doubleValue()), mc);
+		final BigDecimal[] divMod = positiveExponent.divideAndRemainder(BigDecimal.ONE);
+		BigDecimal baseToPositiveExponent = base.pow(divMod[0].intValueExact(), mc);
+		if(divMod[1].signum() != 0)
+			baseToPositiveExponent = baseToPositiveExponent.multiply(BigDecimal.valueOf(Math.pow(base.doubleValue(), divMod[1].doubleValue())), mc);
+		if(isNegative(exponent))
+			return BigDecimal.ONE.divide(baseToPositiveExponent, mc);
+		return baseToPositiveExponent;
+	}
+	
 	/** {@code exponent} must be >= 0. Returns 1 for 0^0*/
 	public static long pow(final long base, final long exponent) {
 		//TODO make running time O(log(n)) instead of O(n)
@@ -92,6 +114,25 @@ public class Utils {
 		return result;
 	}
 	
+	/**
+	 * Returns {@code base} raised to the power of {@code exponent}, computed in O(log(exponent)) multiplications. Returns 1 for 0^0.
+	 * @throws IllegalArgumentException if {@code exponent < 0}.
+	 * @throws ArithmeticException if the result overflows a {@code long}.
+	 */
+	public static long powExact(long base, int exponent) {
+		if(exponent < 0)
+			throw new IllegalArgumentException("exponent must be greater than or equal to 0");
+		long result = 1;
+		while(true) {
+			if((exponent & 1) != 0)
+				result = Math.multiplyExact(result, base);
+			exponent >>>= 1;
+			if(exponent == 0)
+				return result;
+			base = Math.multiplyExact(base, base);
+		}
+	}
+
 	public static BigDecimal piTo(final int nonNegativeExponent) {
 		if(nonNegativeExponent > MAX_INTEGER_POWER_AS_INT)
 			throw new IllegalArgumentException("exponent is too large");
@@ -120,25 +161,101 @@ public class Utils {
 		return !isNegative(n);
 	}
 	
+	/**
+	 * Returns the greatest common divisor of {@code a} and {@code b}, which is always positive.
+	 * @throws IllegalArgumentException if either number is zero.
+	 * @throws ArithmeticException if the result overflows an {@code int} (that is, if both numbers are {@link Integer#MIN_VALUE}).
+	 */
 	public static int gcd(int a, int b) {
+		return Math.toIntExact(gcd((long) a, (long) b));
+	}
+	
+	/**
+	 * Returns the greatest common divisor of {@code a} and {@code b}, which is always positive.
+	 * @throws IllegalArgumentException if either number is zero.
+	 * @throws ArithmeticException if the result overflows a {@code long} (that is, if both numbers are {@link Long#MIN_VALUE}).
+	 */
+	public static long gcd(long a, long b) {
 		if(a == 0 || b == 0)
 			throw new IllegalArgumentException("numbers cannot be zero");
-		if(b > a) {
-			int temp = a;
-			a = b;
-			b = temp;
-		}
-		while(a != b) {
-			if(a > b)
-				a = a - b;
-			else
-				b = b - a;
+		final long gcd = binaryGcd(Math.abs(a), Math.abs(b));
+		if(gcd < 0)
+			throw new ArithmeticException("long overflow");
+		return gcd;
+	}
+	
+	/**
+	 * Returns the greatest common divisor of the numbers in {@code list}, which is always positive.
+	 * @throws IllegalArgumentException if {@code list} is empty or contains zero.
+	 * @throws ArithmeticException if the result overflows an {@code int}.
+	 */
+	public static int gcd(final IntList list) {
+		if(list.isEmpty())
+			throw new IllegalArgumentException("list cannot be empty");
+		long gcd = 0;
+		for(int i = 0; i < list.size(); i++) {
+			if(list.get(i) == 0)
+				throw new IllegalArgumentException("numbers cannot be zero");
+			if(gcd != 1) //once the gcd is one, it stays one, but the rest of the list must still be checked for zeros.
+				gcd = binaryGcd(gcd, Math.abs((long) list.get(i)));
 		}
-		return a;
+		return Math.toIntExact(gcd);
 	}
 	
+	/**
+	 * Returns the greatest common divisor of {@code a} and {@code b}, treated as unsigned, using Stein's binary GCD algorithm. Returns the
+	 * other number if either is zero. Since {@code Math.abs(Long.MIN_VALUE)} is {@code 2}<sup>{@code 63}</sup> when treated as unsigned, this
+	 * may be called with the absolute values of any {@code longs}.
+	 */
+	static long binaryGcd(long a, long b) {
+		if(a == 0)
+			return b;
+		if(b == 0)
+			return a;
+		final int shift = Long.numberOfTrailingZeros(a | b);
+		a >>>= Long.numberOfTrailingZeros(a);
+		do {
+			b >>>= Long.numberOfTrailingZeros(b);
+			if(Long.compareUnsigned(a, b) > 0) {
+				final long t = a;
+				a = b;
+				b = t;
+			}
+			b -= a;
+		} while(b != 0);
+		return a << shift;
+	}
+	
+	/**
+	 * Returns the least common multiple of {@code a} and {@code b}, which is always positive.
+	 * @throws IllegalArgumentException if either number is zero.
+	 * @throws ArithmeticException if the result overflows an {@code int}.
+	 */
 	public static int lcm(int a, int b) {
-		return a * b / gcd(a, b);
+		return Math.toIntExact(lcm((long) a, (long) b));
+	}
+	
+	/**
+	 * Returns the least common multiple of {@code a} and {@code b}, which is always positive.
+	 * @throws IllegalArgumentException if either number is zero.
+	 * @throws ArithmeticException if the result overflows a {@code long}.
+	 */
+	public static long lcm(long a, long b) {
+		return Math.multiplyExact(Math.absExact(a / gcd(a, b)), Math.absExact(b));
+	}
+	
+	/**
+	 * Returns the least common multiple of the numbers in {@code list}, which is always positive.
+	 * @throws IllegalArgumentException if {@code list} is empty or contains zero.
+	 * @throws ArithmeticException if the result overflows a {@code long}.
+	 */
+	public static long lcm(final IntList list) {
+		if(list.isEmpty())
+			throw new IllegalArgumentException("list cannot be empty");
+		long lcm = 1;
+		for(int i = 0; i < list.size(); i++)
+			lcm = lcm(lcm, list.get(i));
+		return lcm;
 	}
 	
 	
@@ -219,7 +336,7 @@ public class Utils {
 	 * @param radix
 	 * @return
 	 */
-	public static boolean isInteger(String s, final int radix) {
+	public static boolean isInteger(final String s, final int radix) {
 		if(radix < MIN_RADIX || radix > MAX_RADIX)
 			throw new IllegalArgumentException("Radix " + radix + " is unsupported");
 		if(s.isEmpty())
@@ -227,10 +344,8 @@ public class Utils {
 		int i = s.charAt(0) == '-' ? 1 : 0;
 		if(i == s.length())
 			return false;
-		s = s.toUpperCase();
-		List<Character> subList = RADIX_CHARS.subList(0, radix);
 		for(int j = i; j < s.length(); j++)
-			if(!subList.contains(s.charAt(j)))
+			if(Radix.digit(s.charAt(j), radix) < 0)
 				return false;
 		return true;
 	}
@@ -287,49 +402,23 @@ public class Utils {
 	
 	/**
 	 * Returns an {@link IntList} containing the factors of {@code n}. The elements in the returned list are unique but are in no particular order.
+	 * The factors are generated from the {@link PrimeSieve#factorize(int) prime factorization} of {@code n}.
 	 * @throws IllegalArgumentException if {@code n <= 0}.
 	 */
 	public static IntList factorsUnsorted(final int n) {
-		if(n <= 0)
-			throw new IllegalArgumentException("n must be greater than 0");
-		IntList facs = new IntList();
-		final int sqrt = (int) Math.sqrt(n);
-		for(int i = 1; i <= sqrt; i++) {
-			if(n % i == 0) {
-				facs.add(i);
-				if(i != n / i) {
-					facs.add(n / i);
-				}
-			}
-		}
-		return facs;
+		return new IntList(PrimeSieve.divisors(n));
 	}
 	
 	/**
 	 * Returns a {@link SortedMap} where the keys are the prime factors of {@code n} and the values are the powers of those factors.
 	 * For example, {@code primeFactorization(12)} would produce the map:
 	 * <pre><code>{2=2, 3=1}</code></pre>
-	 * to represent 2^2 * 3^1.  
-	 * @param n
-	 * @return
+	 * to represent 2^2 * 3^1. {@link PrimeSieve#factorize(int)} gives the same factorization without boxing.
+	 * @throws IllegalArgumentException if {@code n <= 0}.
 	 */
 	public static SortedMap<Integer, Integer> primeFactorization(int n) {
-		SortedMap<Integer, Integer> map = new TreeMap<>();
-        while (n % 2 == 0) {
-        	map.put(2, map.getOrDefault(2, 0) + 1);
-            n /= 2; 
-        }
-  
-		for (int i = 3; i <= (int) Math.sqrt(n); i += 2)  { 
-            while (n % i == 0) { 
-                map.put(i, map.getOrDefault(i, 0) + 1);
-                n /= i; 
-            } 
-        }
-        if(n > 2)
-        	map.put(n, 1);
-        return map;
-    }
+		return PrimeSieve.factorize(n).toSortedMap();
+	}
 	
 	public static IntStream digits(int n) {
 		int[] arr = new int[magnitude(n)];
@@ -340,88 +429,164 @@ public class Utils {
 		return Arrays.stream(arr);
 	}
 	
-	private static final ArrayList<BigInteger> MEMOIZED_FACTORIALS = new ArrayList<>(16);
+	/** The largest {@code n} for which {@code n!} fits in a {@code long}. */
+	public static final int MAX_LONG_FACTORIAL = 20;
+	/** The largest {@code n} for which every {@code C(n, r)} fits in a {@code long}. */
+	public static final int MAX_LONG_BINOMIAL_ROW = 66;
+	/** The largest {@code n} whose factorial is kept once it has been computed. */
+	private static final int MAX_CACHED_FACTORIAL = 256;
+	
+	private static final long[] LONG_FACTORIALS = new long[MAX_LONG_FACTORIAL + 1];
+	/** {@code FACTORIALS[n]} is {@code n!}, or {@code null} if it has not been computed yet. */
+	private static final BigInteger[] FACTORIALS = new BigInteger[MAX_CACHED_FACTORIAL + 1];
+	/** {@code PASCAL[n][r]} is {@code C(n, r)}. */
+	private static final long[][] PASCAL = new long[MAX_LONG_BINOMIAL_ROW + 1][];
 	
 	static {
-		MEMOIZED_FACTORIALS.add(BigInteger.ONE);
-		MEMOIZED_FACTORIALS.add(BigInteger.ONE);
-		MEMOIZED_FACTORIALS.add(BigInteger.TWO);
+		LONG_FACTORIALS[0] = 1;
+		for(int i = 1; i <= MAX_LONG_FACTORIAL; i++)
+			LONG_FACTORIALS[i] = LONG_FACTORIALS[i - 1] * i;
+		for(int i = 0; i <= MAX_LONG_FACTORIAL; i++)
+			FACTORIALS[i] = BigInteger.valueOf(LONG_FACTORIALS[i]);
+		for(int n = 0; n <= MAX_LONG_BINOMIAL_ROW; n++) {
+			PASCAL[n] = new long[n + 1];
+			PASCAL[n][0] = PASCAL[n][n] = 1;
+			for(int r = 1; r < n; r++)
+				PASCAL[n][r] = PASCAL[n - 1][r - 1] + PASCAL[n - 1][r];
+		}
 	}
+	
 	/**
-	 * Returns n factorial, or <i>n!</i>
+	 * Returns n factorial, or <i>n!</i>. Factorials up to {@code 256!} are computed once and shared, and larger ones are computed from
+	 * {@code 256!}. This method is thread-safe.
+	 * @throws IllegalArgumentException if {@code n < 0}.
 	 */
 	public static BigInteger factorial(int n) {
-		while(MEMOIZED_FACTORIALS.size() <= n)
-			MEMOIZED_FACTORIALS.add(BigInteger.valueOf(MEMOIZED_FACTORIALS.size()).multiply(MEMOIZED_FACTORIALS.get(MEMOIZED_FACTORIALS.size() - 1)));
-		return MEMOIZED_FACTORIALS.get(n);
+		if(n < 0)
+			throw new IllegalArgumentException("n must be greater than or equal to 0");
+		if(n > MAX_CACHED_FACTORIAL)
+			return factorial(MAX_CACHED_FACTORIAL).multiply(product(MAX_CACHED_FACTORIAL + 1, n));
+		BigInteger result = FACTORIALS[n];
+		if(result != null)
+			return result;
+		int k = n;
+		while(FACTORIALS[k] == null)
+			k--;
+		result = FACTORIALS[k];
+		while(k < n) {
+			result = result.multiply(BigInteger.valueOf(++k));
+			FACTORIALS[k] = result; //racy, but every thread stores an equal, immutable value.
+		}
+		return result;
 	}
 	
-	public static BigInteger nPr(final int n, final int r) {
+	/**
+	 * Returns n factorial as a {@code long}.
+	 * @throws IllegalArgumentException if {@code n < 0}.
+	 * @throws ArithmeticException if {@code n!} does not fit in a {@code long} (that is, if {@code n > }{@link #MAX_LONG_FACTORIAL}).
+	 */
+	public static long factorialExact(int n) {
+		if(n < 0)
+			throw new IllegalArgumentException("n must be greater than or equal to 0");
+		if(n > MAX_LONG_FACTORIAL)
+			throw new ArithmeticException("Factorial is not a long: " + n);
+		return LONG_FACTORIALS[n];
+	}
+	
+	/** Returns the product of the integers from {@code from} to {@code to} (inclusive), or {@code 1} if {@code from > to}. */
+	private static BigInteger product(int from, int to) {
+		if(from > to)
+			return BigInteger.ONE;
+		if(to - from < 16) { //multiply small factors in a long for as long as it cannot overflow.
+			BigInteger result = BigInteger.ONE;
+			long partial = 1;
+			for(long i = from; i <= to; i++) {
+				if(partial > Long.MAX_VALUE / i) {
+					result = result.multiply(BigInteger.valueOf(partial));
+					partial = 1;
+				}
+				partial *= i;
+			}
+			return result.multiply(BigInteger.valueOf(partial));
+		}
+		//splitting the product in halves keeps the operands of the large multiplications balanced.
+		final int mid = (int) (((long) from + to) >>> 1);
+		return product(from, mid).multiply(product(mid + 1, to));
+	}
+	
+	private static void checkPermutationArguments(final int n, final int r) {
 		if(n < 0 || r < 0 || r > n)
 			throw new IllegalArgumentException(String.format("Invalid arguments: n=%d, r=%d", n, r));
-		return factorial(n).divide(factorial(n - r));
 	}
 	
+	/** Returns the number of permutations of {@code r} items chosen from {@code n}: {@code n!/(n-r)!}, computed as {@code n(n-1)...(n-r+1)}. */
+	public static BigInteger nPr(final int n, final int r) {
+		checkPermutationArguments(n, r);
+		return product(n - r + 1, n);
+	}
+	
+	/**
+	 * Returns {@link #nPr(int, int) nPr(n, r)} as a {@code long}.
+	 * @throws ArithmeticException if the result does not fit in a {@code long}.
+	 */
+	public static long nPrExact(final int n, final int r) {
+		checkPermutationArguments(n, r);
+		long result = 1;
+		for(long i = n - r + 1; i <= n; i++)
+			result = Math.multiplyExact(result, i);
+		return result;
+	}
+	
+	/** Returns the number of combinations of {@code r} items chosen from {@code n}: {@code n!/(r!(n-r)!)}. */
 	public static BigInteger nCr(final int n, final int r) {
-		return nPr(n, r).divide(factorial(r));
+		checkPermutationArguments(n, r);
+		if(n <= MAX_LONG_BINOMIAL_ROW)
+			return BigInteger.valueOf(PASCAL[n][r]);
+		final int k = Math.min(r, n - r);
+		BigInteger result = BigInteger.ONE;
+		for(int i = 1; i <= k; i++) //each partial result is C(n - k + i, i), so every division is exact.
+			result = result.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+		return result;
+	}
+	
+	/**
+	 * Returns {@link #nCr(int, int) nCr(n, r)} as a {@code long}.
+	 * @throws ArithmeticException if the result does not fit in a {@code long}.
+	 */
+	public static long nCrExact(final int n, final int r) {
+		checkPermutationArguments(n, r);
+		if(n <= MAX_LONG_BINOMIAL_ROW)
+			return PASCAL[n][r];
+		return nCr(n, r).longValueExact();
 	}
 	
 	/**
 	 * {@code number} is assumed to be {@link #isInteger(String, int) an integer}. Any letters in the returned {@code String} will
-	 * be capitalized.
+	 * be capitalized. See {@link Radix#convert(String, int, int)}.
 	 */
 	public static String convertBase(String number, int startRadix, int endRadix) {
-		return new BigInteger(number, startRadix).toString(endRadix).toUpperCase();
+		return Radix.convert(number, startRadix, endRadix);
 	}
 	
 	/**
 	 * {@code number} may have a radix point (that is, it need not be an integer). The radix point is assumed to be the period
-	 * character ('.').
+	 * character ('.'). See {@link Radix#toFraction(String, int)}.
 	 * @param number
 	 * @param radix
 	 * @return
 	 */
 	public static BigFraction toBase10Fraction(String number, int radix) {
-		int dotIndex = number.indexOf('.');
-		if(dotIndex < 0)
-			return BigFraction.of(new BigInteger(number, radix), BigInteger.ONE);
-		number = Strings.stripTrailing(number, '0'); //we know it has a decimal point, so this is okay.
-		BigFraction integral = dotIndex == 0 ? BigFraction.ZERO : BigFraction.of(new BigInteger(number.substring(0, dotIndex), radix), BigInteger.ONE);
-		if(dotIndex == number.length() - 1)
-			return integral;
-		String afterDot = number.substring(dotIndex + 1);
-		BigFraction frac = BigFraction.of(new BigInteger(afterDot, radix), BigInteger.valueOf(radix).pow(afterDot.length()));
-		return integral.add(frac);
+		return Radix.toFraction(number, radix);
 	}
 	
 	/**
 	 * Converts the given {@link BigFraction} to a {@code String} in the given radix. {@code endRadix} must be between {@link #MIN_RADIX} and
-	 * {@link #MAX_RADIX} (inclusive). {@code fraction} must be equivalent to a fraction whose denominator is an integer power of {@code endRadix},
-	 * or an {@link IllegalArgumentException} is thrown.
+	 * {@link #MAX_RADIX} (inclusive). {@code fraction} must be equivalent to a fraction whose denominator divides an integer power of
+	 * {@code endRadix}, or an {@link IllegalArgumentException} is thrown. See {@link Radix#toString(BigFraction, int)}.
 	 * @return
 	 */
 	public static String toDecimal(final BigFraction fraction, final int endRadix) {
-		if(endRadix < MIN_RADIX || endRadix > MAX_RADIX)
-			throw new IllegalArgumentException("Unsupported radix: " + endRadix);
-		if(fraction.isZero())
-			return "0";
-		BigInteger oldNum = fraction.getNumerator();
-		BigInteger oldDenom = fraction.getDenominator();
-		BigInteger endRadixAsBigInteger = BigInteger.valueOf(endRadix);
-		BigInteger newDenom = oldDenom;
-		int multiple = 1;
-		while(!isIntegerPower(newDenom, endRadixAsBigInteger) && multiple < endRadix) {
-			newDenom = newDenom.add(oldDenom);
-			multiple++;
-		}
-		if(!isIntegerPower(newDenom, endRadixAsBigInteger))
-			throw new UnsupportedOperationException("Only fractions with a denominator that is an integer power of the radix are supported");
-		BigInteger newNum = oldNum.multiply(BigInteger.valueOf(multiple));
-		String numToRadix = newNum.toString(endRadix);
-		int log = log(BigInteger.valueOf(endRadix), newDenom);
-		if(numToRadix.length() - log < 0)
-			numToRadix = "0".repeat(log - numToRadix.length()) + numToRadix;
-		return (fraction.isNegative() ? "-" : "") + new StringBuilder(numToRadix).insert(numToRadix.length() - log, '.').toString();
+		return Radix.toString(fraction, endRadix);
 	}
 	
 	/**
@@ -433,24 +598,36 @@ public class Utils {
 			throw new ArithmeticException();
 		if(b.compareTo(BigInteger.ONE) == 0)
 			throw new ArithmeticException();
-		if(a.compareTo(BigInteger.ONE) == 0)
-			return 0;
-		
-		BigInteger pow = b;
-		int multiple = 1;
-		while(true) {
-			int comp = pow.compareTo(a);
-			if(comp > 0)
-				throw new ArithmeticException();
-			if(comp == 0)
-				return multiple;
-			else {
-				pow = pow.multiply(b);
-				multiple++;
-				if(multiple < 0) //it overflowed
-					throw new ArithmeticException();
-			}
+		final int log = exactLog(b, a);
+		if(log < 0)
+			throw new ArithmeticException();
+		return log;
+	}
+	
+	/**
+	 * Returns log<sub>{@code b}</sub>{@code (a)} if it is an {@code int}, or {@code -1} otherwise. {@code a} must be positive and {@code b} must be
+	 * greater than one. If both fit in a {@code long}, {@code a} is divided by {@code b} until it is not divisible; otherwise, the logarithm is estimated
+	 * from {@code double} approximations and checked with a single {@link BigInteger#pow(int)}.
+	 */
+	private static int exactLog(final BigInteger b, final BigInteger a) {
+		if(a.bitLength() < Long.SIZE) {
+			long x = a.longValue();
+			if(b.bitLength() >= Long.SIZE)
+				return x == 1 ? 0 : -1;
+			final long base = b.longValue();
+			int log = 0;
+			for(; x % base == 0; x /= base)
+				log++;
+			return x == 1 ? log : -1;
 		}
+		final long estimate = Math.round(ln(a) / ln(b));
+		return estimate > 0 && estimate <= Integer.MAX_VALUE && b.pow((int) estimate).equals(a) ? (int) estimate : -1;
+	}
+	
+	/** Returns the natural logarithm of the positive {@code x}, to about the precision of a {@code double}. */
+	private static double ln(final BigInteger x) {
+		final int shift = Math.max(0, x.bitLength() - Long.SIZE + 1);
+		return Math.log(x.shiftRight(shift).doubleValue()) + shift * Math.log(2);
 	}
 	
 	/**
@@ -466,14 +643,9 @@ public class Utils {
 			return BigNumbers.isZero(x) || x.compareTo(BigInteger.ONE) == 0;
 		else if(BigNumbers.isZero(x))
 			return false;
-		while(true) {
-			BigInteger[] divMod = x.divideAndRemainder(y);
-			if(BigNumbers.isZero(divMod[1]))
-				x = divMod[0];
-			else
-				break;
-		}
-		return x.compareTo(BigInteger.ONE) == 0;
+		else if(y.compareTo(BigInteger.ONE) == 0)
+			return x.compareTo(BigInteger.ONE) == 0;
+		return exactLog(y, x) >= 0;
 	}
 	
 	/**
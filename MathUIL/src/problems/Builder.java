@@ -30,6 +30,27 @@ import utils.Strings;
 public class Builder {
 	
 	public static final BigDecimal DEFAULT_APPROXIMATION_PERCENT = new BigDecimal("0.05");
+	/**
+	 * The number of significant digits computed for the result of an approximation problem beyond those needed to resolve its approximation
+	 * percent, so that rounding the result cannot noticeably move the window of accepted answers.
+	 */
+	private static final int APPROXIMATION_GUARD_DIGITS = 6;
+	/** The {@link #approximationContext(BigDecimal) approximation context} for {@link #DEFAULT_APPROXIMATION_PERCENT}. */
+	public static final MathContext DEFAULT_APPROXIMATION_CONTEXT = approximationContext(DEFAULT_APPROXIMATION_PERCENT);
+	
+	/**
+	 * Returns the {@link MathContext} with which the result of an approximation problem with the given approximation percent should be computed.
+	 * For a percent of {@code 0.05}, the result needs two significant digits to land in the right window, and {@link #APPROXIMATION_GUARD_DIGITS}
+	 * more are added. Computing the result (for example, with {@link Evaluator#evaluateAsBigDecimalExact(String, MathContext)}) to this
+	 * precision rather than to the full default precision is much cheaper.
+	 * @throws IllegalArgumentException if {@code approximationPercent} is not positive.
+	 */
+	public static MathContext approximationContext(final BigDecimal approximationPercent) {
+		if(approximationPercent.signum() <= 0)
+			throw new IllegalArgumentException("approximationPercent must be positive");
+		final int leadingDigitPosition = approximationPercent.precision() - approximationPercent.scale() - 1; //floor(log10(approximationPercent))
+		return new MathContext(Math.max(1, -leadingDigitPosition) + APPROXIMATION_GUARD_DIGITS, RoundingMode.HALF_UP);
+	}
 	
 	/**
 	 * <p>A call to <pre><code>{@code approximation(html, result)}</code></pre> is equivalent to:
@@ -42,10 +63,12 @@ public class Builder {
 	/**
 	 * <p>Returns an {@link NumericProblem#isApproximateResult() approximate} {@link NumericProblem} with an
 	 * {@link NumericProblem#approximationPercent() approximation percent} of {@code approximationPercent}, a correct answer of {@code result},
-	 * and a {@link NumericProblem#displayString() display String} of {@code htmlFormattedText}.</p>
+	 * and a {@link NumericProblem#displayString() display String} of {@code htmlFormattedText}. If {@code result} has a negative scale (as a
+	 * result rounded to few digits often does), it is given a scale of zero so that the answer is displayed without an exponent.</p>
 	 * */
 	public static NumericProblem approximation(final BigDecimal approximationPercent, String htmlFormattedText, final BigDecimal result) {
-		return of(htmlFormattedText).setApproximate(true).setApproximationPercent(approximationPercent).addResult(result).build();
+		final BigDecimal plainResult = result.scale() < 0 ? result.setScale(0) : result;
+		return of(htmlFormattedText).setApproximate(true).setApproximationPercent(approximationPercent).addResult(plainResult).build();
 	}
 	
 	/** 
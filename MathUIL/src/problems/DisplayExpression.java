@@ -7,8 +7,9 @@ import java.util.function.Function;
 import math.*;
 
 /**
- * A class that allows for a mathematical expression to be built and displayed. The expression can be evaluated to produce a {@link Complex} result, or
- * converted to {@link Prettifier pretty} {@link #toMathML() MathML string}.
+ * A class that allows for a mathematical expression to be built and displayed. The expression can be evaluated to produce a {@link Complex} or
+ * exact {@link BigFraction} result, or converted to {@link Prettifier pretty} {@link #toMathML() MathML string}. Terms are given to the
+ * {@link Evaluator} as objects, so they are never converted to text and parsed again when the expression is evaluated.
  * @author Sam Hooper
  *
  */
@@ -56,6 +57,11 @@ public class DisplayExpression {
 			return infoFor(object).evaluable(object);
 		}
 		
+		/** Returns this token as a part accepted by {@link Evaluator#compile(List)}. */
+		public Object toPart() {
+			return object;
+		}
+		
 		public String toMathML() {
 			return infoFor(object).mathML(object);
 		}
@@ -106,7 +112,8 @@ public class DisplayExpression {
 	 * <ul>
 	 * <li>{@link BigInteger}</li>
 	 * <li>{@link BigDecimal}</li>
-	 * <li>{@link Complex} (NOTE: there will <b>not</b> be parentheses placed around a+bi)</li>
+	 * <li>{@link Complex} (NOTE: there will <b>not</b> be parentheses placed around a+bi in the {@link #toEvaluableString() evaluable string} or
+	 * the {@link #toMathML() MathML}, but it is evaluated as a single term)</li>
 	 * <li>{@link BigFraction}</li>
 	 * <li>{@link MixedNumber}</li>
 	 * </ul>
@@ -130,7 +137,28 @@ public class DisplayExpression {
 	}
 	
 	public Complex evaluateAsComplex() {
-		return Evaluator.evaluateAsComplex(toEvaluableString());
+		return compile().evaluateAsComplex();
+	}
+	
+	/** Evaluates this expression, rounding the result with {@code resultContext}. See {@link Evaluator.CompiledExpression#evaluateAsComplex(MathContext)}. */
+	public Complex evaluateAsComplex(final MathContext resultContext) {
+		return compile().evaluateAsComplex(resultContext);
+	}
+	
+	/**
+	 * Evaluates this expression exactly.
+	 * @throws ArithmeticException if this expression does not have a rational value, such as when it contains an imaginary term.
+	 */
+	public BigFraction evaluateAsFraction() {
+		return compile().evaluateAsFraction();
+	}
+	
+	/** Returns a {@link math.Evaluator.CompiledExpression CompiledExpression} for the current terms and operators of this {@link DisplayExpression}. */
+	public Evaluator.CompiledExpression compile() {
+		final List<Object> parts = new ArrayList<>(tokens.size());
+		for(Token token : tokens)
+			parts.add(token.toPart());
+		return Evaluator.compile(parts);
 	}
 	
 	public String toMathML() {
@@ -330,6 +330,10 @@ public class Prettifier {
 		return "<mfenced open=\"[\" close=\"]\">" + table(matrix) + "</mfenced>";
 	}
 	
+	public static String matrix(final LongMatrix matrix) {
+		return matrix(matrix.mapTo(Prettifier::num, String[]::new, String[][]::new));
+	}
+	
 	/**
 	 * Determinant of the matrix
 	 */
@@ -337,6 +341,13 @@ public class Prettifier {
 		return det(matrix.mapTo(Prettifier::frac, String[]::new, String[][]::new));
 	}
 	
+	/**
+	 * Determinant of the matrix
+	 */
+	public static String det(final LongMatrix matrix) {
+		return det(matrix.mapTo(Prettifier::num, String[]::new, String[][]::new));
+	}
+	
 	/**
 	 * Determinant of the matrix
 	 */
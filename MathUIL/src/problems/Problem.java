@@ -23,10 +23,16 @@ import utils.refs.*;
 public interface Problem {
 	
 
-	public static final IntSupplier DIGIT_SUPPLIER = () -> (int) (Math.random() * 10);
+	public static final IntSupplier DIGIT_SUPPLIER = () -> randomSource().nextInt(10);
 	public static final CharSupplier DIGIT_SUPPLIER_AS_CHAR = () -> (char) intInclusive('0', '9');
 	
-	public static final Random RAND = new Random();
+	/**
+	 * Returns the {@link RandomSource#current() current} {@link RandomSource}. Every random choice made while generating a {@link Problem} should be
+	 * made with it.
+	 */
+	public static RandomSource randomSource() {
+		return RandomSource.current();
+	}
 	
 	public static boolean within(final BigDecimal bound, final BigDecimal target, final BigDecimal guess) {
 		final BigDecimal boundPercent = target.multiply(bound).abs();
@@ -35,7 +41,7 @@ public interface Problem {
 	}
 	
 	public static double random() {
-		return RAND.nextDouble();
+		return randomSource().nextDouble();
 	}
 	
 	public static int intExclusive(MutableIntRef max) {
@@ -51,13 +57,17 @@ public interface Problem {
 	public static int intInclusive(int min, int max) {
 		if(min > max)
 			throw new IllegalArgumentException(String.format("min > max (%d > %d)", min, max));
-		return (int) Math.floor((Math.random() * (max - min + 1)  + min));
+		return max < Integer.MAX_VALUE ? randomSource().nextInt(min, max + 1) : (int) randomSource().nextLong(min, max + 1L);
 	}
 	
 	public static long longInclusive(long min, long max) {
 		if(min > max)
 			throw new IllegalArgumentException(String.format("min > max (%d > %d)", min, max));
-		return (long) Math.floor(Math.random() * (max - min + 1)  + min);
+		if(max < Long.MAX_VALUE)
+			return randomSource().nextLong(min, max + 1);
+		if(min > Long.MIN_VALUE)
+			return randomSource().nextLong(min - 1, max) + 1;
+		return randomSource().nextBoolean() ? randomSource().nextLong(min, 0) : randomSource().nextLong(0, max) + 1;
 	}
 	
 	public static int intInclusive(IntRange range) {
@@ -152,7 +162,7 @@ public interface Problem {
 		StringBuilder result = new StringBuilder();
 		for(int i = 0; i < terms - 1; i++) {
 			result.append(Problem.intWithDigits(Problem.intInclusive(minDigits, maxDigits)));
-			result.append(' ').append(operators.get((int) (Math.random() * operators.size()))).append(' ');
+			result.append(' ').append(operators.get(randomSource().nextInt(operators.size()))).append(' ');
 		}
 		result.append(Problem.intWithDigits(Problem.intInclusive(minDigits, maxDigits)));
 		return result.toString();
@@ -181,7 +191,7 @@ public interface Problem {
 	public static <T> List<T> shuffled(T... items) {
 		 List<T> list = new ArrayList<>(items.length);
 		 Collections.addAll(list, items);
-		 Collections.shuffle(list, RAND);
+		 randomSource().shuffle(list);
 		 return list;
 	}
 	
@@ -189,7 +199,7 @@ public interface Problem {
 	 * Returns a random permutation of the given two {@code int}s.
 	 */
 	public static int[] shuffled(final int a, final int b) {
-		return Math.random() < 0.5 ? new int[] {a, b} : new int[] {b, a};
+		return randomSource().nextBoolean() ? new int[] {a, b} : new int[] {b, a};
 	}
 	
 	/**
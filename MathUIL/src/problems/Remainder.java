@@ -17,7 +17,7 @@ public class Remainder extends ComplexValued {
 	private final String display;
 	
 	public Remainder(long operand, long divisor) {
-		super(new Complex(operand % divisor));
+		super(Complex.valueOf(operand % divisor));
 		display = Prettifier.pretty(operand + "/" + divisor) + REMAINDER_OF_STRING;
 	}
 	
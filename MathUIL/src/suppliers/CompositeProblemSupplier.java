@@ -4,19 +4,33 @@ import java.util.*;
 import java.util.function.*;
 
 import problems.Problem;
+import utils.*;
 import utils.refs.ListRef;
 
 /**
- * A {@link ProblemSupplier} that is composed of several other {@link ProblemSupplier ProblemSuppliers}. The {@link #get()} method
+ * <p>A {@link ProblemSupplier} that is composed of several other {@link ProblemSupplier ProblemSuppliers}. The {@link #get()} method
  * returns a {@link Problem} from a randomly chosen one of the {@link CompositeProblemSupplier CompositeProblemSupplier's}
- * {@link #suppliers() suppliers}.
+ * {@link #suppliers() suppliers}.</p>
+ * 
+ * <p>Each supplier is chosen with probability proportional to its {@link #getWeight(ProblemSupplier) weight}, which is
+ * {@link #DEFAULT_WEIGHT} unless it has been {@link #setWeight(ProblemSupplier, double) set}. Suppliers are chosen in constant time
+ * using an {@link AliasTable}, which is rebuilt on the next draw after the suppliers or their weights change. While every supplier has the
+ * same weight, suppliers are chosen uniformly without the table.</p>
  * 
  * @author Sam Hooper
  *
  */
 public class CompositeProblemSupplier implements ProblemSupplier {
 	
+	/** The weight of every supplier whose weight has not been {@link #setWeight(ProblemSupplier, double) set}. */
+	public static final double DEFAULT_WEIGHT = 1;
+	
 	private final ListRef<ProblemSupplier> suppliers;
+	/** The weights that have been {@link #setWeight(ProblemSupplier, double) set}, for suppliers that are in {@link #suppliers}. */
+	private final Map<ProblemSupplier, Double> weights;
+	/** The table used to choose a supplier, or {@code null} if every supplier has the same weight. Only valid if {@link #tableValid}. */
+	private AliasTable table;
+	private boolean tableValid;
 	
 	@SafeVarargs
 	public static CompositeProblemSupplier of(ProblemSupplier... suppliers) {
@@ -28,6 +42,93 @@ public class CompositeProblemSupplier implements ProblemSupplier {
 		final ArrayList<ProblemSupplier> aList = new ArrayList<>(suppliers.length);
 		Collections.addAll(aList, suppliers);
 		this.suppliers = new ListRef<>(aList);
+		this.weights = new IdentityHashMap<>();
+		this.suppliers.addRemoveListener(this::supplierRemoved);
+		this.suppliers.addChangeAction(this::invalidateTable);
+	}
+	
+	private void supplierRemoved(final ProblemSupplier supplier) {
+		if(!suppliers.contains(supplier)) //it may have been in the list more than once.
+			weights.remove(supplier);
+	}
+	
+	private void invalidateTable() {
+		tableValid = false;
+		table = null;
+	}
+	
+	/**
+	 * Returns the weight of {@code supplier}, which is {@link #DEFAULT_WEIGHT} unless it has been {@link #setWeight(ProblemSupplier, double) set}.
+	 * @throws IllegalArgumentException if {@code supplier} is not one of the {@link #suppliers()}.
+	 */
+	public double getWeight(final ProblemSupplier supplier) {
+		ensureContains(supplier);
+		return weights.getOrDefault(supplier, DEFAULT_WEIGHT);
+	}
+	
+	/**
+	 * Sets the weight of {@code supplier}, which is the relative probability that it is chosen by {@link #getRandomSupplier()}. A supplier
+	 * with a weight of zero is never chosen unless every supplier has a weight of zero. The weight is forgotten if {@code supplier} is removed.
+	 * @throws IllegalArgumentException if {@code supplier} is not one of the {@link #suppliers()} or {@code weight} is negative, infinite, or
+	 * {@code NaN}.
+	 */
+	public void setWeight(final ProblemSupplier supplier, final double weight) {
+		ensureContains(supplier);
+		AliasTable.checkWeight(weight);
+		weights.put(supplier, weight);
+		invalidateTable();
+	}
+	
+	/**
+	 * Sets the weight of every supplier to the one given by {@code weightFunction}, such as one computed from the user's accuracy on its
+	 * {@link Problem Problems}. The table is rebuilt only once, on the next draw.
+	 * @throws IllegalArgumentException if one of the weights is negative, infinite, or {@code NaN}, in which case no weights are changed.
+	 */
+	public void setWeights(final ToDoubleFunction<? super ProblemSupplier> weightFunction) {
+		final Map<ProblemSupplier, Double> newWeights = new IdentityHashMap<>();
+		for(ProblemSupplier supplier : suppliers) {
+			final double weight = weightFunction.applyAsDouble(supplier);
+			AliasTable.checkWeight(weight);
+			newWeights.put(supplier, weight);
+		}
+		weights.clear();
+		weights.putAll(newWeights);
+		invalidateTable();
+	}
+	
+	/** Sets the weight of every supplier to {@link #DEFAULT_WEIGHT}. */
+	public void resetWeights() {
+		weights.clear();
+		invalidateTable();
+	}
+	
+	private void ensureContains(final ProblemSupplier supplier) {
+		if(!suppliers.contains(supplier))
+			throw new IllegalArgumentException(supplier + " is not one of the suppliers");
+	}
+	
+	/** Returns the index in {@link #suppliers} of a random supplier, chosen with probability proportional to its weight. */
+	private int randomIndex() {
+		final int size = suppliers.size();
+		if(size == 0)
+			throw new IllegalStateException("There are no suppliers");
+		if(!tableValid) {
+			table = buildTable();
+			tableValid = true;
+		}
+		return table == null ? Problem.intExclusive(size) : table.sample(Problem.randomSource());
+	}
+	
+	/** Returns the {@link AliasTable} for the current weights, or {@code null} if they are all the same. */
+	private AliasTable buildTable() {
+		final int size = suppliers.size();
+		final double[] w = new double[size];
+		boolean uniform = true;
+		for(int i = 0; i < size; i++) {
+			w[i] = weights.getOrDefault(suppliers.get(i), DEFAULT_WEIGHT);
+			uniform &= w[i] == w[0];
+		}
+		return uniform ? null : new AliasTable(w);
 	}
 
 	public void addSupplier(ProblemSupplier supplier) {
@@ -49,8 +150,38 @@ public class CompositeProblemSupplier implements ProblemSupplier {
 		return getRandomSupplier().get();
 	}
 	
+	/**
+	 * Fills the range as described in {@link ProblemSupplier#fill(Problem[], int, int)}. Rather than choosing a random supplier for each
+	 * {@link Problem}, this method first counts how many {@code Problems} each supplier was chosen for, has each supplier fill a contiguous
+	 * part of the range with that many {@code Problems}, and then shuffles the range. The result has the same distribution as calling
+	 * {@link #get()} for each element.
+	 */
+	@Override
+	public void fill(final Problem[] dest, final int fromIndex, final int toIndex) {
+		Objects.checkFromToIndex(fromIndex, toIndex, dest.length);
+		if(fromIndex == toIndex)
+			return;
+		final int size = suppliers.size();
+		final int[] counts = new int[size];
+		for(int i = fromIndex; i < toIndex; i++)
+			counts[randomIndex()]++;
+		for(int s = 0, start = fromIndex; s < size; start += counts[s++])
+			if(counts[s] > 0)
+				suppliers.get(s).fill(dest, start, start + counts[s]);
+		for(int i = toIndex - 1; i > fromIndex; i--) {
+			final int j = fromIndex + Problem.intExclusive(i - fromIndex + 1);
+			final Problem temp = dest[i];
+			dest[i] = dest[j];
+			dest[j] = temp;
+		}
+	}
+	
+	/**
+	 * Returns one of the {@link #suppliers()}, chosen with probability proportional to its {@link #getWeight(ProblemSupplier) weight}.
+	 * @throws IllegalStateException if there are no suppliers.
+	 */
 	public ProblemSupplier getRandomSupplier() {
-		return suppliers.get(Problem.intInclusive(0, suppliers.size() - 1));
+		return suppliers.get(randomIndex());
 	}
 	
 	public ListRef<ProblemSupplier> suppliers() {
@@ -0,0 +1,220 @@
+package suppliers;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import problems.Problem;
+import utils.SingleListener;
+import utils.refs.Ref;
+
+/**
+ * <p>Generates {@link Problem Problems} ahead of time for each of the {@link CompositeProblemSupplier#suppliers() suppliers} of a
+ * {@link CompositeProblemSupplier}, so that {@link #get(ProblemSupplier)} is usually just a poll of a queue. Each supplier has its own bounded
+ * queue, which is refilled on a shared background thread whenever a {@code Problem} is taken from it.</p>
+ *
+ * <p>A supplier's queue is cleared whenever one of its {@link ProblemSupplier#settings() settings} or its {@link ProblemSupplier#getModeRef() mode}
+ * changes, so that every {@code Problem} returned by {@link #get(ProblemSupplier)} reflects the current settings. Only suppliers in
+ * {@link SupplierMode#RANDOM} are prefetched; in any other mode, {@code Problems} are generated on demand, since the supplier must know which
+ * {@code Problem} was most recently returned. The background thread generates with {@link ProblemSupplier#getInRandomMode()}, so it never
+ * reads or changes the state a supplier keeps for its other modes, even if the mode is changed while it is generating. Suppliers that are added to or removed from the {@code CompositeProblemSupplier} are tracked
+ * through its {@link utils.refs.ListRef ListRef}.</p>
+ *
+ * <p>Calls to a supplier's {@link ProblemSupplier#get() get()} are synchronized on the supplier, so a supplier is never asked for two
+ * {@code Problems} at once. This class must only be used from the thread that changes the settings (the JavaFX Application Thread).</p>
+ *
+ * <p>The settings are not themselves synchronized, so the background thread may read them while they are being changed. Each queue therefore
+ * has a generation counter, guarded by the queue's lock, which is incremented (and the queue cleared) after every change. The background
+ * thread reads the generation under that lock before it reads any setting, which also makes every change made before that increment visible
+ * to it. It only adds a {@code Problem} to the queue if the generation is still the same when it has finished, so a {@code Problem} generated
+ * from partly changed settings is either discarded or cleared by the increment that follows the change.</p>
+ *
+ * <p>A {@code ProblemPrefetcher} that is no longer needed must be {@link #close() closed}, which removes every listener it added to the
+ * {@code CompositeProblemSupplier} and its suppliers.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class ProblemPrefetcher {
+
+	/** The default number of {@link Problem Problems} generated ahead of time for each supplier. */
+	public static final int DEFAULT_LOOK_AHEAD = 3;
+
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "Problem prefetcher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** The prefetched {@link Problem Problems} of a single supplier, which refills itself when {@link #run() run} on the background thread. */
+	private final class Buffer implements Runnable {
+
+		private final ProblemSupplier supplier;
+		/** Guarded by {@code this}, along with {@link #generation}, {@link #closed}, and {@link #scheduled}. */
+		private final ArrayDeque<Problem> problems;
+		/** Incremented whenever the buffered {@link Problem Problems} become stale, so that ones being generated at that time are discarded. */
+		private int generation;
+		private boolean closed;
+		private boolean scheduled;
+		private final Runnable invalidator = () -> {
+			invalidate();
+			schedule();
+		};
+
+		Buffer(final ProblemSupplier supplier) {
+			this.supplier = supplier;
+			this.problems = new ArrayDeque<>(lookAhead);
+			for(Ref setting : supplier.settings())
+				setting.addChangeAction(invalidator);
+			supplier.getModeRef().addChangeAction(invalidator);
+		}
+
+		synchronized Problem poll() {
+			return problems.poll();
+		}
+
+		/** Returns {@code true} if this {@link Buffer} has been closed or invalidated since {@code currentGeneration} was read. */
+		private synchronized boolean isStale(final int currentGeneration) {
+			return closed || generation != currentGeneration;
+		}
+		
+		synchronized void invalidate() {
+			generation++;
+			problems.clear();
+		}
+
+		synchronized void close() {
+			for(Ref setting : supplier.settings())
+				setting.removeChangeAction(invalidator);
+			supplier.getModeRef().removeChangeAction(invalidator);
+			closed = true;
+			invalidate();
+		}
+
+		/** Submits this {@link Buffer} to be refilled, unless it already has been. */
+		synchronized void schedule() {
+			if(!closed && !scheduled) {
+				scheduled = true;
+				EXECUTOR.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			int currentGeneration;
+			synchronized(this) {
+				scheduled = false;
+				if(closed || problems.size() >= lookAhead)
+					return;
+				currentGeneration = generation; //read before any setting is read; see the class documentation.
+			}
+			while(true) {
+				final Problem problem;
+				try {
+					synchronized(supplier) {
+						if(supplier.getMode() != SupplierMode.RANDOM || isStale(currentGeneration))
+							return;
+						problem = supplier.getInRandomMode(); //never touches the state of the other modes, which may be changing.
+					}
+				}
+				catch(RuntimeException e) { //the same exception will be thrown to the caller of ProblemPrefetcher.get, which generates on demand.
+					return;
+				}
+				synchronized(this) {
+					if(closed)
+						return;
+					if(generation == currentGeneration)
+						problems.add(problem);
+					if(problems.size() >= lookAhead)
+						return;
+					currentGeneration = generation;
+				}
+			}
+		}
+
+	}
+
+	private final CompositeProblemSupplier composite;
+	private final int lookAhead;
+	private final Map<ProblemSupplier, Buffer> buffers;
+	private final SingleListener<ProblemSupplier> addListener = this::supplierAdded, removeListener = this::supplierRemoved;
+	private boolean closed;
+
+	/** Equivalent to {@code new ProblemPrefetcher(composite, DEFAULT_LOOK_AHEAD)}. */
+	public ProblemPrefetcher(final CompositeProblemSupplier composite) {
+		this(composite, DEFAULT_LOOK_AHEAD);
+	}
+
+	/**
+	 * Creates a {@link ProblemPrefetcher} that generates up to {@code lookAhead} {@link Problem Problems} ahead of time for each of the suppliers
+	 * of {@code composite}, and starts generating them.
+	 * @throws IllegalArgumentException if {@code lookAhead < 1}.
+	 */
+	public ProblemPrefetcher(final CompositeProblemSupplier composite, final int lookAhead) {
+		if(lookAhead < 1)
+			throw new IllegalArgumentException("lookAhead < 1");
+		this.composite = Objects.requireNonNull(composite);
+		this.lookAhead = lookAhead;
+		this.buffers = new IdentityHashMap<>();
+		for(ProblemSupplier supplier : composite.suppliers())
+			supplierAdded(supplier);
+		composite.suppliers().addAddListener(addListener);
+		composite.suppliers().addRemoveListener(removeListener);
+	}
+	
+	/**
+	 * Stops generating {@link Problem Problems} ahead of time and removes every listener this {@link ProblemPrefetcher} added to the
+	 * {@link CompositeProblemSupplier} and its suppliers, so that it can be garbage collected. {@code Problems} that are being generated on the
+	 * background thread are discarded. After this method is called, {@link #get(ProblemSupplier)} generates every {@code Problem} on demand.
+	 * Does nothing if this {@code ProblemPrefetcher} is already closed.
+	 */
+	public void close() {
+		if(closed)
+			return;
+		closed = true;
+		composite.suppliers().removeAddListener(addListener);
+		composite.suppliers().removeRemoveListener(removeListener);
+		for(Buffer buffer : buffers.values())
+			buffer.close();
+		buffers.clear();
+	}
+	
+	/** Returns {@code true} if this {@link ProblemPrefetcher} has been {@link #close() closed}, {@code false} otherwise. */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	private void supplierAdded(final ProblemSupplier supplier) {
+		buffers.computeIfAbsent(supplier, Buffer::new).schedule();
+	}
+
+	private void supplierRemoved(final ProblemSupplier supplier) {
+		if(composite.suppliers().contains(supplier)) //it was in the list more than once.
+			return;
+		final Buffer buffer = buffers.remove(supplier);
+		if(buffer != null)
+			buffer.close();
+	}
+
+	/**
+	 * Returns a {@link Problem} generated by {@code supplier}, which should be one of the {@link CompositeProblemSupplier#suppliers() suppliers}
+	 * of the {@link CompositeProblemSupplier}. The {@code Problem} is taken from the ones generated ahead of time if there are any, and is
+	 * generated on demand otherwise.
+	 */
+	public Problem get(final ProblemSupplier supplier) {
+		final Buffer buffer = buffers.get(supplier);
+		if(buffer == null)
+			return supplier.get();
+		final boolean random = supplier.getMode() == SupplierMode.RANDOM;
+		Problem problem = random ? buffer.poll() : null;
+		if(problem == null) {
+			synchronized(supplier) {
+				if(random) //the background thread may have finished a Problem while this thread was waiting for the lock.
+					problem = buffer.poll();
+				if(problem == null)
+					problem = supplier.get();
+			}
+		}
+		buffer.schedule();
+		return problem;
+	}
+
+}
@@ -6,7 +6,7 @@ import java.util.regex.Pattern;
 
 import base.*;
 import problems.*;
-import utils.EnumSetView;
+import utils.*;
 import utils.refs.*;
 /**
  * <p>An interface that all classes which will generate {@link Problem Problems} must implement in order for their problems
@@ -61,6 +61,55 @@ public interface ProblemSupplier extends Supplier<Problem> {
 	@Override
 	public Problem get();
 	
+	/**
+	 * Returns a {@link Problem} generated as if this {@link ProblemSupplier} were in {@link SupplierMode#RANDOM}, without reading or changing
+	 * any state kept for its other {@link SupplierMode modes}, so it may be called while the mode is being changed on another thread. By
+	 * default, this method returns {@link #get()}, which is only correct for {@code ProblemSuppliers} that do not support any other mode.
+	 */
+	default Problem getInRandomMode() {
+		return get();
+	}
+	
+	/**
+	 * Replaces the elements of {@code dest} from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive) with {@link Problem Problems}
+	 * generated by this {@link ProblemSupplier}, as if by calling {@link #get()} for each of them. Implementations may override this method to
+	 * read their {@link #settings()} once for the whole batch, so the settings must not change while it runs. By default, this method calls
+	 * {@link #get()} in a loop.
+	 * @throws IndexOutOfBoundsException if {@code (fromIndex < 0 || fromIndex > toIndex || toIndex > dest.length)}.
+	 */
+	default void fill(final Problem[] dest, final int fromIndex, final int toIndex) {
+		Objects.checkFromToIndex(fromIndex, toIndex, dest.length);
+		for(int i = fromIndex; i < toIndex; i++)
+			dest[i] = get();
+	}
+	
+	/** Equivalent to {@link #fill(Problem[], int, int) fill(dest, 0, dest.length)}. */
+	default void fill(final Problem[] dest) {
+		fill(dest, 0, dest.length);
+	}
+	
+	/**
+	 * Returns a new array of {@code n} {@link Problem Problems}, generated as described in {@link #fill(Problem[], int, int)}.
+	 * @throws IllegalArgumentException if {@code n} is negative.
+	 */
+	default Problem[] getBatch(final int n) {
+		if(n < 0)
+			throw new IllegalArgumentException("n < 0");
+		final Problem[] batch = new Problem[n];
+		fill(batch);
+		return batch;
+	}
+	
+	/**
+	 * Returns {@link #getBatch(int) getBatch(n)}, generated with a {@link RandomSource#seeded(long) RandomSource seeded} with {@code seed}.
+	 * Calling this method again with the same {@code seed} on a {@link ProblemSupplier} with the same settings and mode returns the same
+	 * {@link Problem Problems}.
+	 * @throws IllegalArgumentException if {@code n} is negative.
+	 */
+	default Problem[] getBatch(final int n, final long seed) {
+		return RandomSource.with(RandomSource.seeded(seed), () -> getBatch(n));
+	}
+	
 	/** Returns an unmodifiable view. */
 	default List<Ref> settings() {
 		return Collections.emptyList();
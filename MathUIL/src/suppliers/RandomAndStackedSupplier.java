@@ -1,28 +1,37 @@
 package suppliers;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 import problems.Problem;
 import utils.EnumSetView;
 import utils.refs.*;
 
 /**
+ * <p>A {@link MultiModeSupplier} that supports {@link SupplierMode#RANDOM} and, under some settings, {@link SupplierMode#STACKED}.</p>
  * 
+ * <p>In {@code STACKED} mode, the possible {@link Problem Problems} are numbered from {@code 0} to {@link #problemCount()} (exclusive) and each
+ * {@code Problem} is only built, by {@link #problemAt(int)}, when it is drawn. The unsolved {@code Problems} are tracked with a permutation of
+ * their indices, whose first {@link #getStackedUnsolved()} elements are the indices of the unsolved {@code Problems}.</p>
  * @author Sam Hooper
  */
 public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 
 	private static final EnumSetView<SupplierMode> RANDOM_AND_STACKED = EnumSetView.of(SupplierMode.RANDOM, SupplierMode.STACKED);
 	
+	/** The greatest {@link #problemCount()} for which subclasses should {@link #supportsStacked() support} {@link SupplierMode#STACKED}. */
+	public static final int MAX_STACKED_PROBLEMS = 100_000;
+	
 	protected final MutableIntRef stackedProblemsMaxIndex;
 	protected int lastStackedProblemsIndex;
-	protected List<Problem> stackedProblems;
+	/** A permutation of the indices of the possible {@link Problem Problems}, or {@code null} if not in {@link SupplierMode#STACKED}. */
+	protected int[] stackedIndices;
 	private final MutableBooleanRef stackedSupported;
 	
 	public RandomAndStackedSupplier() {
 		stackedProblemsMaxIndex = new MutableIntRef(-1);
 		lastStackedProblemsIndex = -1;
-		stackedProblems = null;
+		stackedIndices = null;
 		stackedSupported = new MutableBooleanRef(false);
 	}
 
@@ -45,15 +54,18 @@ public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 		return stackedProblemsMaxIndex;
 	}
 	
+	/** Does nothing if the settings have changed since the most recent {@link Problem} was drawn in {@link SupplierMode#STACKED}. */
 	@Override
 	public void strictlySolved(Problem p) {
-		if(currentProblemMode == SupplierMode.STACKED) {
+		if(currentProblemMode == SupplierMode.STACKED && getMode() == SupplierMode.STACKED && lastStackedProblemsIndex >= 0) {
 			if(stackedProblemsMaxIndex.get() <= 1) {
-				stackedProblemsMaxIndex.set(stackedProblems.size());
+				stackedProblemsMaxIndex.set(stackedIndices.length);
 			}
 			else {
 				stackedProblemsMaxIndex.decrement();
-				Collections.swap(stackedProblems, lastStackedProblemsIndex, stackedProblemsMaxIndex.get());
+				final int last = stackedProblemsMaxIndex.get(), temp = stackedIndices[lastStackedProblemsIndex];
+				stackedIndices[lastStackedProblemsIndex] = stackedIndices[last];
+				stackedIndices[last] = temp;
 			} 
 		}
 	}
@@ -68,9 +80,33 @@ public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 		};
 	}
 	
+	/** Does not change which {@link Problem} {@link #strictlySolved(Problem)} refers to. */
+	@Override
+	public final Problem getInRandomMode() {
+		return getRandom();
+	}
+	
+	/** Reads the {@link #getMode() mode} once for the whole batch. {@link #strictlySolved(Problem)} refers to the last {@link Problem} in the range. */
+	@Override
+	public void fill(final Problem[] dest, final int fromIndex, final int toIndex) {
+		Objects.checkFromToIndex(fromIndex, toIndex, dest.length);
+		currentProblemMode = getMode();
+		switch(currentProblemMode) {
+			case RANDOM -> {
+				for(int i = fromIndex; i < toIndex; i++)
+					dest[i] = getRandom();
+			}
+			case STACKED -> {
+				for(int i = fromIndex; i < toIndex; i++)
+					dest[i] = getStacked();
+			}
+			default -> throw new IllegalStateException(String.format("Should not be in mode: %s", currentProblemMode));
+		}
+	}
+	
 	private Problem getStacked() {
 		lastStackedProblemsIndex = Problem.intExclusive(stackedProblemsMaxIndex);
-		return stackedProblems.get(lastStackedProblemsIndex);
+		return problemAt(stackedIndices[lastStackedProblemsIndex]);
 	}
 	
 	@Override
@@ -92,10 +128,26 @@ public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 		return mode == SupplierMode.RANDOM || mode == SupplierMode.STACKED && supportsStacked();
 	}
 	
+	/**
+	 * If this supplier was in {@link SupplierMode#STACKED} and the new settings support it, it returns to {@code STACKED} after
+	 * {@code super.settingsChanged()} switches it to {@link SupplierMode#RANDOM}, so the possible {@link Problem Problems} are renumbered for the
+	 * new settings and all of them become unsolved.
+	 */
 	@Override
 	public void settingsChanged() {
+		final boolean wasStacked = getMode() == SupplierMode.STACKED;
 		super.settingsChanged();
-		stackedSupported.set(supportsStacked());
+		final boolean supported = supportsStacked();
+		stackedSupported.set(supported);
+		if(wasStacked && supported)
+			setMode(SupplierMode.STACKED);
+	}
+	
+	/** Makes every possible {@link Problem} under the current settings unsolved. */
+	private void resetStacked() {
+		stackedIndices = IntStream.range(0, problemCount()).toArray();
+		stackedProblemsMaxIndex.set(stackedIndices.length);
+		lastStackedProblemsIndex = -1;
 	}
 
 	protected abstract Problem getRandom();
@@ -104,20 +156,27 @@ public abstract class RandomAndStackedSupplier extends MultiModeSupplier {
 	 * current settings, {@code false} otherwise.*/
 	protected abstract boolean supportsStacked();
 	
-	protected abstract List<Problem> generateAllPossibleProblems();
+	/**
+	 * Returns the number of possible {@link Problem Problems} under the current settings. Only called if this {@link RandomAndStackedSupplier}
+	 * {@link #supportsStacked() supports} {@link SupplierMode#STACKED}, in which case it must be positive.
+	 */
+	protected abstract int problemCount();
+	
+	/**
+	 * Returns the possible {@link Problem} with the given index, which is between {@code 0} (inclusive) and {@link #problemCount()} (exclusive).
+	 * Every index must correspond to a different {@code Problem}, and every possible {@code Problem} must have an index.
+	 */
+	protected abstract Problem problemAt(int index);
 	
 	@Override
 	public boolean setMode(SupplierMode newMode) {
 		if(getMode() == newMode)
 			return false;
 		if(!supportsUnderCurrentSettings(newMode))
-			throw new UnsupportedOperationException(String.format("%s is unsupported under the current settings"));
+			throw new UnsupportedOperationException(String.format("%s is unsupported under the current settings", newMode));
 		switch(newMode) {
-			case RANDOM -> stackedProblems = null; //set to null to conserve memory
-			case STACKED -> {
-				stackedProblems = generateAllPossibleProblems();
-				stackedProblemsMaxIndex.set(stackedProblems.size());
-			}
+			case RANDOM -> stackedIndices = null; //set to null to conserve memory
+			case STACKED -> resetStacked();
 			default -> throw new UnsupportedOperationException(String.format("%s is unsupported under any settings", newMode));
 		}
 		modeRef.set(newMode);
@@ -26,7 +26,7 @@ public class Base10FractionsToDecimalsSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		int b = base.low() == 10 && base.high() == 10 ? 10 : RAND.ints(base.low(), base.high() + 1).filter(i -> i != 10).findAny().getAsInt();
+		int b = Radixes.random(base);
 		int dig = intInclusive(digits);
 		String dec = "." + Problem.stringOfDigits(dig, b);
 		BigFraction frac = Utils.toBase10Fraction(dec, b);
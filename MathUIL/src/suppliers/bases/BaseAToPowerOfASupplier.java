@@ -3,7 +3,7 @@ package suppliers.bases;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import math.Utils;
+import math.*;
 import problems.*;
 import suppliers.*;
 
@@ -17,9 +17,9 @@ public class BaseAToPowerOfASupplier extends SettingsProblemSupplier {
 	private static final RangeStore VALUE = RangeStore.of(1, 10_000, 2, 200);
 	
 	private static int[] generateBases() {
-		int ran = RAND.nextInt(3);
+		int ran = randomSource().nextInt(3);
 		if(ran == 0)
-			return switch(RAND.nextInt(3)) {
+			return switch(randomSource().nextInt(3)) {
 				case 0 -> Problem.shuffled(2, 4);
 				case 1 -> Problem.shuffled(2, 8);
 				default -> Problem.shuffled(2, 16);
@@ -38,9 +38,9 @@ public class BaseAToPowerOfASupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		String v = Integer.toString(intInclusive(value));
+		int v = intInclusive(value);
 		int[] bases = generateBases();
-		String base1 = Utils.convertBase(v, 10, bases[0]), base2 = Utils.convertBase(v, 10, bases[1]);
+		String base1 = Radix.toString(v, bases[0]), base2 = Radix.toString(v, bases[1]);
 		return Builder.of(String.format("What is %s in base %d?", Prettifier.ensureMath(Prettifier.base(base1, bases[0])), bases[1]))
 				.addBaseResult(base2, bases[1]).build();
 	}
@@ -3,7 +3,7 @@ package suppliers.bases;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import math.Utils;
+import math.*;
 import problems.*;
 import suppliers.*;
 
@@ -22,9 +22,9 @@ private static final RangeStore BASE = RangeStore.of(Utils.MIN_RADIX, Utils.MAX_
 
 	@Override
 	public Problem get() {
-		int b = base.low() == 10 && base.high() == 10 ? 10 : RAND.ints(base.low(), base.high() + 1).filter(i -> i != 10).findAny().getAsInt();
+		int b = Radixes.random(base);
 		int v = intInclusive(value);
 		return Builder.of(String.format("What is %s in base %d?", Prettifier.ensureMath(Prettifier.base(Integer.toString(v), 10)), b))
-				.addBaseResult(Utils.convertBase(Integer.toString(v), 10, b), b).build();
+				.addBaseResult(Radix.toString(v, b), b).build();
 	}
 }
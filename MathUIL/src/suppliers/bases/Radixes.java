@@ -0,0 +1,25 @@
+package suppliers.bases;
+
+import problems.Problem;
+import suppliers.NamedIntRange;
+
+/**
+ * Chooses the radix of a base problem from a {@link NamedIntRange} setting. Base 10 is only chosen if it is the only radix in the range.
+ * @author Sam Hooper
+ *
+ */
+final class Radixes {
+
+	private Radixes() {}
+
+	/** Returns a random radix in {@code range}, which is never 10 unless 10 is the only radix in {@code range}. */
+	static int random(final NamedIntRange range) {
+		final int low = range.low(), high = range.high();
+		if(low == 10 && high == 10)
+			return 10;
+		final boolean hasTen = low <= 10 && 10 <= high;
+		final int radix = low + Problem.intExclusive(high - low + 1 - (hasTen ? 1 : 0));
+		return hasTen && radix >= 10 ? radix + 1 : radix;
+	}
+
+}
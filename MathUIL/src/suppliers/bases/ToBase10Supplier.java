@@ -3,7 +3,7 @@ package suppliers.bases;
 import static problems.Problem.*;
 import static suppliers.NamedIntRange.*;
 
-import math.Utils;
+import math.*;
 import problems.*;
 import suppliers.*;
 
@@ -23,9 +23,9 @@ public class ToBase10Supplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		int b = base.low() == 10 && base.high() == 10 ? 10 : RAND.ints(base.low(), base.high() + 1).filter(i -> i != 10).findFirst().getAsInt();
+		int b = Radixes.random(base);
 		int v = intInclusive(value);
-		return Builder.of(String.format("What is %s in base 10?", Prettifier.ensureMath(Prettifier.base(Utils.convertBase(Integer.toString(v), 10, b), b))))
+		return Builder.of(String.format("What is %s in base 10?", Prettifier.ensureMath(Prettifier.base(Radix.toString(v, b), b))))
 				.addBaseResult(Integer.toString(v), 10).build();
 	}
 	
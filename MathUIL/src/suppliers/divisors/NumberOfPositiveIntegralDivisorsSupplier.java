@@ -7,7 +7,6 @@ import static suppliers.NamedIntRange.*;
 import math.*;
 import problems.*;
 import suppliers.*;
-import utils.IntList;
 
 /**
  * @author Sam Hooper
@@ -24,8 +23,7 @@ public class NumberOfPositiveIntegralDivisorsSupplier extends SettingsProblemSup
 	@Override
 	public Problem get() {
 		int val = intInclusive(value);
-		IntList facs = Utils.factorsUnsorted(val);
-		return ComplexValued.of(String.format("%d has how many positive integral divisors?", val), new Complex(facs.size()));
+		return ComplexValued.of(String.format("%d has how many positive integral divisors?", val), Complex.valueOf(PrimeSieve.divisorCount(val)));
 		
 	}
 	
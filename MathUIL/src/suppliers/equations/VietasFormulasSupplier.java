@@ -24,7 +24,7 @@ public class VietasFormulasSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		int[] cos = RAND.ints(intInclusive(degree) + 1, values.low(), values.high() + 1).toArray();
+		int[] cos = randomSource().ints(intInclusive(degree) + 1, values.low(), values.high() + 1);
 		if(cos[0] == 0) cos[0] = 1;
 		String displayExpr = Prettifier.polynomialEqualsZero('x', cos);
 		if(Problem.random() <= 0.5)
@@ -2,9 +2,6 @@ package suppliers.exponentiation;
 
 import static suppliers.NamedIntRange.*;
 
-import java.util.List;
-import java.util.stream.*;
-
 import problems.*;
 import suppliers.*;
 
@@ -45,7 +42,12 @@ public class CubesSupplier extends RandomAndStackedSupplier {
 	}
 
 	@Override
-	protected List<Problem> generateAllPossibleProblems() {
-		return IntStream.rangeClosed(base.low(), base.high()).mapToObj(CubesSupplier::getWithBase).collect(Collectors.toList());
+	protected int problemCount() {
+		return base.high() - base.low() + 1;
+	}
+	
+	@Override
+	protected Problem problemAt(final int index) {
+		return getWithBase(base.low() + index);
 	}
 }
@@ -32,11 +32,11 @@ public class ExponentApproximationSupplier extends SettingsProblemSupplier {
 			sb.append(getTerm()).append(getOp());
 		sb.append(getTerm());
 		final String str = sb.toString();
-		return Builder.approximation(str, Evaluator.evaluateAsBigDecimalExact(str));
+		return Builder.approximation(str, Evaluator.evaluateAsBigDecimalExact(str, Builder.DEFAULT_APPROXIMATION_CONTEXT));
 	}
 	
 	private String getOp() {
-		if(division.ref().get() && Math.random() < 0.5)
+		if(division.ref().get() && Problem.random() < 0.5)
 			return "/";
 		return "*";
 	}
@@ -28,7 +28,7 @@ public class PowersOfESupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		if(includeEToPi.get() && Math.random() <= (1d / (exponent.ref().valueRange() + 1)))
+		if(includeEToPi.get() && Problem.random() <= (1d / (exponent.ref().valueRange() + 1)))
 			return TO_PI_PROBLEM;
 		int exp = Problem.intInclusive(exponent);
 		return Builder.approximation(Prettifier.E_HTML + "<sup>" + exp + "</sup>", Utils.eTo(exp));
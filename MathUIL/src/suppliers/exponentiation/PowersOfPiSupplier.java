@@ -28,7 +28,7 @@ public class PowersOfPiSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		if(includePiToE.get() && Math.random() <= (1d / (exponent.ref().valueRange() + 1)))
+		if(includePiToE.get() && Problem.random() <= (1d / (exponent.ref().valueRange() + 1)))
 			return TO_E_PROBLEM;
 		int exp = Problem.intInclusive(exponent);
 		return Builder.approximation(Prettifier.PI_HTML + "<sup>" + exp + "</sup>", Utils.piTo(exp));
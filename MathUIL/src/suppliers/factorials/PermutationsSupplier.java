@@ -23,7 +23,7 @@ public class PermutationsSupplier extends SettingsProblemSupplier {
 	public Problem get() {
 		final int nVal = intInclusive(n);
 		final int rVal = intInclusive(Math.min(r.low(), nVal), Math.min(nVal, r.high()));
-		return ComplexValued.of(String.format("P(%d, %d)", nVal, rVal), new Complex(Utils.nPr(nVal, rVal)));
+		return ComplexValued.of(String.format("P(%d, %d)", nVal, rVal), Complex.valueOf(Utils.nPrExact(nVal, rVal)));
 	}
 	
 }
@@ -28,7 +28,7 @@ public class CompareFractionsSupplier extends SettingsProblemSupplier {
 		int d1 = intInclusive(denom), n1 = intInclusive(1, d1 - 1), d2 = intInclusive(denom), n2 = intInclusive(1, d2 - 1);
 		List<BigFraction> shuf = Problem.shuffled(BigFraction.of(n1, d1), BigFraction.of(n2, d2));
 		BigFraction f1 = shuf.get(0), f2 = shuf.get(1);
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return Builder.of(String.format("Which is larger, %s or %s?", Prettifier.ensureMath(Prettifier.frac(f1)),
 					Prettifier.ensureMath(Prettifier.frac(f2)))).addResult(BigFraction.max(f1, f2)).build();
 		else
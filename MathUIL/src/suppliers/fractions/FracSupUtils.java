@@ -90,8 +90,8 @@ public class FracSupUtils {
 		if(!acceptFraction && !acceptMixed)
 			throw new IllegalArgumentException();
 		BigFraction result = op.apply(a, b);
-		Number n1 = Math.random() <= 0.5 && a.isImproper() ? a.toMixedNumber() : a;
-		Number n2 = Math.random() <= 0.5 && b.isImproper() ? b.toMixedNumber() : b;
+		Number n1 = Problem.random() <= 0.5 && a.isImproper() ? a.toMixedNumber() : a;
+		Number n2 = Problem.random() <= 0.5 && b.isImproper() ? b.toMixedNumber() : b;
 		final Builder exp = Builder.of(new DisplayExpression().addTerm(n1).addOperator(opString).addTerm(n2).toMathML());
 		if(acceptFraction)
 			exp.addResult(result);
@@ -116,8 +116,8 @@ public class FracSupUtils {
 		BigFraction result = op.apply(a, b);
 		List<BigFraction> shuffled = Problem.shuffled(a, b);
 		BigFraction shuf1 = shuffled.get(0), shuf2 = shuffled.get(1);
-		Number num1 = shuf1.isImproper() && Math.random() <= 0.5 ? shuf1.toMixedNumber() : shuf1;
-		Number num2 = shuf2.isImproper() && Math.random() <= 0.5 ? shuf2.toMixedNumber() : shuf2;
+		Number num1 = shuf1.isImproper() && Problem.random() <= 0.5 ? shuf1.toMixedNumber() : shuf1;
+		Number num2 = shuf2.isImproper() && Problem.random() <= 0.5 ? shuf2.toMixedNumber() : shuf2;
 		Builder prob = Builder.of(new DisplayExpression().addTerm(num1).addOperator(opString).addTerm(num2).toMathML());
 		if(acceptFraction)
 			prob.addResult(result);
@@ -27,8 +27,8 @@ public class BackwardsGCDLCMSupplier extends SettingsProblemSupplier {
 			a = Problem.intWithDigits(digits);
 		while(b == 0)
 			b = Problem.intWithDigits(digits);
-		final int gcd = Utils.gcd(a, b), lcm = a * b / gcd;
-		return ComplexValued.of(String.format("Given GCD(%d,x)=%d and LCM(%1$d,x)=%d, find x", a, gcd, lcm), new Complex(b));
+		final int gcd = Utils.gcd(a, b), lcm = Utils.lcm(a, b);
+		return ComplexValued.of(String.format("Given GCD(%d,x)=%d and LCM(%1$d,x)=%d, find x", a, gcd, lcm), Complex.valueOf(b));
 	}
 	
 	@Override
@@ -29,7 +29,7 @@ public class GCDSupplier extends SettingsProblemSupplier {
 			a = Problem.intWithDigits(digits);
 		while(b == 0)
 			b = Problem.intWithDigits(digits);
-		return ComplexValued.of(String.format("The GCD of %d and %d is", a, b), new Complex(Utils.gcd(a, b)));
+		return ComplexValued.of(String.format("The GCD of %d and %d is", a, b), Complex.valueOf(Utils.gcd(a, b)));
 	}
 	
 }
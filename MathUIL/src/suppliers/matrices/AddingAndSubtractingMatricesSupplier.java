@@ -28,11 +28,11 @@ public class AddingAndSubtractingMatricesSupplier extends SettingsProblemSupplie
 	@Override
 	public Problem get() {
 		final int r = intInclusive(rows), c = intInclusive(cols);
-		Matrix m1 = Matrix.from(r, c, () -> BigFraction.of(intInclusive(values), 1)), m2 = Matrix.from(r, c, () -> BigFraction.of(intInclusive(values), 1));
+		LongMatrix m1 = LongMatrix.from(r, c, () -> intInclusive(values)), m2 = LongMatrix.from(r, c, () -> intInclusive(values));
 		String[][] letterMat = MatSupUtils.variableMatrix(r, c);
-		final Matrix resultMatrix;
+		final LongMatrix resultMatrix;
 		StringBuilder displayBuilder = new StringBuilder(matrix(m1));
-		if(Math.random() <= 0.5) {
+		if(Problem.random() <= 0.5) {
 			displayBuilder.append(op('+'));
 			resultMatrix = m1.add(m2);
 		}
@@ -42,15 +42,15 @@ public class AddingAndSubtractingMatricesSupplier extends SettingsProblemSupplie
 		}
 		displayBuilder.append(matrix(m2)).append(op('=')).append(matrix(letterMat));
 		String display = ensureMath(row(displayBuilder.toString()));
-		if(Math.random() <= 0.5) { //only ask for a specific element from the result matrix
+		if(Problem.random() <= 0.5) { //only ask for a specific element from the result matrix
 			int letterRow = intExclusive(r), letterCol = intExclusive(c);
 			String letter = letterMat[letterRow][letterCol];
-			BigFraction answer = resultMatrix.get(letterRow, letterCol);
+			BigFraction answer = BigFraction.of(resultMatrix.get(letterRow, letterCol), 1);
 			return Builder.of(String.format("%s. Find %s:", display, ensureMath(variable(letter)))).addResult(answer).build();
 		}
 		else { //ask for the sum of all elements in the result matrix
 			String letterSum = ensureMath(Arrays.stream(letterMat).flatMap(Arrays::stream).map(Prettifier::variable).collect(Collectors.joining(op('+'))));
-			BigFraction answer = resultMatrix.reduce(BigFraction::sum);
+			BigFraction answer = BigFraction.of(resultMatrix.sum(), 1);
 			return Builder.of(String.format("%s. Find %s:", display, letterSum)).addResult(answer).build();
 			
 		}
@@ -14,28 +14,37 @@ import suppliers.*;
  */
 public class MatrixDeterminantSupplier extends SettingsProblemSupplier {
 	
-	private static final RangeStore VALUES = RangeStore.of(-100, 100, -20, 20);
+	private static final RangeStore VALUES = RangeStore.of(-100, 100, -20, 20), SIZE = RangeStore.of(2, 4, 2, 3);
 	
-	private final NamedIntRange values = of(VALUES, "Values of matrix elements");
+	private final NamedIntRange values = of(VALUES, "Values of matrix elements"), size = of(SIZE, "Rows and columns in matrix");
 	
 	public MatrixDeterminantSupplier() {
-		addAllSettings(values);
+		addAllSettings(values, size);
 	}
 
 	@Override
 	public Problem get() {
-		Matrix m = Matrix.from(2, 2, () -> BigFraction.of(intInclusive(values), 1));
-		BigFraction det = m.determinant();
-		if(Math.random() <= 0.5) { //ask them to find the determinant
+		final int n = intInclusive(size);
+		LongMatrix m = LongMatrix.from(n, n, () -> intInclusive(values));
+		BigFraction det = BigFraction.of(m.determinant(), 1);
+		int missingRow = intExclusive(n), missingCol = intExclusive(n);
+		if(Problem.random() <= 0.5 || !determinesMissingValue(m, missingRow, missingCol)) { //ask them to find the determinant
 			return Builder.of(ensureMath(det(m) + op('='))).addResult(det).build();
 		}
 		else { //ask them to find the missing value given the rest of the matrix and the determinant.
-			int missingRow = intExclusive(2), missingCol = intExclusive(2);
-			BigFraction missingValue = m.get(missingRow, missingCol);
-			String[][] strs = m.mapTo(Prettifier::frac, String[]::new, String[][]::new);
+			BigFraction missingValue = BigFraction.of(m.get(missingRow, missingCol), 1);
+			String[][] strs = m.mapTo(Prettifier::num, String[]::new, String[][]::new);
 			strs[missingRow][missingCol] = variable('k');
 			return Builder.of(ensureMath(det(strs) + op('=') + frac(det))).addResult(missingValue).build();
 		}
 	}
 	
+	/**
+	 * The determinant is a linear function of any one element, so the element at {@code (row, col)} can be found from the determinant and the
+	 * other elements if and only if the determinant changes when that element does.
+	 */
+	private static boolean determinesMissingValue(final LongMatrix m, final int row, final int col) {
+		return m.with(row, col, 0).determinant() != m.with(row, col, 1).determinant();
+	}
+	
 }
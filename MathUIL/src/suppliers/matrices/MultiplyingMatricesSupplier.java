@@ -25,14 +25,13 @@ public class MultiplyingMatricesSupplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		int r = intInclusive(rows), c = intInclusive(cols);
-		System.out.printf("values=%s%n", values);
-		Matrix m1 = Matrix.from(r, c, () -> BigFraction.of(intInclusive(values), 1)), m2 = Matrix.from(c, r, () -> BigFraction.of(intInclusive(values), 1)),
+		LongMatrix m1 = LongMatrix.from(r, c, () -> intInclusive(values)), m2 = LongMatrix.from(c, r, () -> intInclusive(values)),
 				resultMatrix = m1.multiply(m2);
 		String[][] variableMatrix = MatSupUtils.variableMatrix(r, r);
 		String displayExp = ensureMath(row(matrix(m1) + op('*') + matrix(m2) + op('=') + matrix(variableMatrix)));
 		int varRow = intExclusive(r), varCol = intExclusive(r);
 		String varName = variableMatrix[varRow][varCol];
-		BigFraction varValue = resultMatrix.get(varRow, varCol);
+		BigFraction varValue = BigFraction.of(resultMatrix.get(varRow, varCol), 1);
 		return Builder.of(String.format("%s. Find %s:", displayExp, ensureMath(variable(varName)))).addResult(varValue).build();
 	}
 	
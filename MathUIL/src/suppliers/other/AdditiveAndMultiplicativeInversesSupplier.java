@@ -24,7 +24,7 @@ public class AdditiveAndMultiplicativeInversesSupplier extends SettingsProblemSu
 	@Override
 	public Problem get() {
 		BigFraction frac = BigFraction.of(intInclusive(values), intInclusive(values));
-		if(Math.random() < 0.5)
+		if(Problem.random() < 0.5)
 			return Builder.of(String.format("What is the additive inverse of %s:", Prettifier.ensureMath(Prettifier.frac(frac)))).addResult(frac.negate()).build();
 		else
 			return Builder.of(String.format("What is the multiplicative inverse of %s:", Prettifier.ensureMath(Prettifier.frac(frac)))).addResult(frac.multiplicativeInverse()).build();
@@ -33,7 +33,7 @@ public class ApproximationsWithRationalsSupplier extends SettingsProblemSupplier
 			if(i < ts)
 				exp.addOperator(OP_SUPPLIER.get());
 		}
-		return Builder.of(exp.toMathML()).addResult(exp.evaluateAsComplex()).setApproximate(true).build();
+		return Builder.of(exp.toMathML()).addResult(exp.evaluateAsComplex(Builder.DEFAULT_APPROXIMATION_CONTEXT)).setApproximate(true).build();
 	}
 	
 	/**
@@ -42,7 +42,7 @@ public class ApproximationsWithRationalsSupplier extends SettingsProblemSupplier
 	 * @return
 	 */
 	private Object makeTerm() {
-		int ran = RAND.nextInt(3);
+		int ran = randomSource().nextInt(3);
 		if(ran == 0) {
 			final StringBuilder sb = new StringBuilder(Problem.stringOfDigits(intInclusive(sigFigs)));
 			return new Complex(sb.insert(sb.length(), '.').toString());
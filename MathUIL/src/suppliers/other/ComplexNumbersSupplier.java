@@ -24,12 +24,12 @@ public class ComplexNumbersSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		Complex left = new Complex(intInclusive(value), intInclusive(value)), right = new Complex(intInclusive(value), intInclusive(value));
+		Complex left = Complex.valueOf(intInclusive(value), intInclusive(value)), right = Complex.valueOf(intInclusive(value), intInclusive(value));
 		Complex product = left.multiply(right);
 		System.out.printf("left=%s, right=%s, product=%s%n", left, right, product);
 		final String qString;
 		final BigDecimal answer;
-		int rand = RAND.nextInt(4);
+		int rand = randomSource().nextInt(4);
 		if(rand == 0) {
 			qString = "a";
 			answer = product.realPart();
@@ -24,7 +24,7 @@ public class PolygonalNumbersSupplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		int sides = intInclusive(n), index = intInclusive(n), num = NumberAdjectives.sGonalNumber(sides, index);
-		return ComplexValued.of(String.format("The %d%s %s number is:", index, Prettifier.ordinalSuffix(index), NumberAdjectives.polygonalAdjective(sides)), new Complex(num));
+		return ComplexValued.of(String.format("The %d%s %s number is:", index, Prettifier.ordinalSuffix(index), NumberAdjectives.polygonalAdjective(sides)), Complex.valueOf(num));
 	}
 	
 }
@@ -24,7 +24,7 @@ public class RepeatingDecimalsToFractionsSupplier implements ProblemSupplier {
 
 	@Override
 	public Problem get() {
-		String beforeDecimalPoint = Math.random() <= 0.5 ? Integer.toString(intInclusive(1, 9)) : "0";
+		String beforeDecimalPoint = Problem.random() <= 0.5 ? Integer.toString(intInclusive(1, 9)) : "0";
 		RepeatingDecimal dec = getDecimal(beforeDecimalPoint);
 		return Builder.of(Prettifier.ensureMath(Prettifier.repeating(dec))).addResult(dec.toBigFraction()).build();
 	}
@@ -21,8 +21,8 @@ public class RomanNumeralsSupplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		int intValue = Problem.intInclusive(value);
-		if(Math.random() <= 0.5)
-			return ComplexValued.of(String.format("%s as an Arabic number is:", RomanNumerals.toRomanNumerals(intValue)), new Complex(intValue));
+		if(Problem.random() <= 0.5)
+			return ComplexValued.of(String.format("%s as an Arabic number is:", RomanNumerals.toRomanNumerals(intValue)), Complex.valueOf(intValue));
 		return Builder.ofString(String.format("%d as a Roman Numeral is:", intValue), RomanNumerals.toRomanNumerals(intValue));
 		
 	}
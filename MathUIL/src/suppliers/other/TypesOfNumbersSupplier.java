@@ -25,28 +25,47 @@ public class TypesOfNumbersSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		final int choices = intInclusive(options);
-		List<Integer> nums = RAND.ints(choices, values.low(), values.high()).boxed().collect(Collectors.toList());
-		List<EnumSet<NumberAdjectives>> adjs = nums.stream().map(NumberAdjectives::describe).collect(Collectors.toList());
-//		System.out.printf("before:%n%s%n", IntStream.range(0, nums.size()).mapToObj(i -> String.format("%s=%s", nums.get(i), adjs.get(i)) ).collect(Collectors.joining("\n\t")));
-		Colls.removeIntersection(adjs);
-//		System.out.printf("after:%n\t%s%n", IntStream.range(0, nums.size()).mapToObj(i -> String.format("%s=%s", nums.get(i), adjs.get(i)) ).collect(Collectors.joining("\n\t")));
-		if(Colls.allAreEmpty(adjs))
-			return get(); // try again
-		final int correctIndex = Colls.uniqueIndex(adjs);
-		if(correctIndex == -1)
-			return get(); //try again
-		final String adjListString = prettyAdjList(adjs.get(correctIndex));
+		final int choices = intInclusive(options), low = values.low(), high = values.high();
+		final NumberAdjectiveTable table = tableFor(low, high);
+		final NumberAdjectives target = randomTarget(table, low, high);
+		final Set<NumberAdjectives> targetSet = EnumSet.of(target), none = EnumSet.noneOf(NumberAdjectives.class);
+		final int correctNum = table.random(randomSource(), low, high, targetSet, none).getAsInt();
+		final List<Integer> nums = new ArrayList<>(choices);
+		nums.add(correctNum);
+		for(int i = 1; i < choices; i++)
+			nums.add(table.random(randomSource(), low, high, none, targetSet).getAsInt());
+		//the question lists every adjective of the correct number that no other choice has, which always includes the target.
+		long otherMask = 0;
+		for(int i = 1; i < choices; i++)
+			otherMask |= table.mask(nums.get(i));
+		final String adjListString = prettyAdjList(NumberAdjectives.fromMask(table.mask(correctNum) & ~otherMask));
 		final String article = getArticle(adjListString);
-		final Integer correctNum = nums.get(correctIndex);
-		Collections.shuffle(nums);
+		randomSource().shuffle(nums);
 		return ComplexValued.of(
 			String.format("Which of the following is %s %s number: %s?", article, adjListString,
 					nums.stream().map(String::valueOf).collect(Collectors.joining(", "))),
-			new Complex(correctNum)
+			Complex.valueOf(correctNum)
 		);
 	}
 	
+	private static NumberAdjectiveTable tableFor(final int low, final int high) {
+		final NumberAdjectiveTable shared = NumberAdjectiveTable.shared();
+		return shared.covers(low) && shared.covers(high) ? shared : NumberAdjectiveTable.of(low, high);
+	}
+	
+	/** Returns a random adjective that describes some, but not all, of the numbers from {@code low} to {@code high}. */
+	private static NumberAdjectives randomTarget(final NumberAdjectiveTable table, final int low, final int high) {
+		final List<NumberAdjectives> targets = new ArrayList<>();
+		for(NumberAdjectives adj : NumberAdjectives.values()) {
+			final int count = table.count(adj, low, high);
+			if(count > 0 && count <= high - low)
+				targets.add(adj);
+		}
+		if(targets.isEmpty())
+			throw new IllegalStateException("The numbers from " + low + " to " + high + " cannot be told apart by their types");
+		return Colls.getRandom(targets);
+	}
+	
 	private String getArticle(String adjListString) {
 		return adjListString.substring(0, 1).matches("[aeiou]") ? "an" : "a";
 	}
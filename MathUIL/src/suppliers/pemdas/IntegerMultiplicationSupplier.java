@@ -2,7 +2,6 @@ package suppliers.pemdas;
 
 import static suppliers.NamedIntRange.of;
 
-import java.util.*;
 import java.util.stream.IntStream;
 
 import problems.*;
@@ -29,22 +28,26 @@ public class IntegerMultiplicationSupplier extends RandomAndStackedSupplier {
 				.limit(Problem.intInclusive(terms)).toArray());
 	}
 	
+	/** Returns the number of values each term may have. */
+	private int valueCount() {
+		return values.high() - values.low() + 1;
+	}
+	
 	@Override
-	protected List<Problem> generateAllPossibleProblems() {
+	protected int problemCount() {
 		assert supportsStacked();
-		List<Problem> list = new ArrayList<>();
-		for(int firstTerm = values.low(); firstTerm <= values.high(); firstTerm++) {
-			for(int secondTerm = values.low(); secondTerm <= values.high(); secondTerm++) {
-				list.add(SimpleExpression.multiplyTerms(firstTerm, secondTerm));
-			}
-		}
-		assert list.size() >= 1;
-		return list;
+		return valueCount() * valueCount();
+	}
+	
+	/** The possible {@link Problem Problems} are ordered by their first term, then by their second term. */
+	@Override
+	protected Problem problemAt(final int index) {
+		return SimpleExpression.multiplyTerms(values.low() + index / valueCount(), values.low() + index % valueCount());
 	}
 	
 	@Override
 	protected boolean supportsStacked() {
-		return terms.low() == 2 && terms.high() == 2 && values.high() <= 33;
+		return terms.low() == 2 && terms.high() == 2 && (long) valueCount() * valueCount() <= MAX_STACKED_PROBLEMS;
 	}
 	
 }
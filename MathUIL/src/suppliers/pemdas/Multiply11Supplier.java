@@ -35,10 +35,10 @@ public class Multiply11Supplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		System.out.printf("entered get, inc121 = %s, lowOnes=%d, high=%d, lowNon=%d, high=%d%n", include121(), lowOnes(), highOnes(), lowNonDigits(), highNonDigits());
-		int ones = include121() && Math.random() < (1.0/(highOnes() - lowOnes() + 2))? 121 : Integer.parseInt("1".repeat(Problem.intInclusive(lowOnes(), highOnes())));
+		int ones = include121() && Problem.random() < (1.0/(highOnes() - lowOnes() + 2))? 121 : Integer.parseInt("1".repeat(Problem.intInclusive(lowOnes(), highOnes())));
 		int non = Problem.intWithDigits(Problem.intInclusive(lowNonDigits(), highNonDigits()));
 		int first, second;
-		if(Math.random() >= 0.5) {
+		if(Problem.random() >= 0.5) {
 			first = ones; second = non;
 		}
 		else {
@@ -32,7 +32,7 @@ public class Multiply125Supplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		int term = Problem.intWithDigits(lowDigits(), highDigits());
-		int x = include375() && Math.random() < CHANCE_375 ? 375 : 125;
+		int x = include375() && Problem.random() < CHANCE_375 ? 375 : 125;
 		return SimpleExpression.multiplyTerms(Problem.shuffled(x, term));
 	}
 	
@@ -39,7 +39,7 @@ public class PEMDASApproximationSupplier extends SettingsProblemSupplier {
 	@Override
 	public Problem get() {
 		String exp = Problem.makeExpr(Problem.intInclusive(minTerms(), maxTerms()), minDigits(), maxDigits(), operators);
-		return Builder.approximation(Prettifier.pretty(exp), Evaluator.evaluateAsBigDecimalExact(exp));
+		return Builder.approximation(Prettifier.pretty(exp), Evaluator.evaluateAsBigDecimalExact(exp, Builder.DEFAULT_APPROXIMATION_CONTEXT));
 	}
 	
 	
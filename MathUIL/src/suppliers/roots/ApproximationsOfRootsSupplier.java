@@ -30,7 +30,7 @@ public class ApproximationsOfRootsSupplier extends SettingsProblemSupplier {
 		ArrayList<Boolean> types = new ArrayList<>(ts);
 		for(int i = 1; i <= ts; i++)
 			types.add(i <= sqrts);
-		Collections.shuffle(types, RAND);
+		randomSource().shuffle(types);
 		StringBuilder sb = new StringBuilder();
 		sb.append("<math>");
 		BigDecimal product = BigDecimal.ONE;
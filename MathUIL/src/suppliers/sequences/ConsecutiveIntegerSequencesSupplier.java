@@ -22,13 +22,13 @@ public class ConsecutiveIntegerSequencesSupplier extends SettingsProblemSupplier
 	@Override
 	public Problem get() {
 		int size = intInclusive(terms);
-		ArithmeticSequence seq = randomSequenceOfSize(size, intInclusive(start));
-		return ComplexValued.of(seq.toPartialString(3, " + "), seq.sum());
+		ArithmeticSequence.OfLong seq = randomSequenceOfSize(size, intInclusive(start));
+		return ComplexValued.of(seq.toPartialString(3, " + "), Complex.valueOf(seq.sum()));
 	}
 	
-	private static ArithmeticSequence randomSequenceOfSize(final int size, final int start) {
-		int jump = RAND.nextInt(2) + 1;
-		return new ArithmeticSequence(new Complex(start), new Complex(jump), size);
+	private static ArithmeticSequence.OfLong randomSequenceOfSize(final int size, final int start) {
+		int jump = randomSource().nextInt(2) + 1;
+		return new ArithmeticSequence.OfLong(start, jump, size);
 	}
 	
 }
@@ -34,8 +34,8 @@ public class OtherSequencesSupplier extends SettingsProblemSupplier {
 		
 	}
 	
-	private static SummableSequence<BigInteger> randSeq() {
-		int ran = RAND.nextInt(3);
+	private static BigIntegerSequence randSeq() {
+		int ran = randomSource().nextInt(3);
 		return ran == 1 ? SpecialSequences.Squares.INFINITE : ran == 2 ? SpecialSequences.Cubes.INFINITE : SpecialSequences.Triangles.INFINITE;
 	}
 	
@@ -29,7 +29,7 @@ public class ProperAndImproperSubsetsSupplier extends SettingsProblemSupplier {
 	public Problem get() {
 		List<Character> chars = SetSupUtils.letterList(intInclusive(size));
 		final String displaySet = Prettifier.ensureMath(Prettifier.set(chars, Prettifier::variable));
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return Builder.of(String.format("How many improper subsets does the set %s have?", displaySet)).addResult(new Complex(Sets.numImproperSubsets(chars))).build();
 		else
 			return Builder.of(String.format("How many proper subsets does the set %s have?", displaySet)).addResult(new Complex(Sets.numProperSubsets(chars))).build();
@@ -27,7 +27,7 @@ public class UnionAndIntersectionSupplier extends SettingsProblemSupplier {
 
 	@Override
 	public Problem get() {
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return literalProblem();
 		else
 			return wordProblem();
@@ -35,7 +35,7 @@ public class UnionAndIntersectionSupplier extends SettingsProblemSupplier {
 	
 	private Problem literalProblem() {
 		List<Character> set1 = SetSupUtils.letterList(intInclusive(size)), set2 = SetSupUtils.letterList(intInclusive(size));
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return Builder.of(String.format("The number of distinct elements in %s is:", ensureMath(union(set(set1, Prettifier::variable), set(set2, Prettifier::variable)))))
 					.addResult(new Complex(Sets.union(set1, set2).size())).build();
 		else
@@ -46,7 +46,7 @@ public class UnionAndIntersectionSupplier extends SettingsProblemSupplier {
 	private Problem wordProblem() {
 		int a = intInclusive(size), b = intInclusive(size), intersection = intInclusive(0, Math.min(a, b)), union = intersection + (a - intersection) + (b - intersection);
 		String uDisp = union(variable("A"), variable("B")), iDisp = intersection(variable("A"), variable("B"));
-		if(Math.random() <= 0.5)
+		if(Problem.random() <= 0.5)
 			return Builder.of(String.format("There %s %d element%s in set A, %d in set B, and %d in %s. %s has how many elements:",
 					a == 1 ? "is" : "are", a, a == 1 ? "" : "s", b, intersection, iDisp, uDisp))
 					.addResult(new Complex(union)).build();
@@ -0,0 +1,83 @@
+package utils;
+
+/**
+ * <p>An immutable Walker alias table, which chooses an index from {@code 0} (inclusive) to {@link #size()} (exclusive) with probability
+ * proportional to that index's weight in constant time. Building the table takes time linear in its size.</p>
+ *
+ * <p>Each index {@code i} owns one column of equal width, which is split between {@code i} (with probability {@code probability[i]}) and
+ * {@code alias[i]}. A draw picks a column uniformly and then one of its two halves.</p>
+ * @author Sam Hooper
+ *
+ */
+public final class AliasTable {
+
+	private final double[] probability;
+	private final int[] alias;
+
+	/**
+	 * Creates an {@link AliasTable} whose indices have the given weights. The weights are copied.
+	 * @throws IllegalArgumentException if {@code weights} is empty, a weight is negative, infinite, or {@code NaN}, or no weight is positive.
+	 */
+	public AliasTable(final double[] weights) {
+		final int n = weights.length;
+		if(n == 0)
+			throw new IllegalArgumentException("weights is empty");
+		double total = 0;
+		for(double weight : weights) {
+			checkWeight(weight);
+			total += weight;
+		}
+		if(!(total > 0))
+			throw new IllegalArgumentException("No weight is positive");
+		if(Double.isInfinite(total))
+			throw new IllegalArgumentException("The sum of the weights is too large");
+		probability = new double[n];
+		alias = new int[n];
+		final double[] scaled = new double[n];
+		//small and large are stacks of the indices whose scaled weight is less than and at least 1, sharing one array from opposite ends.
+		final int[] work = new int[n];
+		int small = 0, large = n;
+		for(int i = 0; i < n; i++) {
+			scaled[i] = weights[i] * n / total;
+			if(scaled[i] < 1)
+				work[small++] = i;
+			else
+				work[--large] = i;
+		}
+		while(small > 0 && large < n) {
+			final int s = work[--small], l = work[large++];
+			probability[s] = scaled[s];
+			alias[s] = l;
+			scaled[l] = (scaled[l] + scaled[s]) - 1;
+			if(scaled[l] < 1)
+				work[small++] = l;
+			else
+				work[--large] = l;
+		}
+		//whatever remains is 1 up to rounding error.
+		while(large < n)
+			probability[work[large++]] = 1;
+		while(small > 0)
+			probability[work[--small]] = 1;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if {@code weight} is negative, infinite, or {@code NaN}.
+	 */
+	public static void checkWeight(final double weight) {
+		if(!(weight >= 0) || Double.isInfinite(weight))
+			throw new IllegalArgumentException("Invalid weight: " + weight);
+	}
+
+	/** Returns the number of indices in this {@link AliasTable}. */
+	public int size() {
+		return probability.length;
+	}
+
+	/** Returns a random index, chosen with probability proportional to its weight using {@code random}. */
+	public int sample(final RandomSource random) {
+		final int column = random.nextInt(probability.length);
+		return random.nextDouble() < probability[column] ? column : alias[column];
+	}
+
+}
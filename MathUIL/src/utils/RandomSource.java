@@ -0,0 +1,193 @@
+package utils;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * <p>A source of pseudorandom numbers for generating {@link problems.Problem Problems}. Every random choice made while generating a
+ * {@code Problem} should be made with the {@link #current() current} {@code RandomSource}, so that problems can be regenerated from a seed.</p>
+ *
+ * <p>The current {@code RandomSource} of a thread is the one it was given with {@link #with(RandomSource, Supplier)}, or the
+ * {@link #getDefault() default} if it was not given one. The default is initially {@link #perThread()}, which gives every thread its own
+ * {@link SplittableRandom}, so generating {@code Problems} on several threads at once causes no contention.</p>
+ * @author Sam Hooper
+ *
+ */
+public abstract class RandomSource {
+
+	/** A {@link RandomSource} backed by a single {@link SplittableRandom}, which is not thread-safe. */
+	private static final class Splittable extends RandomSource {
+
+		private final SplittableRandom random;
+
+		Splittable(final SplittableRandom random) {
+			this.random = random;
+		}
+
+		@Override
+		public int nextInt(final int bound) {
+			return random.nextInt(bound);
+		}
+
+		@Override
+		public int nextInt(final int origin, final int bound) {
+			return random.nextInt(origin, bound);
+		}
+
+		@Override
+		public long nextLong(final long origin, final long bound) {
+			return random.nextLong(origin, bound);
+		}
+
+		@Override
+		public double nextDouble() {
+			return random.nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return random.nextBoolean();
+		}
+
+	}
+
+	/** A {@link RandomSource} that gives each thread a {@link SplittableRandom} split from a common root the first time the thread uses it. */
+	private static final class PerThread extends RandomSource {
+
+		private final SplittableRandom root;
+		private final ThreadLocal<SplittableRandom> local;
+
+		PerThread(final SplittableRandom root) {
+			this.root = root;
+			this.local = ThreadLocal.withInitial(this::split);
+		}
+
+		private SplittableRandom split() {
+			synchronized(root) {
+				return root.split();
+			}
+		}
+
+		@Override
+		public int nextInt(final int bound) {
+			return local.get().nextInt(bound);
+		}
+
+		@Override
+		public int nextInt(final int origin, final int bound) {
+			return local.get().nextInt(origin, bound);
+		}
+
+		@Override
+		public long nextLong(final long origin, final long bound) {
+			return local.get().nextLong(origin, bound);
+		}
+
+		@Override
+		public double nextDouble() {
+			return local.get().nextDouble();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return local.get().nextBoolean();
+		}
+
+	}
+
+	private static volatile RandomSource defaultSource = perThread();
+	/** The {@link RandomSource} each thread was given with {@link #with(RandomSource, Supplier)}, or {@code null} if it uses the default. */
+	private static final ThreadLocal<RandomSource> OVERRIDE = new ThreadLocal<>();
+
+	/**
+	 * Returns a {@link RandomSource} whose sequence of values is determined by {@code seed}. The returned {@code RandomSource} is not thread-safe,
+	 * so it should only be used by one thread at a time.
+	 */
+	public static RandomSource seeded(final long seed) {
+		return new Splittable(new SplittableRandom(seed));
+	}
+
+	/** Returns a thread-safe {@link RandomSource} that gives each thread that uses it its own randomly seeded generator. */
+	public static RandomSource perThread() {
+		return new PerThread(new SplittableRandom());
+	}
+
+	/**
+	 * Returns a thread-safe {@link RandomSource} that gives each thread that uses it its own generator, split from one seeded with {@code seed}. The
+	 * generators are split in the order in which the threads first use the returned {@code RandomSource}, so the values each thread receives are only
+	 * reproducible if the threads start in the same order.
+	 */
+	public static RandomSource perThread(final long seed) {
+		return new PerThread(new SplittableRandom(seed));
+	}
+
+	/** Returns the {@link RandomSource} that the current thread should use. */
+	public static RandomSource current() {
+		final RandomSource source = OVERRIDE.get();
+		return source == null ? defaultSource : source;
+	}
+
+	/** Returns the {@link RandomSource} used by every thread that has not been given one with {@link #with(RandomSource, Supplier)}. */
+	public static RandomSource getDefault() {
+		return defaultSource;
+	}
+
+	/**
+	 * Sets the {@link RandomSource} used by every thread that has not been given one with {@link #with(RandomSource, Supplier)}. It must be
+	 * thread-safe, such as one returned by {@link #perThread(long)}.
+	 */
+	public static void setDefault(final RandomSource source) {
+		defaultSource = Objects.requireNonNull(source);
+	}
+
+	/**
+	 * Returns the result of {@code action}, which is run on the current thread with {@code source} as its {@link #current() current}
+	 * {@link RandomSource}.
+	 */
+	public static <T> T with(final RandomSource source, final Supplier<T> action) {
+		Objects.requireNonNull(source);
+		final RandomSource previous = OVERRIDE.get();
+		OVERRIDE.set(source);
+		try {
+			return action.get();
+		}
+		finally {
+			if(previous == null)
+				OVERRIDE.remove();
+			else
+				OVERRIDE.set(previous);
+		}
+	}
+
+	protected RandomSource() {}
+
+	/** Returns a uniformly random {@code int} from {@code 0} (inclusive) to {@code bound} (exclusive), which must be positive. */
+	public abstract int nextInt(int bound);
+
+	/** Returns a uniformly random {@code int} from {@code origin} (inclusive) to {@code bound} (exclusive), which must be greater than {@code origin}. */
+	public abstract int nextInt(int origin, int bound);
+
+	/** Returns a uniformly random {@code long} from {@code origin} (inclusive) to {@code bound} (exclusive), which must be greater than {@code origin}. */
+	public abstract long nextLong(long origin, long bound);
+
+	/** Returns a uniformly random {@code double} from {@code 0} (inclusive) to {@code 1} (exclusive). */
+	public abstract double nextDouble();
+
+	/** Returns {@code true} or {@code false} with equal probability. */
+	public abstract boolean nextBoolean();
+
+	/** Returns an array of {@code count} uniformly random {@code ints} from {@code origin} (inclusive) to {@code bound} (exclusive). */
+	public int[] ints(final int count, final int origin, final int bound) {
+		final int[] ints = new int[count];
+		for(int i = 0; i < count; i++)
+			ints[i] = nextInt(origin, bound);
+		return ints;
+	}
+
+	/** Randomly permutes {@code list}, as {@link Collections#shuffle(List, Random)} does. */
+	public void shuffle(final List<?> list) {
+		for(int i = list.size() - 1; i > 0; i--)
+			Collections.swap(list, i, nextInt(i + 1));
+	}
+
+}
@@ -20,7 +20,7 @@ public interface RandomSupplier<T> extends Supplier<T> {
 			
 			@Override
 			public T get() {
-				return objects[(int) (Math.random() * objects.length)];
+				return objects[RandomSource.current().nextInt(objects.length)];
 			}
 			
 		};